@@ -5,7 +5,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({DiGraphTest.class})
+@SuiteClasses({DiGraphTest.class, BreadthFirstShortestPathAlgorithmTest.class, PathSubgraphAlgorithmTest.class, YenKShortestPathsAlgorithmTest.class, IterativeTarjanAlgorithmTest.class, JohnsonCircuitFindingAlgorithmTest.class, IndexedJohnsonCircuitFindingAlgorithmTest.class, ParallelCircuitFindingAlgorithmTest.class, IncrementalCircuitFindingAlgorithmTest.class, PluginDependencyHelperTest.class, PlatformDependencyIndexTest.class, PluginDependencyGraphUpdaterTest.class, PluginVertexIndexTest.class, AnalysisUtilTest.class})
 public class AllTests {
 
 }
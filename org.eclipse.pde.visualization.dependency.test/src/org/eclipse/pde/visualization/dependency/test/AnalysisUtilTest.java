@@ -0,0 +1,152 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
+import org.junit.Test;
+
+public class AnalysisUtilTest {
+
+	@Test
+	public void testPathOrder() {
+		final TestState state = new TestState();
+		final BundleDescription a = state.addBundle("a", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		final BundleDescription b = state.addBundle("b", "c", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		final BundleDescription c = state.addBundle("c", null, "p", null); //$NON-NLS-1$ //$NON-NLS-2$
+		final BundleDescription d = state.addBundle("d", null, null, "p"); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+
+		// the path goes from the target back to the root
+		assertEquals(Arrays.asList(new Object[] {d, c, b, a}), Arrays.asList(AnalysisUtil.getPath(a, d)));
+		assertEquals(Arrays.asList(new Object[] {c, b}), Arrays.asList(AnalysisUtil.getPath(b, c)));
+
+		// and is a shortest one
+		state.updateBundle("a", "b,c", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+		final BundleDescription shortcut = state.getBundle("a"); //$NON-NLS-1$
+		assertEquals(Arrays.asList(new Object[] {d, c, shortcut}), Arrays.asList(AnalysisUtil.getPath(shortcut, d)));
+	}
+
+	@Test
+	public void testPathToRoot() {
+		final TestState state = new TestState();
+		final BundleDescription a = state.addBundle("a", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.addBundle("b", "a", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+
+		// the root is its own path, even within a cycle
+		assertEquals(Arrays.asList(new Object[] {a}), Arrays.asList(AnalysisUtil.getPath(a, a)));
+	}
+
+	@Test
+	public void testUnreachablePath() {
+		final TestState state = new TestState();
+		final BundleDescription a = state.addBundle("a", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		final BundleDescription b = state.addBundle("b", null, null, null); //$NON-NLS-1$
+		final BundleDescription c = state.addBundle("c", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+
+		// only the target is returned when the root does not depend on it
+		assertEquals(Arrays.asList(new Object[] {a}), Arrays.asList(AnalysisUtil.getPath(b, a)));
+		assertEquals(Arrays.asList(new Object[] {c}), Arrays.asList(AnalysisUtil.getPath(a, c)));
+	}
+
+	@Test
+	public void testShortestPaths() {
+		final Random random = new Random(22);
+		for (int run = 0; run < 20; run++) {
+			final TestState state = PluginDependencyHelperTest.createRandomState(random, 10 + random.nextInt(40));
+			final BundleDescription[] bundles = state.getState().getBundles();
+			final BundleDescription root = bundles[random.nextInt(bundles.length)];
+			final Map distances = getDistances(root);
+			for (int i = 0; i < bundles.length; i++) {
+				final Object[] path = AnalysisUtil.getPath(root, bundles[i]);
+				assertEquals(bundles[i], path[0]);
+				if (!distances.containsKey(bundles[i])) {
+					assertEquals(1, path.length);
+					continue;
+				}
+				// a path of dependencies from the root, as long as the distance from the root
+				assertEquals(((Integer) distances.get(bundles[i])).intValue() + 1, path.length);
+				assertEquals(root, path[path.length - 1]);
+				for (int j = 1; j < path.length; j++) {
+					assertTrue(Arrays.asList(AnalysisUtil.getDependencies(path[j])).contains(path[j - 1]));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testShortestPathTree() {
+		final Random random = new Random(29);
+		for (int run = 0; run < 20; run++) {
+			final TestState state = PluginDependencyHelperTest.createRandomState(random, 10 + random.nextInt(40));
+			final BundleDescription[] bundles = state.getState().getBundles();
+			// the root with the most prerequisites, and every prerequisite as the target
+			BundleDescription root = bundles[0];
+			Object[] prerequisites = AnalysisUtil.getPrerequisites(new Object[] {root});
+			for (int i = 1; i < bundles.length; i++) {
+				final Object[] candidates = AnalysisUtil.getPrerequisites(new Object[] {bundles[i]});
+				if (candidates.length > prerequisites.length) {
+					root = bundles[i];
+					prerequisites = candidates;
+				}
+			}
+			for (int t = 0; t < prerequisites.length; t++) {
+				final Object target = prerequisites[t];
+				final Map next = AnalysisUtil.getShortestPathTree(root, target);
+				assertFalse(next.containsKey(target));
+
+				// the path of the tree from each direct dependency of the root is as short as the one of getPath
+				final Object[] dependencies = AnalysisUtil.getDependencies(root);
+				for (int i = 0; i < dependencies.length; i++) {
+					if (dependencies[i] == null || dependencies[i].equals(target)) {
+						continue;
+					}
+					final Object[] expected = AnalysisUtil.getPath(dependencies[i], target);
+					if (expected.length == 1) {
+						assertFalse(next.containsKey(dependencies[i]));
+						continue;
+					}
+					int length = 1;
+					for (Object current = dependencies[i]; !current.equals(target); current = next.get(current)) {
+						assertTrue(next.containsKey(current) && length <= prerequisites.length);
+						assertTrue(Arrays.asList(AnalysisUtil.getDependencies(current)).contains(next.get(current)));
+						length++;
+					}
+					assertEquals(expected.length, length);
+				}
+			}
+		}
+	}
+
+	/* The distances (Integer) from root to the bundles it depends on, by a breadth-first search over all the dependencies */
+	private static Map getDistances(Object root) {
+		final Map distances = new HashMap();
+		final List queue = new ArrayList();
+		distances.put(root, new Integer(0));
+		queue.add(root);
+		for (int head = 0; head < queue.size(); head++) {
+			final Object current = queue.get(head);
+			final Object[] dependencies = AnalysisUtil.getDependencies(current);
+			for (int i = 0; i < dependencies.length; i++) {
+				if (!distances.containsKey(dependencies[i])) {
+					distances.put(dependencies[i], new Integer(((Integer) distances.get(current)).intValue() + 1));
+					queue.add(dependencies[i]);
+				}
+			}
+		}
+		return distances;
+	}
+
+}
@@ -0,0 +1,122 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.BreadthFirstShortestPathAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.DepthFirstTraversalAlgorithm;
+import org.junit.Test;
+
+public class BreadthFirstShortestPathAlgorithmTest {
+
+	private final Vertex[] v = new Vertex[7];
+
+	/* A chain v0 -> v1 -> v2 -> v3 -> v4, a shortcut v0 -> v5 -> v4, a back edge v4 -> v0, and an isolated v6 */
+	private DiGraph createGraph() {
+		final DiGraph g = new DiGraph();
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		g.addEdge(v[0], v[1]);
+		g.addEdge(v[1], v[2]);
+		g.addEdge(v[2], v[3]);
+		g.addEdge(v[3], v[4]);
+		g.addEdge(v[0], v[5]);
+		g.addEdge(v[5], v[4]);
+		g.addEdge(v[4], v[0]);
+		return g;
+	}
+
+	@Test
+	public void testShortestPath() {
+		final DiGraph g = createGraph();
+		for (int mode = 0; mode < 2; mode++) {
+			final BreadthFirstShortestPathAlgorithm algorithm = new BreadthFirstShortestPathAlgorithm(mode == 1);
+			assertPath(new IVertex[] {v[0], v[5], v[4]}, algorithm.findShortestPath(g, v[0], v[4]));
+			assertPath(new IVertex[] {v[0], v[1], v[2], v[3]}, algorithm.findShortestPath(g, v[0], v[3]));
+			assertPath(new IVertex[] {v[3], v[4], v[0]}, algorithm.findShortestPath(g, v[3], v[0]));
+			assertPath(new IVertex[] {v[1], v[2]}, algorithm.findShortestPath(g, v[1], v[2]));
+		}
+	}
+
+	@Test
+	public void testNoPath() {
+		final DiGraph g = createGraph();
+		for (int mode = 0; mode < 2; mode++) {
+			final BreadthFirstShortestPathAlgorithm algorithm = new BreadthFirstShortestPathAlgorithm(mode == 1);
+			assertEquals(0, algorithm.findShortestPath(g, v[0], v[6]).length);
+			assertEquals(0, algorithm.findShortestPath(g, v[6], v[0]).length);
+			assertEquals(0, algorithm.findShortestPath(g, v[2], v[2]).length);
+			// the work tables are reset between runs
+			assertPath(new IVertex[] {v[0], v[5], v[4]}, algorithm.findShortestPath(g, v[0], v[4]));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testVertexNotInGraph() {
+		new BreadthFirstShortestPathAlgorithm().findShortestPath(createGraph(), v[0], new Vertex());
+	}
+
+	@Test
+	public void testSameLengthAsAllPaths() {
+		final Random random = new Random(7);
+		for (int run = 0; run < 200; run++) {
+			final DiGraph g = new DiGraph();
+			final Vertex[] vertices = new Vertex[2 + random.nextInt(8)];
+			for (int i = 0; i < vertices.length; i++) {
+				vertices[i] = new Vertex();
+				g.addVertex(vertices[i]);
+			}
+			final int edges = random.nextInt(vertices.length * 3);
+			for (int i = 0; i < edges; i++) {
+				g.addEdge(vertices[random.nextInt(vertices.length)], vertices[random.nextInt(vertices.length)]);
+			}
+			final Vertex source = vertices[0];
+			final Vertex target = vertices[vertices.length - 1];
+			int shortest = 0;
+			final List paths = new DepthFirstTraversalAlgorithm().findAllPaths(g, source, target);
+			for (int i = 0; i < paths.size(); i++) {
+				final int length = ((List) paths.get(i)).size();
+				if (shortest == 0 || length < shortest) {
+					shortest = length;
+				}
+			}
+			for (int mode = 0; mode < 2; mode++) {
+				final IVertex[] path = new BreadthFirstShortestPathAlgorithm(mode == 1).findShortestPath(g, source, target);
+				assertEquals(shortest, path.length);
+				if (path.length > 0) {
+					assertSame(source, path[0]);
+					assertSame(target, path[path.length - 1]);
+					for (int i = 1; i < path.length; i++) {
+						assertTrue(contains(g.getConnectedTo(path[i - 1]), path[i]));
+					}
+				}
+			}
+		}
+	}
+
+	private static void assertPath(IVertex[] expected, IVertex[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertSame(expected[i], actual[i]);
+		}
+	}
+
+	private static boolean contains(IVertex[] vertices, IVertex vertex) {
+		for (int i = 0; i < vertices.length; i++) {
+			if (vertices[i] == vertex) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
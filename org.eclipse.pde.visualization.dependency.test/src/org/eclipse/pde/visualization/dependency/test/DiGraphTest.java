@@ -1,6 +1,7 @@
 package org.eclipse.pde.visualization.dependency.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -51,6 +52,40 @@ public class DiGraphTest {
 		assertEquals(1, g.numberOfEdges());
 	}
 
+	@Test
+	public void testRemoveEdge() {
+		final DiGraph g = new DiGraph();
+		final Vertex v1 = new Vertex();
+		final Vertex v2 = new Vertex();
+		g.addEdge(v1, v2);
+		assertEquals(1, g.snapshot().numberOfEdges());
+		assertTrue("Edge (v1, v2) should have been removed from the DiGraph!", g.removeEdge(v1, v2));
+		assertFalse("Edge (v1, v2) should not exist anymore!", g.removeEdge(v1, v2));
+		assertEquals(0, g.numberOfEdges());
+		assertEquals(2, g.numberOfVertices());
+		assertEquals(0, g.inDegree(v2));
+		assertEquals(0, g.snapshot().numberOfEdges());
+	}
+
+	@Test
+	public void testRemoveVertex() {
+		final DiGraph g = new DiGraph();
+		final Vertex v1 = new Vertex();
+		final Vertex v2 = new Vertex();
+		final Vertex v3 = new Vertex();
+		g.addEdge(v1, v2);
+		g.addEdge(v2, v3);
+		g.addEdge(v3, v2);
+		assertTrue("Vertex v2 should have been removed from the DiGraph!", g.removeVertex(v2));
+		assertFalse("Vertex v2 should not exist anymore!", g.removeVertex(v2));
+		assertFalse(g.containsVertex(v2));
+		assertEquals(2, g.numberOfVertices());
+		assertEquals(0, g.numberOfEdges());
+		assertEquals(0, g.outDegree(v1));
+		assertEquals(0, g.inDegree(v3));
+		assertEquals(2, g.snapshot().numberOfVertices());
+	}
+
 	@Ignore
 	@Test
 	public void testIsEmpty() {
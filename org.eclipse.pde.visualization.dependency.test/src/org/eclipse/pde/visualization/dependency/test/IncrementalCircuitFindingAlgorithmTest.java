@@ -0,0 +1,105 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IncrementalCircuitFindingAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IndexedJohnsonCircuitFindingAlgorithm;
+import org.junit.Test;
+
+public class IncrementalCircuitFindingAlgorithmTest {
+
+	@Test
+	public void testSameCircuitsAsFullSearch() {
+		// four independent cyclic clusters, linked by acyclic edges
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[20];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		for (int c = 0; c < 4; c++) {
+			final int base = c * 5;
+			for (int i = 0; i < 5; i++) {
+				g.addEdge(v[base + i], v[base + (i + 1) % 5]);
+				g.addEdge(v[base + i], v[base + (i + 3) % 5]);
+			}
+			if (c > 0) {
+				g.addEdge(v[base - 1], v[base]);
+			}
+		}
+		final IElementaryCircuit[] previous = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+
+		// break a circuit of the second cluster, merge the second and third clusters, remove a vertex of the last one
+		final Set touched = new HashSet();
+		g.removeEdge(v[5], v[6]);
+		touched.addAll(Arrays.asList(new Vertex[] { v[5], v[6] }));
+		g.addEdge(v[12], v[7]);
+		touched.addAll(Arrays.asList(new Vertex[] { v[12], v[7] }));
+		g.removeVertex(v[17]);
+		touched.add(v[17]);
+
+		final List actual = new ArrayList();
+		final int[] components = new int[1];
+		final IncrementalCircuitFindingAlgorithm alg = new IncrementalCircuitFindingAlgorithm();
+		final boolean complete = alg.updateElementaryCircuits(g, previous, touched, new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+				components[0] = sizes.length;
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				actual.add(circuit);
+			}
+		}, CircuitSearchBudget.UNLIMITED, null);
+		assertTrue(complete);
+
+		final IElementaryCircuit[] expected = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(toCanonicalSet(Arrays.asList(expected), v), toCanonicalSet(actual, v));
+		assertEquals(expected.length, actual.size());
+		assertEquals(3, components[0]);
+		// only the merged cluster is enumerated again: the circuits of the first cluster, and the ones of the last
+		// cluster not going through the removed vertex, are kept
+		assertEquals(1, alg.getRecomputedComponents());
+		final List indices = Arrays.asList(v);
+		int kept = 0;
+		for (int i = 0; i < previous.length; i++) {
+			final int cluster = indices.indexOf(previous[i].getVertices().get(0)) / 5;
+			if (cluster == 0 || (cluster == 3 && previous[i].indexOf(v[17]) < 0)) {
+				kept++;
+			}
+		}
+		assertEquals(kept, alg.getKeptCircuits());
+	}
+
+	/* Returns the circuits as strings of vertex indices, rotated to start with their least index */
+	private static Set toCanonicalSet(List circuits, Vertex[] v) {
+		final List indices = Arrays.asList(v);
+		final Set set = new HashSet();
+		for (int i = 0; i < circuits.size(); i++) {
+			final List vertices = ((IElementaryCircuit) circuits.get(i)).getVertices();
+			int least = 0;
+			for (int j = 1; j < vertices.size(); j++) {
+				if (indices.indexOf(vertices.get(j)) < indices.indexOf(vertices.get(least))) {
+					least = j;
+				}
+			}
+			final StringBuffer buffer = new StringBuffer();
+			for (int j = 0; j < vertices.size(); j++) {
+				buffer.append(indices.indexOf(vertices.get((least + j) % vertices.size()))).append(' ');
+			}
+			set.add(buffer.toString());
+		}
+		return set;
+	}
+
+}
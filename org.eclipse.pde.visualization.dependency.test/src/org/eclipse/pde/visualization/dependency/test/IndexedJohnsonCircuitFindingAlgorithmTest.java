@@ -0,0 +1,179 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IndexedJohnsonCircuitFindingAlgorithm;
+import org.junit.Test;
+
+public class IndexedJohnsonCircuitFindingAlgorithmTest {
+
+	@Test
+	public void testFindAllElementaryCircuits() {
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[6];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+		}
+		g.addEdge(v[0], v[1]);
+		g.addEdge(v[0], v[2]);
+		g.addEdge(v[1], v[3]);
+		g.addEdge(v[2], v[3]);
+		g.addEdge(v[3], v[4]);
+		g.addEdge(v[4], v[1]);
+		g.addEdge(v[3], v[5]);
+		g.addEdge(v[5], v[5]);
+
+		final IElementaryCircuit[] circuits = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(2, circuits.length);
+		int selfLoops = 0;
+		for (int i = 0; i < circuits.length; i++) {
+			if (circuits[i].size() == 1) {
+				assertEquals(v[5], circuits[i].getVertices().get(0));
+				selfLoops++;
+			}
+			else {
+				assertEquals(3, circuits[i].size());
+				assertTrue(circuits[i].indexOf(v[1]) >= 0);
+				assertTrue(circuits[i].indexOf(v[3]) >= 0);
+				assertTrue(circuits[i].indexOf(v[4]) >= 0);
+			}
+		}
+		assertEquals(1, selfLoops);
+	}
+
+	@Test
+	public void testCompleteGraph() {
+		// a complete digraph on 4 vertices has 6 + 8 + 6 = 20 elementary circuits
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[4];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		for (int i = 0; i < v.length; i++) {
+			for (int j = 0; j < v.length; j++) {
+				if (i != j) {
+					g.addEdge(v[i], v[j]);
+				}
+			}
+		}
+		final IElementaryCircuit[] circuits = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(20, circuits.length);
+	}
+
+	@Test
+	public void testMaxLengthBudget() {
+		final Random random = new Random(6);
+		for (int run = 0; run < 50; run++) {
+			final DiGraph g = createRandomGraph(random, 4 + random.nextInt(7));
+			final IElementaryCircuit[] all = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+			for (int maxLength = 1; maxLength <= g.getVertices().length; maxLength++) {
+				// the circuits found within the length limit are the circuits of the unlimited search that fit in it
+				final List expected = new ArrayList();
+				boolean longer = false;
+				for (int i = 0; i < all.length; i++) {
+					if (all[i].size() <= maxLength) {
+						expected.add(all[i].getVertices());
+					}
+					else {
+						longer = true;
+					}
+				}
+				final List actual = new ArrayList();
+				final boolean complete = new IndexedJohnsonCircuitFindingAlgorithm().findElementaryCircuits(g, new Collector(actual), new CircuitSearchBudget(maxLength, Integer.MAX_VALUE, Long.MAX_VALUE), null);
+				assertEquals(expected, actual);
+				if (longer) {
+					assertFalse(complete);
+				}
+				if (maxLength == g.getVertices().length) {
+					assertTrue(complete);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMaxCountBudget() {
+		final Random random = new Random(7);
+		for (int run = 0; run < 50; run++) {
+			final DiGraph g = createRandomGraph(random, 4 + random.nextInt(7));
+			final IElementaryCircuit[] all = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+			for (int maxCount = 1; maxCount <= all.length + 1; maxCount++) {
+				// the circuits found within the count limit are the first circuits of the unlimited search
+				final List expected = new ArrayList();
+				for (int i = 0; i < Math.min(maxCount, all.length); i++) {
+					expected.add(all[i].getVertices());
+				}
+				final List actual = new ArrayList();
+				final boolean complete = new IndexedJohnsonCircuitFindingAlgorithm().findElementaryCircuits(g, new Collector(actual), new CircuitSearchBudget(Integer.MAX_VALUE, maxCount, Long.MAX_VALUE), null);
+				assertEquals(expected, actual);
+				if (all.length > maxCount) {
+					assertFalse(complete);
+				}
+				else if (all.length < maxCount) {
+					assertTrue(complete);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnlimitedBudget() {
+		final Random random = new Random(8);
+		for (int run = 0; run < 20; run++) {
+			final DiGraph g = createRandomGraph(random, 4 + random.nextInt(7));
+			final List actual = new ArrayList();
+			assertTrue(new IndexedJohnsonCircuitFindingAlgorithm().findElementaryCircuits(g, new Collector(actual), CircuitSearchBudget.UNLIMITED, null));
+			assertEquals(new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g).length, actual.size());
+		}
+	}
+
+	/* A random digraph, with self-loops */
+	private static DiGraph createRandomGraph(Random random, int size) {
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[size];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		for (int i = 0; i < v.length; i++) {
+			for (int j = 0; j < v.length; j++) {
+				if (random.nextInt(10) < 3) {
+					g.addEdge(v[i], v[j]);
+				}
+			}
+		}
+		return g;
+	}
+
+	/* Collects the vertices of the circuits found */
+	private static class Collector implements IElementaryCircuitCollector {
+
+		private final List circuits;
+
+		Collector(List circuits) {
+			this.circuits = circuits;
+		}
+
+		public void componentsFound(int[] sizes) {
+			// not needed
+		}
+
+		public void circuitFound(IElementaryCircuit circuit) {
+			circuits.add(circuit.getVertices());
+		}
+
+	}
+
+}
@@ -0,0 +1,79 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IterativeTarjanAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.StronglyConnectedComponents;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.TarjanAlgorithm;
+import org.junit.Test;
+
+public class IterativeTarjanAlgorithmTest {
+
+	@Test
+	public void testSameComponentsAsTarjanAlgorithm() {
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[6];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+		}
+		g.addEdge(v[0], v[1]);
+		g.addEdge(v[0], v[2]);
+		g.addEdge(v[1], v[3]);
+		g.addEdge(v[2], v[3]);
+		g.addEdge(v[3], v[4]);
+		g.addEdge(v[4], v[1]);
+		g.addEdge(v[3], v[5]);
+		g.addEdge(v[5], v[5]);
+
+		final List[] expected = new TarjanAlgorithm().findStronglyConnectedComponents(g);
+		final List[] actual = new IterativeTarjanAlgorithm().findStronglyConnectedComponents(g);
+		assertEquals(Arrays.asList(expected), Arrays.asList(actual));
+		assertEquals(4, actual.length);
+	}
+
+	@Test
+	public void testComponentRanges() {
+		final DiGraph g = new DiGraph();
+		final Vertex a = new Vertex();
+		final Vertex b = new Vertex();
+		final Vertex c = new Vertex();
+		g.addEdge(a, b);
+		g.addEdge(b, a);
+		g.addEdge(b, c);
+
+		final DiGraphSnapshot snapshot = g.snapshot();
+		final StronglyConnectedComponents sccs = new IterativeTarjanAlgorithm().findComponents(snapshot);
+		assertEquals(2, sccs.numberOfComponents());
+		final int ab = sccs.getComponentOf(snapshot.getId(a));
+		assertEquals(ab, sccs.getComponentOf(snapshot.getId(b)));
+		assertEquals(2, sccs.size(ab));
+		assertEquals(1, sccs.size(sccs.getComponentOf(snapshot.getId(c))));
+		for (int i = sccs.getComponentStart(ab); i < sccs.getComponentEnd(ab); i++) {
+			assertEquals(ab, sccs.getComponentOf(sccs.getMember(i)));
+		}
+	}
+
+	@Test
+	public void testLongChainDoesNotOverflow() {
+		final DiGraph g = new DiGraph();
+		IVertex previous = new Vertex();
+		for (int i = 0; i < 100000; i++) {
+			final Vertex next = new Vertex();
+			g.addEdge(previous, next);
+			previous = next;
+		}
+		final IterativeTarjanAlgorithm alg = new IterativeTarjanAlgorithm();
+		assertEquals(100001, alg.findComponents(g.snapshot()).numberOfComponents());
+		// the algorithm can be reused
+		assertTrue(alg.findStronglyConnectedComponents(g).length == 100001);
+	}
+
+}
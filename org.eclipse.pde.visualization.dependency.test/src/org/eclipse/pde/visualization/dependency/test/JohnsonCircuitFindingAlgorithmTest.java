@@ -0,0 +1,80 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.JohnsonCircuitFindingAlgorithm;
+import org.junit.Test;
+
+public class JohnsonCircuitFindingAlgorithmTest {
+
+	@Test
+	public void testSingleSelfLoop() {
+		final DiGraph g = new DiGraph();
+		final Vertex v = new Vertex();
+		g.addEdge(v, v);
+		final IElementaryCircuit[] circuits = new JohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(1, circuits.length);
+		assertEquals(1, circuits[0].size());
+		assertEquals(v, circuits[0].getVertices().get(0));
+	}
+
+	@Test
+	public void testSelfLoopOnEveryVertex() {
+		// whatever the iteration order of the graph, the self-loop of the last vertex visited must be found
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[5];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addEdge(v[i], v[i]);
+		}
+		final IElementaryCircuit[] circuits = new JohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(v.length, circuits.length);
+		for (int i = 0; i < v.length; i++) {
+			int found = 0;
+			for (int j = 0; j < circuits.length; j++) {
+				if (circuits[j].getVertices().get(0) == v[i]) {
+					assertEquals(1, circuits[j].size());
+					found++;
+				}
+			}
+			assertEquals(1, found);
+		}
+	}
+
+	@Test
+	public void testSelfLoopsAndCircuits() {
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[4];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+		}
+		g.addEdge(v[0], v[1]);
+		g.addEdge(v[1], v[0]);
+		g.addEdge(v[1], v[2]);
+		g.addEdge(v[2], v[2]);
+		g.addEdge(v[2], v[3]);
+		g.addEdge(v[3], v[3]);
+
+		final IElementaryCircuit[] circuits = new JohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(3, circuits.length);
+		int selfLoops = 0;
+		for (int i = 0; i < circuits.length; i++) {
+			if (circuits[i].size() == 1) {
+				final Object vertex = circuits[i].getVertices().get(0);
+				assertTrue(vertex == v[2] || vertex == v[3]);
+				selfLoops++;
+			}
+			else {
+				assertEquals(2, circuits[i].size());
+				assertTrue(circuits[i].indexOf(v[0]) >= 0);
+				assertTrue(circuits[i].indexOf(v[1]) >= 0);
+			}
+		}
+		assertEquals(2, selfLoops);
+	}
+
+}
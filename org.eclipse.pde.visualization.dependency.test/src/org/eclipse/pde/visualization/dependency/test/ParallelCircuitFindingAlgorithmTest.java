@@ -0,0 +1,133 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IndexedJohnsonCircuitFindingAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.ParallelCircuitFindingAlgorithm;
+import org.junit.Test;
+
+public class ParallelCircuitFindingAlgorithmTest {
+
+	@Test
+	public void testSameCircuitsAsSequentialAlgorithm() {
+		final DiGraph g = createClusters();
+		final IElementaryCircuit[] expected = new IndexedJohnsonCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		final IElementaryCircuit[] actual = new ParallelCircuitFindingAlgorithm().findAllElementaryCircuits(g);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getVertices(), actual[i].getVertices());
+		}
+	}
+
+	@Test
+	public void testSameCircuitsAsSequentialAlgorithmWithinBudget() {
+		final DiGraph g = createClusters();
+		final CircuitSearchBudget[] budgets = new CircuitSearchBudget[] {
+				new CircuitSearchBudget(Integer.MAX_VALUE, 5, Long.MAX_VALUE),
+				new CircuitSearchBudget(3, Integer.MAX_VALUE, Long.MAX_VALUE),
+				new CircuitSearchBudget(4, 7, Long.MAX_VALUE) };
+		for (int b = 0; b < budgets.length; b++) {
+			final List expected = new ArrayList();
+			final List actual = new ArrayList();
+			final int[] expectedComponents = new int[1];
+			final int[] actualComponents = new int[1];
+			final boolean expectedComplete = new IndexedJohnsonCircuitFindingAlgorithm().findElementaryCircuits(g, new Collector(expected, expectedComponents), budgets[b], null);
+			final boolean actualComplete = new ParallelCircuitFindingAlgorithm().findElementaryCircuits(g, new Collector(actual, actualComponents), budgets[b], null);
+			assertFalse(actualComplete);
+			assertEquals(expectedComplete, actualComplete);
+			assertEquals(expectedComponents[0], actualComponents[0]);
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(((IElementaryCircuit) expected.get(i)).getVertices(), ((IElementaryCircuit) actual.get(i)).getVertices());
+			}
+		}
+	}
+
+	@Test
+	public void testCompleteSearch() {
+		final List circuits = new ArrayList();
+		final int[] components = new int[1];
+		assertTrue(new ParallelCircuitFindingAlgorithm().findElementaryCircuits(createClusters(), new Collector(circuits, components), CircuitSearchBudget.UNLIMITED, new NullProgressMonitor()));
+		assertEquals(4, components[0]);
+		assertFalse(circuits.isEmpty());
+	}
+
+	@Test
+	public void testComponentsReportedFirst() {
+		final List events = new ArrayList();
+		new ParallelCircuitFindingAlgorithm().findElementaryCircuits(createClusters(), new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+				events.add("components"); //$NON-NLS-1$
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				events.add("circuit"); //$NON-NLS-1$
+			}
+		}, CircuitSearchBudget.UNLIMITED, null);
+		assertTrue(events.size() > 1);
+		assertEquals("components", events.get(0)); //$NON-NLS-1$
+		assertEquals(0, events.lastIndexOf("components")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCanceledSearch() {
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		final List circuits = new ArrayList();
+		assertFalse(new ParallelCircuitFindingAlgorithm().findElementaryCircuits(createClusters(), new Collector(circuits, new int[1]), CircuitSearchBudget.UNLIMITED, monitor));
+		assertTrue(circuits.isEmpty());
+	}
+
+	/* Several independent cyclic clusters, linked by acyclic edges */
+	private static DiGraph createClusters() {
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[20];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		for (int c = 0; c < 4; c++) {
+			final int base = c * 5;
+			for (int i = 0; i < 5; i++) {
+				g.addEdge(v[base + i], v[base + (i + 1) % 5]);
+				g.addEdge(v[base + i], v[base + (i + 3) % 5]);
+			}
+			if (c > 0) {
+				g.addEdge(v[base - 1], v[base]);
+			}
+		}
+		return g;
+	}
+
+	private static class Collector implements IElementaryCircuitCollector {
+
+		private final List circuits;
+		private final int[] components;
+
+		Collector(List circuits, int[] components) {
+			this.circuits = circuits;
+			this.components = components;
+		}
+
+		public void componentsFound(int[] sizes) {
+			components[0] = sizes.length;
+		}
+
+		public void circuitFound(IElementaryCircuit circuit) {
+			circuits.add(circuit);
+		}
+
+	}
+
+}
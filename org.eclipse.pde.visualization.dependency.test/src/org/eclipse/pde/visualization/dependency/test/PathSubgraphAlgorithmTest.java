@@ -0,0 +1,132 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.DepthFirstTraversalAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.PathSubgraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.PathSubgraphAlgorithm;
+import org.junit.Test;
+
+public class PathSubgraphAlgorithmTest {
+
+	@Test
+	public void testPathSubgraph() {
+		// two paths v0 -> v1 -> v3 and v0 -> v2 -> v3, a dead end v1 -> v4, and a vertex v5 only reaching v3
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[6];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		g.addEdge(v[0], v[1]);
+		g.addEdge(v[0], v[2]);
+		g.addEdge(v[1], v[3]);
+		g.addEdge(v[2], v[3]);
+		g.addEdge(v[1], v[4]);
+		g.addEdge(v[5], v[3]);
+
+		final PathSubgraph subgraph = new PathSubgraphAlgorithm().findPathSubgraph(g, v[0], v[3]);
+		assertFalse(subgraph.isEmpty());
+		assertEquals(4, subgraph.getVertices().length);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(subgraph.containsVertex(v[i]));
+		}
+		assertFalse(subgraph.containsVertex(v[4]));
+		assertFalse(subgraph.containsVertex(v[5]));
+		assertEquals(4, subgraph.numberOfEdges());
+	}
+
+	@Test
+	public void testNoPath() {
+		final DiGraph g = new DiGraph();
+		final Vertex v1 = new Vertex();
+		final Vertex v2 = new Vertex();
+		g.addEdge(v2, v1);
+		final PathSubgraph subgraph = new PathSubgraphAlgorithm().findPathSubgraph(g, v1, v2);
+		assertTrue(subgraph.isEmpty());
+		assertEquals(0, subgraph.getVertices().length);
+		assertEquals(0, subgraph.numberOfEdges());
+	}
+
+	@Test
+	public void testCoversAllPaths() {
+		final Random random = new Random(11);
+		for (int run = 0; run < 200; run++) {
+			final boolean acyclic = (run % 2 == 0);
+			final DiGraph g = new DiGraph();
+			final Vertex[] vertices = new Vertex[2 + random.nextInt(8)];
+			for (int i = 0; i < vertices.length; i++) {
+				vertices[i] = new Vertex();
+				g.addVertex(vertices[i]);
+			}
+			final int edges = random.nextInt(vertices.length * 3);
+			for (int i = 0; i < edges; i++) {
+				int from = random.nextInt(vertices.length);
+				int to = random.nextInt(vertices.length);
+				if (acyclic && from >= to) {
+					continue;
+				}
+				g.addEdge(vertices[from], vertices[to]);
+			}
+			final Vertex source = vertices[0];
+			final Vertex target = vertices[vertices.length - 1];
+			final PathSubgraph subgraph = new PathSubgraphAlgorithm().findPathSubgraph(g, source, target);
+
+			// every vertex and edge of every path is covered by the subgraph
+			final List paths = new DepthFirstTraversalAlgorithm().findAllPaths(g, source, target);
+			final Set pathVertices = new HashSet();
+			final Set subgraphEdges = new HashSet();
+			for (int i = 0; i < subgraph.numberOfEdges(); i++) {
+				assertTrue(subgraph.containsVertex(subgraph.getEdgeSource(i)));
+				assertTrue(subgraph.containsVertex(subgraph.getEdgeTarget(i)));
+				subgraphEdges.add(new Edge(subgraph.getEdgeSource(i), subgraph.getEdgeTarget(i)));
+			}
+			for (int i = 0; i < paths.size(); i++) {
+				final List path = (List) paths.get(i);
+				pathVertices.addAll(path);
+				for (int j = 0; j < path.size(); j++) {
+					assertTrue(subgraph.containsVertex((IVertex) path.get(j)));
+					if (j > 0) {
+						assertTrue(subgraphEdges.contains(new Edge((IVertex) path.get(j - 1), (IVertex) path.get(j))));
+					}
+				}
+			}
+			assertEquals(paths.isEmpty(), subgraph.isEmpty());
+			if (acyclic) {
+				// without cycles, the subgraph is exactly the union of the paths
+				assertEquals(pathVertices.size(), subgraph.getVertices().length);
+			}
+		}
+	}
+
+	private static final class Edge {
+
+		private final IVertex source;
+		private final IVertex target;
+
+		Edge(IVertex source, IVertex target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		public boolean equals(Object obj) {
+			return (obj instanceof Edge && ((Edge) obj).source == source && ((Edge) obj).target == target);
+		}
+
+		public int hashCode() {
+			return source.hashCode() * 31 + target.hashCode();
+		}
+
+	}
+
+}
@@ -0,0 +1,220 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.ui.provisional.PluginDependencyHelper;
+import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
+import org.eclipse.pde.internal.visualization.dependency.views.DependencyCache;
+import org.junit.Test;
+
+public class PlatformDependencyIndexTest {
+
+	@Test
+	public void testSameSlicesAsHelper() {
+		final Random random = new Random(16);
+		for (int run = 0; run < 20; run++) {
+			final TestState state = PluginDependencyHelperTest.createRandomState(random, 10 + random.nextInt(50));
+			final PlatformDependencyIndex index = PlatformDependencyIndex.getIndex(state.getState());
+			final BundleDescription[] bundles = state.getState().getBundles();
+			assertEquals(bundles.length, index.numberOfBundles());
+			for (int i = 0; i < bundles.length; i++) {
+				for (int reversed = 0; reversed < 2; reversed++) {
+					final PluginDependencyHelper helper = new PluginDependencyHelper();
+					final DiGraph expected = (reversed == 1 ? helper.createReversedPluginDependencyGraph(new PluginVertex(bundles[i])) : helper.createPluginDependencyGraph(new PluginVertex(bundles[i])));
+					final DiGraph actual = index.createSlice(new PluginVertex(bundles[i]), reversed == 1);
+					assertEquals(PluginDependencyHelperTest.vertexKeys(expected), PluginDependencyHelperTest.vertexKeys(actual));
+					assertEquals(PluginDependencyHelperTest.edgeKeys(expected), PluginDependencyHelperTest.edgeKeys(actual));
+				}
+			}
+		}
+		PlatformDependencyIndex.release();
+	}
+
+	@Test
+	public void testSameCallersAsScan() {
+		final Random random = new Random(20);
+		for (int run = 0; run < 20; run++) {
+			final TestState state = PluginDependencyHelperTest.createRandomState(random, 10 + random.nextInt(50));
+			final PlatformDependencyIndex index = PlatformDependencyIndex.getIndex(state.getState());
+			final BundleDescription[] bundles = state.getState().getBundles();
+			for (int i = 0; i < bundles.length; i++) {
+				final Set expected = getCallers(bundles[i], bundles);
+				assertEquals(expected, new HashSet(Arrays.asList(index.getCallers(bundles[i]))));
+				assertEquals(expected, new HashSet(Arrays.asList(AnalysisUtil.getCallers(bundles[i], bundles))));
+
+				final Set expectedAll = getAllCallers(bundles[i], bundles);
+				assertEquals(expectedAll, index.getAllCallers(bundles[i]));
+				assertEquals(expectedAll, AnalysisUtil.getAllCallers(bundles[i]));
+				assertEquals(expectedAll.size(), index.getAllCallerIds(bundles[i]).cardinality());
+			}
+		}
+		PlatformDependencyIndex.release();
+	}
+
+	@Test
+	public void testIndexLifecycle() {
+		final TestState state = new TestState();
+		state.addBundle("a", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		final BundleDescription b = state.addBundle("b", null, null, null); //$NON-NLS-1$
+		state.resolve();
+
+		final PlatformDependencyIndex index = PlatformDependencyIndex.getIndex(state.getState());
+		assertSame(index, PlatformDependencyIndex.getIndex(state.getState()));
+		assertEquals(1, index.getCallers(b).length);
+		assertNull(index.createSlice(new PluginVertex(new TestState().addBundle("c", null, null, null)), false)); //$NON-NLS-1$
+
+		// the indexes of different states are kept side by side
+		final TestState other = new TestState();
+		other.addBundle("d", null, null, null); //$NON-NLS-1$
+		other.resolve();
+		final PlatformDependencyIndex otherIndex = PlatformDependencyIndex.getIndex(other.getState());
+		assertSame(index, PlatformDependencyIndex.getIndex(state.getState()));
+		assertSame(otherIndex, PlatformDependencyIndex.getIndex(other.getState()));
+
+		// the index is rebuilt once the state is resolved again
+		state.addBundle("c", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+		final PlatformDependencyIndex resolved = PlatformDependencyIndex.getIndex(state.getState());
+		assertNotSame(index, resolved);
+		assertEquals(2, resolved.getCallers(b).length);
+		assertSame(otherIndex, PlatformDependencyIndex.getIndex(other.getState()));
+
+		// and once it is released
+		PlatformDependencyIndex.release();
+		assertNotSame(resolved, PlatformDependencyIndex.getIndex(state.getState()));
+		PlatformDependencyIndex.release();
+	}
+
+	@Test
+	public void testIncrementalIndex() {
+		// a chain of bundles, each requiring the next one
+		final TestState state = new TestState();
+		for (int i = 0; i < 50; i++) {
+			state.addBundle("b" + i, (i < 49 ? "b" + (i + 1) : null), null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		state.resolve();
+		final PlatformDependencyIndex index = PlatformDependencyIndex.getIndex(state.getState());
+		assertEquals(50, index.numberOfComputedBundles());
+
+		// replacing the last bundle only computes it and the bundle requiring it
+		state.updateBundle("b49", null, null, null); //$NON-NLS-1$
+		state.resolve();
+		final PlatformDependencyIndex updated = PlatformDependencyIndex.getIndex(state.getState());
+		assertEquals(2, updated.numberOfComputedBundles());
+		assertEquals(PluginDependencyHelperTest.edgeKeys(index.createSlice(new PluginVertex(state.getBundle("b0")), false)), //$NON-NLS-1$
+				PluginDependencyHelperTest.edgeKeys(updated.createSlice(new PluginVertex(state.getBundle("b0")), false))); //$NON-NLS-1$
+
+		// adding a bundle only computes it
+		state.addBundle("c", "b0", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+		final PlatformDependencyIndex added = PlatformDependencyIndex.getIndex(state.getState());
+		assertEquals(1, added.numberOfComputedBundles());
+		assertEquals(51, added.numberOfBundles());
+		assertEquals(1, added.getCallers(state.getBundle("b0")).length); //$NON-NLS-1$
+
+		// a resolution the index was not notified of computes every bundle again
+		state.updateBundle("b49", null, null, null); //$NON-NLS-1$
+		state.getState().resolve(false);
+		assertEquals(51, PlatformDependencyIndex.getIndex(state.getState()).numberOfComputedBundles());
+		PlatformDependencyIndex.release();
+		DependencyCache.getDefault().clear();
+	}
+
+	@Test
+	public void testIncrementalSameAsFullBuild() {
+		final Random random = new Random(23);
+		for (int run = 0; run < 20; run++) {
+			final int size = 10 + random.nextInt(40);
+			final TestState state = PluginDependencyHelperTest.createRandomState(random, size);
+			PlatformDependencyIndex.getIndex(state.getState());
+			for (int step = 0; step < 5; step++) {
+				// rewire, remove and add a few bundles at random
+				for (int i = random.nextInt(3); i >= 0; i--) {
+					final String name = "b" + random.nextInt(size); //$NON-NLS-1$
+					if (state.getBundle(name) == null) {
+						state.addBundle(name, (random.nextBoolean() ? "b" + random.nextInt(size) : null), (random.nextBoolean() ? "p" + random.nextInt(size) : null), "p" + random.nextInt(size)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					}
+					else if (random.nextInt(4) == 0) {
+						state.removeBundle(name);
+					}
+					else {
+						state.updateBundle(name, (random.nextBoolean() ? "b" + random.nextInt(size) : null), (random.nextBoolean() ? "p" + random.nextInt(size) : null), (random.nextBoolean() ? "p" + random.nextInt(size) : null)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					}
+				}
+				state.resolve();
+				final BundleDescription[] bundles = state.getState().getBundles();
+				final PlatformDependencyIndex index = PlatformDependencyIndex.getIndex(state.getState());
+				assertTrue(index.numberOfComputedBundles() < bundles.length);
+
+				// the dependencies kept by the cache are the ones computed from scratch
+				final Set[] cached = new Set[bundles.length];
+				for (int i = 0; i < bundles.length; i++) {
+					cached[i] = new HashSet(Arrays.asList(AnalysisUtil.getDependencies(bundles[i])));
+				}
+				DependencyCache.getDefault().clear();
+				for (int i = 0; i < bundles.length; i++) {
+					assertEquals(cached[i], new HashSet(Arrays.asList(AnalysisUtil.getDependencies(bundles[i]))));
+				}
+
+				// and the index built from the previous one is the index built from scratch
+				PlatformDependencyIndex.release();
+				final PlatformDependencyIndex full = PlatformDependencyIndex.getIndex(state.getState());
+				assertEquals(bundles.length, full.numberOfComputedBundles());
+				for (int i = 0; i < bundles.length; i++) {
+					assertEquals(new HashSet(Arrays.asList(full.getCallers(bundles[i]))), new HashSet(Arrays.asList(index.getCallers(bundles[i]))));
+					final DiGraph expected = full.createSlice(new PluginVertex(bundles[i]), false);
+					final DiGraph actual = index.createSlice(new PluginVertex(bundles[i]), false);
+					assertEquals(PluginDependencyHelperTest.vertexKeys(expected), PluginDependencyHelperTest.vertexKeys(actual));
+					assertEquals(PluginDependencyHelperTest.edgeKeys(expected), PluginDependencyHelperTest.edgeKeys(actual));
+				}
+			}
+		}
+		PlatformDependencyIndex.release();
+	}
+
+	/* The callers of bundle within bundles, found by scanning the dependencies of all the bundles */
+	private static Set getCallers(BundleDescription bundle, BundleDescription[] bundles) {
+		final Set callers = new HashSet();
+		for (int i = 0; i < bundles.length; i++) {
+			if (Arrays.asList(AnalysisUtil.getDependencies(bundles[i])).contains(bundle)) {
+				callers.add(bundles[i]);
+			}
+		}
+		return callers;
+	}
+
+	/* The transitive callers of bundle within bundles, including bundle */
+	private static Set getAllCallers(BundleDescription bundle, BundleDescription[] bundles) {
+		final Set callers = new HashSet();
+		final List queue = new ArrayList();
+		callers.add(bundle);
+		queue.add(bundle);
+		for (int head = 0; head < queue.size(); head++) {
+			final Set direct = getCallers((BundleDescription) queue.get(head), bundles);
+			for (final Iterator itr = direct.iterator(); itr.hasNext();) {
+				final Object caller = itr.next();
+				if (callers.add(caller)) {
+					queue.add(caller);
+				}
+			}
+		}
+		return callers;
+	}
+
+}
@@ -0,0 +1,161 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.IPluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginDependencyGraphUpdater;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.ui.provisional.PluginDependencyHelper;
+import org.junit.Test;
+
+public class PluginDependencyGraphUpdaterTest {
+
+	@Test
+	public void testAddedPlugin() {
+		final TestState state = new TestState();
+		state.addBundle("a", "b,c", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.addBundle("b", null, null, null); //$NON-NLS-1$
+		state.resolve();
+		final IPluginVertex root = new PluginVertex(state.getBundle("a")); //$NON-NLS-1$
+		final DiGraph graph = build(root, false);
+		assertTrue(PluginDependencyHelperTest.vertexKeys(graph).contains("!c_1.0.0")); //$NON-NLS-1$
+
+		// the missing plug-in is added
+		state.addBundle("c", null, null, null); //$NON-NLS-1$
+		state.resolve();
+		final PluginDependencyGraphUpdater updater = new PluginDependencyGraphUpdater(graph, root, false);
+		assertTrue(updater.update(state.getState()));
+		assertSameGraph(build(updater.getRoot(), false), graph);
+		assertSame(root, updater.getRoot());
+		assertTrue(PluginDependencyHelperTest.vertexKeys(graph).contains("c_1.0.0")); //$NON-NLS-1$
+		assertFalse(PluginDependencyHelperTest.vertexKeys(graph).contains("!c_1.0.0")); //$NON-NLS-1$
+		PlatformDependencyIndex.release();
+	}
+
+	@Test
+	public void testRemovedPlugin() {
+		final TestState state = new TestState();
+		state.addBundle("a", "b", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.addBundle("b", "c;resolution:=optional", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.addBundle("c", null, null, null); //$NON-NLS-1$
+		state.resolve();
+		final IPluginVertex root = new PluginVertex(state.getBundle("a")); //$NON-NLS-1$
+		final DiGraph graph = build(root, false);
+		final IVertex b = find(graph, "b_1.0.0"); //$NON-NLS-1$
+
+		state.removeBundle("c"); //$NON-NLS-1$
+		state.resolve();
+		final PluginDependencyGraphUpdater updater = new PluginDependencyGraphUpdater(graph, root, false);
+		assertTrue(updater.update(state.getState()));
+		assertSameGraph(build(updater.getRoot(), false), graph);
+		assertFalse(PluginDependencyHelperTest.vertexKeys(graph).contains("c_1.0.0")); //$NON-NLS-1$
+		assertTrue(PluginDependencyHelperTest.vertexKeys(graph).contains("?c")); //$NON-NLS-1$
+		// the vertex of the unchanged plug-in is kept, and touched since its dependencies changed
+		assertSame(b, find(graph, "b_1.0.0")); //$NON-NLS-1$
+		assertTrue(updater.getTouchedVertices().contains(b));
+		assertFalse(updater.getTouchedVertices().contains(root));
+
+		// the graph cannot be updated once the root is removed
+		state.removeBundle("a"); //$NON-NLS-1$
+		state.resolve();
+		final Set keys = PluginDependencyHelperTest.vertexKeys(graph);
+		assertFalse(new PluginDependencyGraphUpdater(graph, root, false).update(state.getState()));
+		assertEquals(keys, PluginDependencyHelperTest.vertexKeys(graph));
+		PlatformDependencyIndex.release();
+	}
+
+	@Test
+	public void testRewiredPlugin() {
+		// a imports a package nobody exports yet, and c is not part of the graph of a
+		final TestState state = new TestState();
+		state.addBundle("a", "b", "p", null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		state.addBundle("b", null, null, null); //$NON-NLS-1$
+		state.addBundle("c", null, null, null); //$NON-NLS-1$
+		state.resolve();
+		final IPluginVertex root = new PluginVertex(state.getBundle("a")); //$NON-NLS-1$
+		final DiGraph graph = build(root, false);
+		assertFalse(PluginDependencyHelperTest.vertexKeys(graph).contains("c_1.0.0")); //$NON-NLS-1$
+
+		// c now exports the package, which rewires a although only c changed
+		state.updateBundle("c", null, null, "p"); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+		final PluginDependencyGraphUpdater updater = new PluginDependencyGraphUpdater(graph, root, false);
+		assertTrue(updater.update(state.getState()));
+		assertSameGraph(build(updater.getRoot(), false), graph);
+		assertTrue(PluginDependencyHelperTest.edgeKeys(graph).contains("a_1.0.0 -> c_1.0.0")); //$NON-NLS-1$
+
+		// and the callers graph of c is updated the same way
+		final IPluginVertex callee = new PluginVertex(state.getBundle("c")); //$NON-NLS-1$
+		final DiGraph callers = build(callee, true);
+		state.updateBundle("b", null, "p", null); //$NON-NLS-1$ //$NON-NLS-2$
+		state.resolve();
+		final PluginDependencyGraphUpdater reversedUpdater = new PluginDependencyGraphUpdater(callers, callee, true);
+		assertTrue(reversedUpdater.update(state.getState()));
+		assertSameGraph(build(reversedUpdater.getRoot(), true), callers);
+		assertTrue(PluginDependencyHelperTest.edgeKeys(callers).contains("b_1.0.0 -> c_1.0.0")); //$NON-NLS-1$
+		PlatformDependencyIndex.release();
+	}
+
+	@Test
+	public void testSameGraphAsBuild() {
+		final Random random = new Random(17);
+		for (int run = 0; run < 20; run++) {
+			final int size = 10 + random.nextInt(40);
+			final TestState state = PluginDependencyHelperTest.createRandomState(random, size);
+			for (int reversed = 0; reversed < 2; reversed++) {
+				final BundleDescription[] bundles = state.getState().getBundles();
+				IPluginVertex root = new PluginVertex(bundles[random.nextInt(bundles.length)]);
+				final DiGraph graph = build(root, reversed == 1);
+				for (int step = 0; step < 5; step++) {
+					// rewire a few bundles other than the root at random
+					for (int i = random.nextInt(3); i >= 0; i--) {
+						final String name = "b" + random.nextInt(size); //$NON-NLS-1$
+						if (!name.equals(root.getName()) && state.getBundle(name) != null) {
+							state.updateBundle(name, (random.nextBoolean() ? "b" + random.nextInt(size) : null), (random.nextBoolean() ? "p" + random.nextInt(size) : null), (random.nextBoolean() ? "p" + random.nextInt(size) : null)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						}
+					}
+					state.resolve();
+					final PluginDependencyGraphUpdater updater = new PluginDependencyGraphUpdater(graph, root, reversed == 1);
+					assertTrue(updater.update(state.getState()));
+					root = updater.getRoot();
+					assertSameGraph(build(root, reversed == 1), graph);
+				}
+			}
+		}
+		PlatformDependencyIndex.release();
+	}
+
+	private static DiGraph build(IPluginVertex root, boolean reversed) {
+		final PluginDependencyHelper helper = new PluginDependencyHelper();
+		return (reversed ? helper.createReversedPluginDependencyGraph(root) : helper.createPluginDependencyGraph(root));
+	}
+
+	private static void assertSameGraph(DiGraph expected, DiGraph actual) {
+		assertEquals(PluginDependencyHelperTest.vertexKeys(expected), PluginDependencyHelperTest.vertexKeys(actual));
+		assertEquals(PluginDependencyHelperTest.edgeKeys(expected), PluginDependencyHelperTest.edgeKeys(actual));
+	}
+
+	private static IVertex find(DiGraph graph, String key) {
+		final IVertex[] vertices = graph.getVertices();
+		final Set found = new HashSet(1);
+		for (int i = 0; i < vertices.length; i++) {
+			if (key.equals(PluginDependencyHelperTest.keyOf(vertices[i]))) {
+				found.add(vertices[i]);
+			}
+		}
+		assertEquals(1, found.size());
+		return (IVertex) found.iterator().next();
+	}
+
+}
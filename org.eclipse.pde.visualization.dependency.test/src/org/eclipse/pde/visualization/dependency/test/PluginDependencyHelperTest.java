@@ -0,0 +1,241 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.osgi.service.resolver.BaseDescription;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.BundleSpecification;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.IPDEDependencyVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.IPluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.UnresolvedModelVertex;
+import org.eclipse.pde.internal.visualization.dependency.ui.provisional.PluginDependencyHelper;
+import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
+import org.eclipse.pde.internal.visualization.dependency.views.DependencyUtil;
+import org.junit.Test;
+
+public class PluginDependencyHelperTest {
+
+	/** Stack size of the threads building the graphs, too small for a recursive walk of the deep chain */
+	private static final long SMALL_STACK = 256 * 1024;
+
+	@Test
+	public void testDeepChain() throws Throwable {
+		// b0 -> b1 -> ... -> b(n-1)
+		final int n = 12000;
+		final TestState state = new TestState();
+		for (int i = 0; i < n; i++) {
+			state.addBundle("b" + i, (i + 1 < n ? "b" + (i + 1) : null), null, null); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		// the resolver itself may walk the chain recursively
+		runWithStackSize(new Runnable() {
+			public void run() {
+				state.resolve();
+			}
+		}, 64 * 1024 * 1024);
+		assertTrue(state.getBundle("b0").isResolved()); //$NON-NLS-1$
+
+		final DiGraph[] graphs = new DiGraph[4];
+		runWithStackSize(new Runnable() {
+			public void run() {
+				graphs[0] = new PluginDependencyHelper(false).createPluginDependencyGraph(new PluginVertex(state.getBundle("b0"))); //$NON-NLS-1$
+				graphs[1] = new PluginDependencyHelper(true).createPluginDependencyGraph(new PluginVertex(state.getBundle("b0"))); //$NON-NLS-1$
+				graphs[2] = new PluginDependencyHelper(false).createReversedPluginDependencyGraph(new PluginVertex(state.getBundle("b" + (n - 1)))); //$NON-NLS-1$
+				graphs[3] = new PluginDependencyHelper(true).createReversedPluginDependencyGraph(new PluginVertex(state.getBundle("b" + (n - 1)))); //$NON-NLS-1$
+			}
+		}, SMALL_STACK);
+		for (int i = 0; i < graphs.length; i++) {
+			assertEquals(n, graphs[i].getVertices().length);
+			assertEquals(n - 1, edgeKeys(graphs[i]).size());
+		}
+	}
+
+	@Test
+	public void testSameGraphAsRecursiveBuild() {
+		final Random random = new Random(15);
+		for (int run = 0; run < 20; run++) {
+			final TestState state = createRandomState(random, 10 + random.nextInt(50));
+			final BundleDescription[] bundles = state.getState().getBundles();
+			for (int r = 0; r < 5; r++) {
+				final BundleDescription root = bundles[random.nextInt(bundles.length)];
+				for (int reversed = 0; reversed < 2; reversed++) {
+					final DiGraph expected = new RecursiveBuilder(reversed == 1).build(new PluginVertex(root));
+					for (int parallel = 0; parallel < 2; parallel++) {
+						final PluginDependencyHelper helper = new PluginDependencyHelper(parallel == 1);
+						final DiGraph actual = (reversed == 1 ? helper.createReversedPluginDependencyGraph(new PluginVertex(root)) : helper.createPluginDependencyGraph(new PluginVertex(root)));
+						assertEquals(vertexKeys(expected), vertexKeys(actual));
+						assertEquals(edgeKeys(expected), edgeKeys(actual));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a resolved state of <code>size</code> bundles requiring and importing each other at random, with cycles,
+	 * and with missing mandatory and optional requirements.
+	 */
+	static TestState createRandomState(Random random, int size) {
+		final TestState state = new TestState();
+		for (int i = 0; i < size; i++) {
+			final StringBuffer requires = new StringBuffer();
+			final StringBuffer imports = new StringBuffer();
+			final int dependencies = random.nextInt(4);
+			for (int j = 0; j < dependencies; j++) {
+				// mostly forward, so that the bundles form long chains, sometimes backward to form cycles
+				final int target = (random.nextInt(5) == 0 ? random.nextInt(size) : i + 1 + random.nextInt(Math.max(1, size - i - 1)));
+				if (target == i || target >= size) {
+					continue;
+				}
+				final StringBuffer header = (random.nextBoolean() ? requires : imports);
+				if (header.length() > 0) {
+					header.append(',');
+				}
+				header.append(header == requires ? "b" : "p").append(target); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			if (random.nextInt(10) == 0) {
+				requires.append(requires.length() > 0 ? "," : "").append("missing.optional;resolution:=optional"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			if (random.nextInt(20) == 0) {
+				requires.append(requires.length() > 0 ? "," : "").append("missing.mandatory"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			state.addBundle("b" + i, (requires.length() > 0 ? requires.toString() : null), (imports.length() > 0 ? imports.toString() : null), "p" + i); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		state.resolve();
+		return state;
+	}
+
+	static Set vertexKeys(DiGraph graph) {
+		final Set keys = new HashSet();
+		final IVertex[] vertices = graph.getVertices();
+		for (int i = 0; i < vertices.length; i++) {
+			assertTrue(keys.add(keyOf(vertices[i])));
+		}
+		return keys;
+	}
+
+	static Set edgeKeys(DiGraph graph) {
+		final Set keys = new HashSet();
+		final IVertex[] vertices = graph.getVertices();
+		for (int i = 0; i < vertices.length; i++) {
+			final IVertex[] targets = graph.getConnectedTo(vertices[i]);
+			for (int j = 0; j < targets.length; j++) {
+				keys.add(keyOf(vertices[i]) + " -> " + keyOf(targets[j])); //$NON-NLS-1$
+			}
+		}
+		return keys;
+	}
+
+	/* Returns a key identifying a vertex across graphs */
+	static String keyOf(IVertex vertex) {
+		if (vertex instanceof UnresolvedModelVertex) {
+			return "!" + ((UnresolvedModelVertex) vertex).getId() + "_" + ((UnresolvedModelVertex) vertex).getVersion(); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		final Object model = ((IPDEDependencyVertex) vertex).getModelObject();
+		if (model instanceof BundleSpecification) {
+			return "?" + ((BundleSpecification) model).getName(); //$NON-NLS-1$
+		}
+		return ((BaseDescription) model).getName() + "_" + ((BaseDescription) model).getVersion(); //$NON-NLS-1$
+	}
+
+	static void runWithStackSize(final Runnable runnable, long stackSize) throws Throwable {
+		final Throwable[] failure = new Throwable[1];
+		final Thread thread = new Thread(null, new Runnable() {
+			public void run() {
+				try {
+					runnable.run();
+				}
+				catch (Throwable t) {
+					failure[0] = t;
+				}
+			}
+		}, "PluginDependencyHelperTest", stackSize); //$NON-NLS-1$
+		thread.start();
+		thread.join();
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+	}
+
+	/**
+	 * The recursive plug-in graph build the worklist and the parallel builds replaced, used as reference.
+	 */
+	private static class RecursiveBuilder {
+
+		private final boolean reversed;
+		private final Set processedSources = new HashSet();
+		private final Map vertexCache = new HashMap();
+		private final Map optionalVertexCache = new HashMap();
+		private final Map errorVertexCache = new HashMap();
+		private final DiGraph graph = new DiGraph();
+
+		RecursiveBuilder(boolean reversed) {
+			this.reversed = reversed;
+		}
+
+		DiGraph build(IPluginVertex root) {
+			graph.addVertex(root);
+			vertexCache.put(keyOf(root), root);
+			addDependencies(root);
+			return graph;
+		}
+
+		private void addDependencies(IPluginVertex source) {
+			if (!processedSources.add(source)) {
+				return;
+			}
+			final Object[] deps = (reversed ? DependencyUtil.getDirectDependendBundles(source.getModelObject()) : AnalysisUtil.getDependencies(source.getModelObject()));
+			for (int i = 0; i < deps.length; i++) {
+				IPDEDependencyVertex vertex;
+				if (deps[i] instanceof BaseDescription) {
+					vertex = (IPluginVertex) vertexCache.get(keyOf(new PluginVertex(deps[i])));
+					if (vertex == null) {
+						vertex = new PluginVertex(deps[i]);
+						vertexCache.put(keyOf(vertex), vertex);
+					}
+				}
+				else if (deps[i] instanceof BundleSpecification && ((BundleSpecification) deps[i]).isOptional()) {
+					// the optional bundles of the tests are all missing, so they can only match each other
+					final BundleSpecification bs = (BundleSpecification) deps[i];
+					vertex = (IPluginVertex) optionalVertexCache.get(bs.getName());
+					if (vertex == null) {
+						vertex = new PluginVertex(bs);
+						optionalVertexCache.put(bs.getName(), vertex);
+					}
+				}
+				else if (deps[i] instanceof BundleSpecification) {
+					final BundleSpecification bs = (BundleSpecification) deps[i];
+					final String key = bs.getName() + "_" + bs.getBundle().getVersion(); //$NON-NLS-1$
+					vertex = (IPDEDependencyVertex) errorVertexCache.get(key);
+					if (vertex == null) {
+						vertex = new UnresolvedModelVertex(bs, bs.getName(), bs.getBundle().getVersion().toString(), UnresolvedModelVertex.TYPE_PLUGIN);
+						errorVertexCache.put(key, vertex);
+					}
+				}
+				else {
+					continue;
+				}
+				if (reversed) {
+					graph.addEdge(vertex, source);
+				}
+				else {
+					graph.addEdge(source, vertex);
+				}
+				if (vertex instanceof IPluginVertex) {
+					addDependencies((IPluginVertex) vertex);
+				}
+			}
+		}
+
+	}
+
+}
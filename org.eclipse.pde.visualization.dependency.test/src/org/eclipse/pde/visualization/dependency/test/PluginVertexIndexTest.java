@@ -0,0 +1,131 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.eclipse.pde.internal.visualization.dependency.model.IPluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginVertexIndex;
+import org.junit.Test;
+import org.osgi.framework.Version;
+
+public class PluginVertexIndexTest {
+
+	private final BundleDescription bundle = new TestState().addBundle("a", null, null, null); //$NON-NLS-1$
+
+	@Test
+	public void testRangeEnds() {
+		final PluginVertexIndex index = new PluginVertexIndex();
+		final IPluginVertex v1 = put(index, "a", "1.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		final IPluginVertex v15 = put(index, "a", "1.5.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		final IPluginVertex v2 = put(index, "a", "2.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		final IPluginVertex v3 = put(index, "a", "3.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// [1.0.0,2.0.0) excludes its maximum, (1.0.0,2.0.0] includes it
+		assertSame(v15, index.find("a", range("1.0.0", true, "2.0.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertSame(v2, index.find("a", range("1.0.0", false, "2.0.0", true))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		// a minimum is only matched if it is included
+		assertSame(v1, index.find("a", range("1.0.0", true, "1.5.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertNull(index.find("a", range("1.0.0", false, "1.5.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		// a range without maximum
+		assertSame(v3, index.find("a", range("2.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame(v3, index.find("a", range("3.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testNoMatch() {
+		final PluginVertexIndex index = new PluginVertexIndex();
+		put(index, "a", "1.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		put(index, "a", "2.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertNull(index.find("b", range("0.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(index.find("a", range("1.1.0", true, "1.9.0", true))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertNull(index.find("a", range("0.1.0", true, "1.0.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertNull(index.find("a", range("2.0.0", false, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(index.find("a", range("3.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+
+		index.clear();
+		assertNull(index.find("a", range("0.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testHighestVersion() {
+		// the versions of an id are indexed in any order, and the highest one within the range is found
+		final PluginVertexIndex index = new PluginVertexIndex();
+		put(index, "a", "1.2.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		final IPluginVertex v3 = put(index, "a", "3.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		put(index, "a", "1.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		final IPluginVertex v24 = put(index, "a", "2.4.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		put(index, "a", "2.0.1"); //$NON-NLS-1$ //$NON-NLS-2$
+		final IPluginVertex b = put(index, "b", "2.5.0"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertSame(v3, index.find("a", range("0.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame(v24, index.find("a", range("1.0.0", true, "3.0.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertSame(b, index.find("b", range("1.0.0", true, "3.0.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		// a vertex indexed again under the same version replaces the previous one
+		final IPluginVertex other = put(index, "a", "2.4.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame(other, index.find("a", range("1.0.0", true, "3.0.0", false))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testUnparsableVersions() {
+		final PluginVertexIndex index = new PluginVertexIndex();
+		// the vertices of unresolved optional bundles are keyed by the string of their version range
+		assertFalse(index.put("a", "[1.0.0,2.0.0)", new PluginVertex(bundle))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(index.put("a", "one", new PluginVertex(bundle))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(index.find("a", range("0.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final IPluginVertex v1 = put(index, "a", "1.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(index.put("a", "two", new PluginVertex(bundle))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame(v1, index.find("a", range("0.0.0", true, null, true))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testSameAsScan() {
+		final Random random = new Random(11);
+		for (int run = 0; run < 100; run++) {
+			final PluginVertexIndex index = new PluginVertexIndex();
+			final Version[] versions = new Version[1 + random.nextInt(10)];
+			final IPluginVertex[] vertices = new IPluginVertex[versions.length];
+			for (int i = 0; i < versions.length; i++) {
+				// versions may be indexed more than once: the last vertex is kept
+				versions[i] = new Version(random.nextInt(4), random.nextInt(3), 0);
+				vertices[i] = put(index, "a", versions[i].toString()); //$NON-NLS-1$
+			}
+			for (int i = 0; i < 20; i++) {
+				final Version minimum = new Version(random.nextInt(4), random.nextInt(3), 0);
+				final Version maximum = (random.nextInt(4) == 0 ? null : new Version(minimum.getMajor() + random.nextInt(3), random.nextInt(3), 0));
+				final VersionRange range = new VersionRange(minimum, random.nextBoolean(), maximum, random.nextBoolean());
+
+				// the vertex of the highest included version, by scanning the versions
+				IPluginVertex expected = null;
+				Version highest = null;
+				for (int j = 0; j < versions.length; j++) {
+					if (range.isIncluded(versions[j]) && (highest == null || versions[j].compareTo(highest) >= 0)) {
+						highest = versions[j];
+						expected = vertices[j];
+					}
+				}
+				assertSame(expected, index.find("a", range)); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private IPluginVertex put(PluginVertexIndex index, String id, String version) {
+		final IPluginVertex vertex = new PluginVertex(bundle);
+		assertTrue(index.put(id, version, vertex));
+		return vertex;
+	}
+
+	private static VersionRange range(String minimum, boolean includeMinimum, String maximum, boolean includeMaximum) {
+		return new VersionRange(Version.parseVersion(minimum), includeMinimum, (maximum == null ? null : Version.parseVersion(maximum)), includeMaximum);
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import java.util.Hashtable;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.osgi.service.resolver.StateDelta;
+import org.eclipse.osgi.service.resolver.StateObjectFactory;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
+import org.eclipse.pde.internal.visualization.dependency.views.DependencyCache;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+
+/**
+ * A resolver <code>State</code> of test bundles, built from their manifest headers.
+ */
+public class TestState {
+
+	private final State state;
+	private long nextId = 1;
+
+	public TestState() {
+		state = StateObjectFactory.defaultFactory.createState(true);
+		state.setResolver(Platform.getPlatformAdmin().createResolver());
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Adds a bundle with the specified symbolic name, version 1.0.0 and manifest headers (any of which may be
+	 * <code>null</code>) to the state.
+	 */
+	public BundleDescription addBundle(String name, String requireBundle, String importPackage, String exportPackage) {
+		BundleDescription bundle = createBundle(name, requireBundle, importPackage, exportPackage, nextId++);
+		state.addBundle(bundle);
+		return bundle;
+	}
+
+	/**
+	 * Replaces the bundle with the specified symbolic name by a bundle with the specified manifest headers.
+	 */
+	public BundleDescription updateBundle(String name, String requireBundle, String importPackage, String exportPackage) {
+		BundleDescription bundle = createBundle(name, requireBundle, importPackage, exportPackage, getBundle(name).getBundleId());
+		state.updateBundle(bundle);
+		return bundle;
+	}
+
+	/**
+	 * Removes the bundle with the specified symbolic name from the state.
+	 */
+	public BundleDescription removeBundle(String name) {
+		return state.removeBundle(getBundle(name).getBundleId());
+	}
+
+	public BundleDescription getBundle(String name) {
+		return state.getBundle(name, null);
+	}
+
+	/**
+	 * Resolves the state, and notifies the dependency caches of the resolution as the target platform state notifies
+	 * them.
+	 */
+	public void resolve() {
+		StateDelta delta = state.resolve(false);
+		DependencyCache.getDefault().stateResolved(delta);
+		PlatformDependencyIndex.stateResolved(delta);
+	}
+
+	private BundleDescription createBundle(String name, String requireBundle, String importPackage, String exportPackage, long id) {
+		Hashtable manifest = new Hashtable();
+		manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2"); //$NON-NLS-1$
+		manifest.put(Constants.BUNDLE_SYMBOLICNAME, name);
+		manifest.put(Constants.BUNDLE_VERSION, "1.0.0"); //$NON-NLS-1$
+		if (requireBundle != null) {
+			manifest.put(Constants.REQUIRE_BUNDLE, requireBundle);
+		}
+		if (importPackage != null) {
+			manifest.put(Constants.IMPORT_PACKAGE, importPackage);
+		}
+		if (exportPackage != null) {
+			manifest.put(Constants.EXPORT_PACKAGE, exportPackage);
+		}
+		try {
+			return state.getFactory().createBundleDescription(state, manifest, name + "_" + id, id); //$NON-NLS-1$
+		}
+		catch (BundleException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+	}
+
+}
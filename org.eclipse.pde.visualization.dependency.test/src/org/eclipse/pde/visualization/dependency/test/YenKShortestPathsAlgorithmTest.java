@@ -0,0 +1,127 @@
+package org.eclipse.pde.visualization.dependency.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.Vertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.DepthFirstTraversalAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.YenKShortestPathsAlgorithm;
+import org.junit.Test;
+
+public class YenKShortestPathsAlgorithmTest {
+
+	@Test
+	public void testPathsInLengthOrder() {
+		// v0 -> v3 directly, through v1, and through v1 and v2
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[4];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+			g.addVertex(v[i]);
+		}
+		g.addEdge(v[0], v[1]);
+		g.addEdge(v[1], v[2]);
+		g.addEdge(v[2], v[3]);
+		g.addEdge(v[1], v[3]);
+		g.addEdge(v[0], v[3]);
+		g.addEdge(v[3], v[0]);
+
+		final Iterator paths = new YenKShortestPathsAlgorithm().findShortestPaths(g, v[0], v[3]);
+		assertPath(new IVertex[] {v[0], v[3]}, (IVertex[]) paths.next());
+		assertPath(new IVertex[] {v[0], v[1], v[3]}, (IVertex[]) paths.next());
+		assertPath(new IVertex[] {v[0], v[1], v[2], v[3]}, (IVertex[]) paths.next());
+		assertFalse(paths.hasNext());
+	}
+
+	@Test
+	public void testNoPath() {
+		final DiGraph g = new DiGraph();
+		final Vertex v1 = new Vertex();
+		final Vertex v2 = new Vertex();
+		g.addEdge(v2, v1);
+		assertFalse(new YenKShortestPathsAlgorithm().findShortestPaths(g, v1, v2).hasNext());
+		assertFalse(new YenKShortestPathsAlgorithm().findShortestPaths(g, v1, v1).hasNext());
+	}
+
+	@Test
+	public void testSamePathsAsAllPaths() {
+		final Random random = new Random(13);
+		for (int run = 0; run < 200; run++) {
+			final DiGraph g = new DiGraph();
+			final Vertex[] vertices = new Vertex[2 + random.nextInt(7)];
+			for (int i = 0; i < vertices.length; i++) {
+				vertices[i] = new Vertex();
+				g.addVertex(vertices[i]);
+			}
+			final int edges = random.nextInt(vertices.length * 3);
+			for (int i = 0; i < edges; i++) {
+				g.addEdge(vertices[random.nextInt(vertices.length)], vertices[random.nextInt(vertices.length)]);
+			}
+			final Vertex source = vertices[0];
+			final Vertex target = vertices[vertices.length - 1];
+
+			// every simple path is returned once, shortest first
+			final Set unique = new HashSet();
+			int previousLength = 0;
+			for (Iterator paths = new YenKShortestPathsAlgorithm().findShortestPaths(g, source, target); paths.hasNext();) {
+				final IVertex[] path = (IVertex[]) paths.next();
+				assertTrue(path.length >= previousLength);
+				previousLength = path.length;
+				assertSame(source, path[0]);
+				assertSame(target, path[path.length - 1]);
+				assertEquals(path.length, new HashSet(Arrays.asList(path)).size());
+				for (int i = 1; i < path.length; i++) {
+					assertTrue(Arrays.asList(g.getConnectedTo(path[i - 1])).contains(path[i]));
+				}
+				assertTrue(unique.add(Arrays.asList(path)));
+			}
+			final List allPaths = new DepthFirstTraversalAlgorithm().findAllPaths(g, source, target);
+			assertEquals(new HashSet(allPaths), unique);
+		}
+	}
+
+	@Test
+	public void testDeterministicOrder() {
+		final DiGraph g = new DiGraph();
+		final Vertex[] v = new Vertex[6];
+		for (int i = 0; i < v.length; i++) {
+			v[i] = new Vertex();
+		}
+		for (int i = 1; i < 5; i++) {
+			g.addEdge(v[0], v[i]);
+			g.addEdge(v[i], v[5]);
+		}
+		final List first = toList(new YenKShortestPathsAlgorithm().findShortestPaths(g, v[0], v[5]));
+		final List second = toList(new YenKShortestPathsAlgorithm().findShortestPaths(g, v[0], v[5]));
+		assertEquals(4, first.size());
+		assertEquals(first, second);
+	}
+
+	private static List toList(Iterator paths) {
+		final List list = new ArrayList();
+		while (paths.hasNext()) {
+			list.add(Arrays.asList((IVertex[]) paths.next()));
+		}
+		return list;
+	}
+
+	private static void assertPath(IVertex[] expected, IVertex[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertSame(expected[i], actual[i]);
+		}
+	}
+
+}
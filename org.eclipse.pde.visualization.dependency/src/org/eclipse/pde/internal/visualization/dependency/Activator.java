@@ -11,6 +11,15 @@
  *******************************************************************************/
 package org.eclipse.pde.internal.visualization.dependency;
 
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.osgi.service.resolver.StateDelta;
+import org.eclipse.pde.internal.core.IStateDeltaListener;
+import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
+import org.eclipse.pde.internal.visualization.dependency.views.DependencyCache;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 /**
@@ -25,8 +34,20 @@ public class Activator extends AbstractUIPlugin {
 	
 	public static final String PLUGIN_OBJ = "plugin_obj";
 
+	// Debug options (see the .options file)
+	public static boolean DEBUG_CACHES = false;
+	public static boolean DEBUG_TIMINGS = false;
+	public static boolean DEBUG_REBUILDS = false;
+	public static boolean DEBUG_CALCULATIONS = false;
+
 	// The shared instance
 	private static Activator plugin;
+
+	// The pool running the parallel graph computations, created on first use
+	private static ForkJoinPool workerPool = null;
+
+	// Keeps the dependency caches of the target platform state up to date with its resolutions
+	private IStateDeltaListener stateDeltaListener = null;
 	
 	/**
 	 * The constructor
@@ -41,6 +62,27 @@ public class Activator extends AbstractUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		if (isDebugging()) {
+			DEBUG_CACHES = getDebugOption("/debug/caches"); //$NON-NLS-1$
+			DEBUG_TIMINGS = getDebugOption("/debug/timings"); //$NON-NLS-1$
+			DEBUG_REBUILDS = getDebugOption("/debug/rebuilds"); //$NON-NLS-1$
+			DEBUG_CALCULATIONS = getDebugOption("/debug/calculations"); //$NON-NLS-1$
+		}
+		stateDeltaListener = new IStateDeltaListener() {
+			public void stateResolved(StateDelta delta) {
+				DependencyCache.getDefault().stateResolved(delta);
+				PlatformDependencyIndex.stateResolved(delta);
+			}
+
+			public void stateChanged(State newState) {
+				// the caches of a new state are built when first asked for
+			}
+		};
+		PDECore.getDefault().getModelManager().addStateDeltaListener(stateDeltaListener);
+	}
+
+	private static boolean getDebugOption(String option) {
+		return "true".equalsIgnoreCase(Platform.getDebugOption(PLUGIN_ID + option)); //$NON-NLS-1$
 	}
 	
 
@@ -49,6 +91,13 @@ public class Activator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		if (stateDeltaListener != null) {
+			PDECore.getDefault().getModelManager().removeStateDeltaListener(stateDeltaListener);
+			stateDeltaListener = null;
+		}
+		shutdownWorkerPool();
+		PlatformDependencyIndex.release();
+		DependencyCache.getDefault().clear();
 		plugin = null;
 		super.stop(context);
 	}
@@ -62,4 +111,33 @@ public class Activator extends AbstractUIPlugin {
 		return plugin;
 	}
 
+	/**
+	 * Returns the pool shared by the parallel graph computations of the plug-in, creating it if needed. The pool is
+	 * shut down when the plug-in is stopped.
+	 *
+	 * @return the shared <code>ForkJoinPool</code>
+	 */
+	public static synchronized ForkJoinPool getWorkerPool() {
+		if (workerPool == null) {
+			workerPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return workerPool;
+	}
+
+	private static synchronized void shutdownWorkerPool() {
+		if (workerPool != null) {
+			workerPool.shutdown();
+			workerPool = null;
+		}
+	}
+
+	/**
+	 * Prints the specified debug <code>message</code>.
+	 *
+	 * @param message the message to print
+	 */
+	public static void trace(String message) {
+		System.out.println("[" + PLUGIN_ID + "] " + message); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 }
@@ -10,6 +10,9 @@ public class PDEMessages extends NLS {
 	public static String BUNDLE;
 	public static String CIRCUIT;
 	public static String CIRCUIT_LIST;
+	public static String CIRCUIT_SEARCH_JOB_NAME;
+	public static String CIRCUITS_SUMMARY;
+	public static String CIRCUITS_SUMMARY_TRUNCATED;
 	public static String CLEAR;
 	public static String ERROR_OPENING_VIEW;
 	public static String FEATURE;
@@ -21,18 +24,23 @@ public class PDEMessages extends NLS {
 	public static String FOCUS_ON_CIRCUIT;
 	public static String FOCUS_ON_FEATURE;
 	public static String FORWARD;
+	public static String GRAPH_BUILD_JOB_NAME;
 	public static String GO_BACK;
 	public static String GO_FORWARD;
 	public static String IMAGE_PREVIEW;
+	public static String INTERESTING_DEPENDENCIES_JOB_NAME;
 	public static String MORE;
+	public static String NEXT_SHORTEST_PATHS;
 	public static String NONE;
 	public static String OPEN_IN_FEATURE_EDITOR;
 	public static String OPEN_IN_MANIFEST_EDITOR;
+	public static String REBUILD_JOB_NAME;
 	public static String REFRESH;
 	public static String SCREENSHOT;
 	public static String SEARCH_LABEL;
 	public static String SELECT_A_CYCLE;
 	public static String SHORTEST_PATH;
+	public static String SHORTEST_PATHS;
 	public static String SHOW_CYCLES;
 	public static String SHOW_DEPENDENCY_PATH;
 	public static String SHOW_SEARCH_BAR;
@@ -14,12 +14,38 @@ public class DiGraph {
 
 	/* Adjacency list representation of the directed graph: Map<IVertex, List<IVertex>> */
 	private Map adjacencyMap = new HashMap(0);
+	
+	/* Predecessor index kept in sync with the adjacency list: Map<IVertex, List<IVertex>> */
+	private Map predecessorMap = new HashMap(0);
+	
+	/* Lazily created snapshot of the graph, discarded whenever the graph is modified */
+	private DiGraphSnapshot snapshot = null;
 
 	/**
 	 * Default constructor 
 	 */
 	public DiGraph() {}
 
+	/**
+	 * Creates a copy of the specified <code>graph</code>, sharing its vertices.
+	 * @param graph the <code>graph</code> to be copied
+	 * @throws IllegalArgumentException if supplied argument is null
+	 */
+	public DiGraph(DiGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("The 'graph' cannot be null."); //$NON-NLS-1$
+		}
+		adjacencyMap = new HashMap(graph.adjacencyMap.size() * 4 / 3 + 1);
+		predecessorMap = new HashMap(graph.predecessorMap.size() * 4 / 3 + 1);
+		Iterator itr = graph.adjacencyMap.entrySet().iterator();
+		while (itr.hasNext()) {
+			Map.Entry entry = (Map.Entry) itr.next();
+			adjacencyMap.put(entry.getKey(), new ArrayList((List) entry.getValue()));
+			predecessorMap.put(entry.getKey(), new ArrayList((List) graph.predecessorMap.get(entry.getKey())));
+		}
+		snapshot = graph.snapshot;
+	}
+
 	/**
 	 * Ads a vertex to the <code>graph</code>.
 	 * <p>
@@ -37,6 +63,8 @@ public class DiGraph {
 			return false;
 		}
 		adjacencyMap.put(vertex, new ArrayList(0));
+		predecessorMap.put(vertex, new ArrayList(0));
+		snapshot = null;
 		return true;
 	}
 
@@ -54,11 +82,62 @@ public class DiGraph {
 		addVertex(target);
 		List list = (List) adjacencyMap.get(source);
 		if (!list.contains(target)) {
+			snapshot = null;
+			((List) predecessorMap.get(target)).add(source);
 			return list.add(target);
 		}
 		return false;
 	}
 
+	/**
+	 * Removes an edge from the <code>graph</code>.
+	 * <p>
+	 * Returns <code>true</code> if the edge was removed from the <code>graph</code> or <code>false</code> if it does not exist in the <code>graph</code>.
+	 * </p>
+	 * @param source the source <code>vertex</code>
+	 * @param target the target <code>vertex</code>
+	 * @return true if the edge was removed from the <code>graph</code>
+	 */
+	public boolean removeEdge(IVertex source, IVertex target) {
+		List list = (List) adjacencyMap.get(source);
+		if (list != null && list.remove(target)) {
+			snapshot = null;
+			((List) predecessorMap.get(target)).remove(source);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes a vertex, and all the edges starting or ending at it, from the <code>graph</code>.
+	 * <p>
+	 * Returns <code>true</code> if the <code>vertex</code> was removed from the <code>graph</code> or <code>false</code> if it does not exist in the <code>graph</code>.
+	 * </p>
+	 * @param vertex to be removed from the <code>graph</code>
+	 * @return true if the vertex was removed from the <code>graph</code>
+	 */
+	public boolean removeVertex(IVertex vertex) {
+		List targets = (List) adjacencyMap.remove(vertex);
+		if (targets == null) {
+			return false;
+		}
+		List sources = (List) predecessorMap.remove(vertex);
+		for (int i = 0; i < targets.size(); i++) {
+			List list = (List) predecessorMap.get(targets.get(i));
+			if (list != null) {
+				list.remove(vertex);
+			}
+		}
+		for (int i = 0; i < sources.size(); i++) {
+			List list = (List) adjacencyMap.get(sources.get(i));
+			if (list != null) {
+				list.remove(vertex);
+			}
+		}
+		snapshot = null;
+		return true;
+	}
+
 	public boolean isEmpty() {
 		return adjacencyMap.isEmpty();
 	}
@@ -97,6 +176,38 @@ public class DiGraph {
 		return new IVertex[0];
 	}
 	
+	/**
+	 * Returns an array containing all the vertices that have an edge to the specified <code>IVertex</code>.
+	 * @return an array containing all the vertices that have an edge to the specified <code>IVertex</code>.
+	 */
+	public IVertex[] getConnectedFrom(IVertex target) {
+		if (predecessorMap.containsKey(target)) {
+			List edges = (List) predecessorMap.get(target);
+			return (IVertex[]) edges.toArray(new IVertex[edges.size()]);
+		}
+		return new IVertex[0];
+	}
+	
+	/**
+	 * Returns the number of edges ending at the specified <code>IVertex</code>, or <code>0</code> if the vertex 
+	 * is not in this <code>graph</code>.
+	 * @return the number of edges ending at the specified <code>IVertex</code>.
+	 */
+	public int inDegree(IVertex vertex) {
+		List edges = (List) predecessorMap.get(vertex);
+		return (edges == null ? 0 : edges.size());
+	}
+	
+	/**
+	 * Returns the number of edges starting at the specified <code>IVertex</code>, or <code>0</code> if the vertex 
+	 * is not in this <code>graph</code>.
+	 * @return the number of edges starting at the specified <code>IVertex</code>.
+	 */
+	public int outDegree(IVertex vertex) {
+		List edges = (List) adjacencyMap.get(vertex);
+		return (edges == null ? 0 : edges.size());
+	}
+	
 	/**
 	 * Returns an array containing all the vertices in this <code>graph</code>.
 	 * @return an array containing all the vertices in this <code>graph</code>.
@@ -116,4 +227,18 @@ public class DiGraph {
 		}
 		return false;
 	}
+	
+	/**
+	 * Returns an immutable, integer-indexed {@link DiGraphSnapshot} of this <code>graph</code>.
+	 * <p>
+	 * The snapshot is created once and shared by subsequent calls until the <code>graph</code> is modified.
+	 * </p>
+	 * @return an immutable, integer-indexed {@link DiGraphSnapshot} of this <code>graph</code>.
+	 */
+	public DiGraphSnapshot snapshot() {
+		if (snapshot == null) {
+			snapshot = new DiGraphSnapshot(adjacencyMap);
+		}
+		return snapshot;
+	}
 }
@@ -0,0 +1,219 @@
+package org.eclipse.pde.internal.visualization.dependency.graph;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, integer-indexed snapshot of a {@link DiGraph} using a compressed sparse row (CSR) representation.
+ * <p>
+ * Every vertex is assigned a dense id in the range <code>[0, numberOfVertices())</code>. The outgoing edges of the
+ * vertex with id <code>v</code> are stored in the <code>targets</code> table between the offsets
+ * <code>getEdgeStart(v)</code> (inclusive) and <code>getEdgeEnd(v)</code> (exclusive), which allows graph algorithms
+ * to walk the graph without any per-visit allocation or hashing:
+ * </p>
+ * <pre>
+ * for (int e = snapshot.getEdgeStart(v); e &lt; snapshot.getEdgeEnd(v); e++) {
+ *     int w = snapshot.getTarget(e);
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * The incoming edges are indexed the same way through <code>getReverseEdgeStart(v)</code>,
+ * <code>getReverseEdgeEnd(v)</code> and <code>getSource(offset)</code>.
+ * </p>
+ * <p>
+ * Vertex ids follow the iteration order of {@link DiGraph#getVertices()}, and the edges of each vertex follow the
+ * order of {@link DiGraph#getConnectedTo(IVertex)}, so algorithms running on a snapshot visit the graph in the same
+ * order as those running on the originating <code>DiGraph</code>.
+ * </p>
+ *
+ * @see DiGraph#snapshot()
+ */
+public final class DiGraphSnapshot {
+
+	private final IVertex[] vertices;
+
+	/* Map<IVertex, Integer> from a vertex to its dense id */
+	private final Map ids;
+
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] reverseOffsets;
+	private final int[] sources;
+
+	/**
+	 * Creates the snapshot of the specified adjacency list representation.
+	 * @param adjacencyMap the adjacency list representation of the graph: Map&lt;IVertex, List&lt;IVertex&gt;&gt;
+	 */
+	DiGraphSnapshot(Map adjacencyMap) {
+		int n = adjacencyMap.size();
+		vertices = new IVertex[n];
+		ids = new HashMap(n * 2);
+		offsets = new int[n + 1];
+
+		int m = 0;
+		int id = 0;
+		Iterator itr = adjacencyMap.entrySet().iterator();
+		while (itr.hasNext()) {
+			Map.Entry entry = (Map.Entry) itr.next();
+			vertices[id] = (IVertex) entry.getKey();
+			ids.put(vertices[id], Integer.valueOf(id));
+			m += ((List) entry.getValue()).size();
+			id++;
+		}
+
+		targets = new int[m];
+		int e = 0;
+		for (int v = 0; v < n; v++) {
+			offsets[v] = e;
+			List edges = (List) adjacencyMap.get(vertices[v]);
+			for (int i = 0; i < edges.size(); i++) {
+				targets[e++] = ((Integer) ids.get(edges.get(i))).intValue();
+			}
+		}
+		offsets[n] = e;
+
+		// Build the reverse (predecessor) tables by counting the in-degree of each vertex.
+		reverseOffsets = new int[n + 1];
+		for (int i = 0; i < m; i++) {
+			reverseOffsets[targets[i] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			reverseOffsets[v + 1] += reverseOffsets[v];
+		}
+		sources = new int[m];
+		int[] next = new int[n];
+		System.arraycopy(reverseOffsets, 0, next, 0, n);
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				sources[next[targets[i]]++] = v;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of vertices in this snapshot.
+	 * @return the number of vertices in this snapshot.
+	 */
+	public int numberOfVertices() {
+		return vertices.length;
+	}
+
+	/**
+	 * Returns the number of edges in this snapshot.
+	 * @return the number of edges in this snapshot.
+	 */
+	public int numberOfEdges() {
+		return targets.length;
+	}
+
+	/**
+	 * Returns the <code>IVertex</code> with the specified dense <code>id</code>.
+	 * @param id the dense id of the vertex
+	 * @return the <code>IVertex</code> with the specified dense <code>id</code>.
+	 * @throws ArrayIndexOutOfBoundsException if the <code>id</code> is out of range
+	 */
+	public IVertex getVertex(int id) {
+		return vertices[id];
+	}
+
+	/**
+	 * Returns the dense id of the specified <code>vertex</code>, or <code>-1</code> if the vertex is not part of this snapshot.
+	 * @param vertex the vertex whose id is to be returned
+	 * @return the dense id of the specified <code>vertex</code>, or <code>-1</code> if the vertex is not part of this snapshot.
+	 */
+	public int getId(IVertex vertex) {
+		Integer id = (vertex == null ? null : (Integer) ids.get(vertex));
+		return (id == null ? -1 : id.intValue());
+	}
+
+	/**
+	 * Returns the offset of the first outgoing edge of the vertex with the specified <code>id</code>.
+	 * @param id the dense id of the source vertex
+	 * @return the offset of the first outgoing edge of the vertex with the specified <code>id</code>.
+	 */
+	public int getEdgeStart(int id) {
+		return offsets[id];
+	}
+
+	/**
+	 * Returns the offset following the last outgoing edge of the vertex with the specified <code>id</code>.
+	 * @param id the dense id of the source vertex
+	 * @return the offset following the last outgoing edge of the vertex with the specified <code>id</code>.
+	 */
+	public int getEdgeEnd(int id) {
+		return offsets[id + 1];
+	}
+
+	/**
+	 * Returns the dense id of the target vertex of the edge at the specified <code>offset</code>.
+	 * @param offset the offset of the edge
+	 * @return the dense id of the target vertex of the edge at the specified <code>offset</code>.
+	 */
+	public int getTarget(int offset) {
+		return targets[offset];
+	}
+
+	/**
+	 * Returns the number of outgoing edges of the vertex with the specified <code>id</code>.
+	 * @param id the dense id of the source vertex
+	 * @return the number of outgoing edges of the vertex with the specified <code>id</code>.
+	 */
+	public int outDegree(int id) {
+		return offsets[id + 1] - offsets[id];
+	}
+
+	/**
+	 * Returns the offset of the first incoming edge of the vertex with the specified <code>id</code>.
+	 * @param id the dense id of the target vertex
+	 * @return the offset of the first incoming edge of the vertex with the specified <code>id</code>.
+	 */
+	public int getReverseEdgeStart(int id) {
+		return reverseOffsets[id];
+	}
+
+	/**
+	 * Returns the offset following the last incoming edge of the vertex with the specified <code>id</code>.
+	 * @param id the dense id of the target vertex
+	 * @return the offset following the last incoming edge of the vertex with the specified <code>id</code>.
+	 */
+	public int getReverseEdgeEnd(int id) {
+		return reverseOffsets[id + 1];
+	}
+
+	/**
+	 * Returns the dense id of the source vertex of the incoming edge at the specified <code>offset</code>.
+	 * @param offset the offset of the incoming edge
+	 * @return the dense id of the source vertex of the incoming edge at the specified <code>offset</code>.
+	 */
+	public int getSource(int offset) {
+		return sources[offset];
+	}
+
+	/**
+	 * Returns the number of incoming edges of the vertex with the specified <code>id</code>.
+	 * @param id the dense id of the target vertex
+	 * @return the number of incoming edges of the vertex with the specified <code>id</code>.
+	 */
+	public int inDegree(int id) {
+		return reverseOffsets[id + 1] - reverseOffsets[id];
+	}
+
+	/**
+	 * Returns an array containing the vertices with the specified dense <code>ids</code>.
+	 * @param ids the dense ids of the vertices
+	 * @param from the index of the first id to be converted (inclusive)
+	 * @param to the index of the last id to be converted (exclusive)
+	 * @return an array containing the vertices with the specified dense <code>ids</code>.
+	 */
+	public IVertex[] toVertices(int[] ids, int from, int to) {
+		IVertex[] result = new IVertex[to - from];
+		for (int i = from; i < to; i++) {
+			result[i - from] = vertices[ids[i]];
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,227 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.Arrays;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Breadth-first search used to find the shortest path between two vertices of the graph.
+ * <p>
+ * Since all the edges of a <code>DiGraph</code> have the same weight, a breadth-first search visits the vertices by
+ * increasing distance from the source, and finds the same shortest distances as {@link DijkstraShortestPathAlgorithm}
+ * in <code>O(V + E)</code> time. The search runs on the dense <code>int</code> arrays of a {@link DiGraphSnapshot}
+ * and stops as soon as the target is reached.
+ * </p>
+ * <p>
+ * In bidirectional mode, a forward search from the source (along the outgoing edges) and a backward search from the
+ * target (along the incoming edges) are expanded level by level, always on the smaller frontier, until they meet in
+ * the middle; this usually visits far fewer vertices than a one-sided search.
+ * </p>
+ * <p>
+ * The work tables are kept between runs and only the entries touched by a run are reset, so repeated searches over
+ * graphs of similar size do not allocate beyond the returned path. Instances are not thread-safe.
+ * </p>
+ */
+public class BreadthFirstShortestPathAlgorithm implements IShortestPathFindingAlgorithm {
+
+	private static final int UNDEFINED = -1;
+	private static final IVertex[] EMPTY_PATH = new IVertex[0];
+
+	private final boolean bidirectional;
+
+	private int[] forwardDistances = new int[0];
+	private int[] forwardParents = new int[0];
+	private int[] forwardQueue = new int[0];
+	private int[] backwardDistances = new int[0];
+	private int[] backwardParents = new int[0];
+	private int[] backwardQueue = new int[0];
+	private int forwardTail;
+	private int backwardTail;
+
+	/**
+	 * Creates a (one-sided) breadth-first shortest path algorithm.
+	 */
+	public BreadthFirstShortestPathAlgorithm() {
+		this(false);
+	}
+
+	/**
+	 * Creates a breadth-first shortest path algorithm.
+	 * @param bidirectional - <code>true</code> to search from both the source and the target until the searches meet
+	 */
+	public BreadthFirstShortestPathAlgorithm(boolean bidirectional) {
+		this.bidirectional = bidirectional;
+	}
+
+	/**
+	 * Returns an array containing all vertices included in the shortest paths between two vertices in a <code>graph</code>.
+	 *
+	 * @param graph - the <code>graph</code> used to calculate the shortest path
+	 * @param source - the source <code>vertex</code>
+	 * @param target - the target <code>vertex</code>
+	 * @return an array containing all vertices included in the shortest paths between two vertices of the graph, or an
+	 * empty array if the target cannot be reached from the source (or if both are the same vertex).
+	 * @throws IllegalArgumentException if the source and the target vertices are not in the graph
+	 */
+	public IVertex[] findShortestPath(DiGraph graph, IVertex source, IVertex target) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		return findShortestPath(graph.snapshot(), source, target);
+	}
+
+	/**
+	 * Returns an array containing all vertices included in the shortest paths between two vertices in a <code>graph</code> snapshot.
+	 *
+	 * @param graph - the snapshot used to calculate the shortest path
+	 * @param source - the source <code>vertex</code>
+	 * @param target - the target <code>vertex</code>
+	 * @return an array containing all vertices included in the shortest paths between two vertices of the graph, or an
+	 * empty array if the target cannot be reached from the source (or if both are the same vertex).
+	 * @throws IllegalArgumentException if the source and the target vertices are not in the graph
+	 */
+	public IVertex[] findShortestPath(DiGraphSnapshot graph, IVertex source, IVertex target) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		int s = graph.getId(source);
+		int t = graph.getId(target);
+		if (s == UNDEFINED || t == UNDEFINED){
+			throw new IllegalArgumentException("The 'source' and 'target' vertices should be in the graph"); //$NON-NLS-1$
+		}
+		if (s == t) {
+			return EMPTY_PATH;
+		}
+
+		ensureCapacity(graph.numberOfVertices());
+		try {
+			return (bidirectional ? bidirectionalSearch(graph, s, t) : forwardSearch(graph, s, t));
+		}
+		finally {
+			// reset only the entries touched by this run
+			for (int i = 0; i < forwardTail; i++) {
+				forwardDistances[forwardQueue[i]] = UNDEFINED;
+			}
+			for (int i = 0; i < backwardTail; i++) {
+				backwardDistances[backwardQueue[i]] = UNDEFINED;
+			}
+			forwardTail = backwardTail = 0;
+		}
+	}
+
+	private IVertex[] forwardSearch(DiGraphSnapshot graph, int s, int t) {
+		int head = 0;
+		forwardDistances[s] = 0;
+		forwardParents[s] = UNDEFINED;
+		forwardQueue[forwardTail++] = s;
+		while (head < forwardTail) {
+			int v = forwardQueue[head++];
+			for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+				int w = graph.getTarget(e);
+				if (forwardDistances[w] == UNDEFINED) {
+					forwardDistances[w] = forwardDistances[v] + 1;
+					forwardParents[w] = v;
+					forwardQueue[forwardTail++] = w;
+					if (w == t) {
+						return toPath(graph, t, UNDEFINED);
+					}
+				}
+			}
+		}
+		return EMPTY_PATH;
+	}
+
+	private IVertex[] bidirectionalSearch(DiGraphSnapshot graph, int s, int t) {
+		int forwardHead = 0;
+		int backwardHead = 0;
+		forwardDistances[s] = 0;
+		forwardParents[s] = UNDEFINED;
+		forwardQueue[forwardTail++] = s;
+		backwardDistances[t] = 0;
+		backwardParents[t] = UNDEFINED;
+		backwardQueue[backwardTail++] = t;
+
+		while (forwardHead < forwardTail && backwardHead < backwardTail) {
+			// expand a whole level of the smaller frontier, and keep the best meeting vertex of that level
+			int meet = UNDEFINED;
+			int best = Integer.MAX_VALUE;
+			if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+				int levelEnd = forwardTail;
+				while (forwardHead < levelEnd) {
+					int v = forwardQueue[forwardHead++];
+					for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+						int w = graph.getTarget(e);
+						if (forwardDistances[w] == UNDEFINED) {
+							forwardDistances[w] = forwardDistances[v] + 1;
+							forwardParents[w] = v;
+							forwardQueue[forwardTail++] = w;
+						}
+						if (backwardDistances[w] != UNDEFINED && forwardDistances[w] + backwardDistances[w] < best) {
+							best = forwardDistances[w] + backwardDistances[w];
+							meet = w;
+						}
+					}
+				}
+			}
+			else {
+				int levelEnd = backwardTail;
+				while (backwardHead < levelEnd) {
+					int v = backwardQueue[backwardHead++];
+					for (int e = graph.getReverseEdgeStart(v); e < graph.getReverseEdgeEnd(v); e++) {
+						int w = graph.getSource(e);
+						if (backwardDistances[w] == UNDEFINED) {
+							backwardDistances[w] = backwardDistances[v] + 1;
+							backwardParents[w] = v;
+							backwardQueue[backwardTail++] = w;
+						}
+						if (forwardDistances[w] != UNDEFINED && forwardDistances[w] + backwardDistances[w] < best) {
+							best = forwardDistances[w] + backwardDistances[w];
+							meet = w;
+						}
+					}
+				}
+			}
+			if (meet != UNDEFINED) {
+				return toPath(graph, meet, meet);
+			}
+		}
+		return EMPTY_PATH;
+	}
+
+	/* Builds the path from the source to 'last' (forward parents), followed by the path from 'meet' to the target (backward parents) */
+	private IVertex[] toPath(DiGraphSnapshot graph, int last, int meet) {
+		int forwardLength = forwardDistances[last] + 1;
+		int backwardLength = (meet == UNDEFINED ? 0 : backwardDistances[meet]);
+		IVertex[] path = new IVertex[forwardLength + backwardLength];
+		int u = last;
+		for (int i = forwardLength - 1; i >= 0; i--) {
+			path[i] = graph.getVertex(u);
+			u = forwardParents[u];
+		}
+		if (meet != UNDEFINED) {
+			u = backwardParents[meet];
+			for (int i = forwardLength; i < path.length; i++) {
+				path[i] = graph.getVertex(u);
+				u = backwardParents[u];
+			}
+		}
+		return path;
+	}
+
+	private void ensureCapacity(int n) {
+		if (forwardDistances.length >= n) {
+			return;
+		}
+		forwardDistances = new int[n];
+		Arrays.fill(forwardDistances, UNDEFINED);
+		forwardParents = new int[n];
+		forwardQueue = new int[n];
+		backwardDistances = new int[n];
+		Arrays.fill(backwardDistances, UNDEFINED);
+		backwardParents = new int[n];
+		backwardQueue = new int[n];
+	}
+
+}
@@ -0,0 +1,60 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+/**
+ * The limits an {@link IStreamingElementaryCircuitFindingAlgorithm} has to respect while enumerating circuits. The
+ * number of elementary circuits of a graph is exponential in the density of its strongly connected components, so
+ * the enumeration can be bounded by the length of the reported circuits, the number of reported circuits, and the
+ * elapsed (wall-clock) time.
+ */
+public final class CircuitSearchBudget {
+
+	/**
+	 * The budget imposing no limit at all.
+	 */
+	public static final CircuitSearchBudget UNLIMITED = new CircuitSearchBudget(Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+	private final int maxLength;
+	private final int maxCount;
+	private final long maxMillis;
+
+	/**
+	 * Creates a new budget.
+	 * @param maxLength the maximum number of vertices of a reported circuit (must be positive)
+	 * @param maxCount the maximum number of reported circuits (must be positive)
+	 * @param maxMillis the maximum duration of the enumeration, in milliseconds (must be positive)
+	 * @throws IllegalArgumentException if one of the limits is not positive
+	 */
+	public CircuitSearchBudget(int maxLength, int maxCount, long maxMillis) {
+		if (maxLength <= 0 || maxCount <= 0 || maxMillis <= 0) {
+			throw new IllegalArgumentException("The budget limits must be positive."); //$NON-NLS-1$
+		}
+		this.maxLength = maxLength;
+		this.maxCount = maxCount;
+		this.maxMillis = maxMillis;
+	}
+
+	/**
+	 * Returns the maximum number of vertices of a reported circuit.
+	 * @return the maximum number of vertices of a reported circuit.
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * Returns the maximum number of reported circuits.
+	 * @return the maximum number of reported circuits.
+	 */
+	public int getMaxCount() {
+		return maxCount;
+	}
+
+	/**
+	 * Returns the maximum duration of the enumeration, in milliseconds.
+	 * @return the maximum duration of the enumeration, in milliseconds.
+	 */
+	public long getMaxMillis() {
+		return maxMillis;
+	}
+
+}
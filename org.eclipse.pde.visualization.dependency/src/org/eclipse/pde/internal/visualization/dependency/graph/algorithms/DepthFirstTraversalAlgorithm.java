@@ -1,18 +1,44 @@
 package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
 import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
 
 /**
  * Implementation of the Depth-first search (DFS) graph traversal algorithm used to find 
  * all paths between two vertices of the graph.
+ * <p>
+ * The number of paths between two vertices is exponential in the number of "diamonds" between them, so callers
+ * that only need the vertices and edges lying on those paths should use {@link PathSubgraphAlgorithm} instead, and
+ * callers that do need the paths should bound their number.
+ * </p>
  */
 public class DepthFirstTraversalAlgorithm implements IAllPathsFindingAlgorithm {
 	
+	private final int maxPaths;
+	
+	/**
+	 * Creates a depth-first traversal algorithm finding all the paths.
+	 */
+	public DepthFirstTraversalAlgorithm() {
+		this(Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Creates a depth-first traversal algorithm finding at most <code>maxPaths</code> paths.
+	 * @param maxPaths the maximum number of paths to be found (must be positive)
+	 * @throws IllegalArgumentException if <code>maxPaths</code> is not positive
+	 */
+	public DepthFirstTraversalAlgorithm(int maxPaths) {
+		if (maxPaths <= 0) {
+			throw new IllegalArgumentException("The 'maxPaths' must be positive."); //$NON-NLS-1$
+		}
+		this.maxPaths = maxPaths;
+	}
+	
 	/**
 	 * Returns a <code>List</code> containing all the paths between two vertices of the <code>graph</code>.
 	 * 
@@ -20,7 +46,7 @@ public class DepthFirstTraversalAlgorithm implements IAllPathsFindingAlgorithm {
 	 * @param source the source <code>IVertex</code>
 	 * @param target the target <code>IVertex</code>
 	 * 
-	 * @return a <code>List</code> containing all the paths between two vertices of the <code>graph</code>.
+	 * @return a <code>List</code> containing all the paths (at most <code>maxPaths</code>) between two vertices of the <code>graph</code>.
 	 * 
 	 * @throws IllegalArgumentException if the <code>source</code> or <code>target</code> vertices are not members
 	 * of the provided <code>graph</code>.
@@ -29,30 +55,39 @@ public class DepthFirstTraversalAlgorithm implements IAllPathsFindingAlgorithm {
 		if (!graph.containsVertex(source) || !graph.containsVertex(target)){
 			throw new IllegalArgumentException("The 'source' and the 'target' vertices should be in the graph"); //$NON-NLS-1$
 		}
-		LinkedList currentPath = new LinkedList();
+		DiGraphSnapshot snapshot = graph.snapshot();
+		int n = snapshot.numberOfVertices();
+		int[] path = new int[n];
+		boolean[] onPath = new boolean[n];
 		List allPaths = new ArrayList(0);
-		depthFirstSearch(graph, source, target, currentPath, allPaths);
+		depthFirstSearch(snapshot, snapshot.getId(source), snapshot.getId(target), path, 0, onPath, allPaths);
 		return allPaths;
 	}
 		
 	//Implementation of all paths using depth first traversal
-	private void depthFirstSearch(DiGraph graph, IVertex root, IVertex destination, LinkedList path, List allPaths) {
-		IVertex currentVertex = root;
-		path.add(currentVertex);
-		if (currentVertex.equals(destination)){
-			allPaths.add(path.clone());
+	private void depthFirstSearch(DiGraphSnapshot graph, int root, int destination, int[] path, int depth, boolean[] onPath, List allPaths) {
+		path[depth] = root;
+		if (root == destination){
+			allPaths.add(toList(graph, path, depth + 1));
 			return;
 		}
 		
-		IVertex[] children = graph.getConnectedTo(currentVertex);
-		for (int i = 0; i < children.length; i++) {
-			IVertex v = children[i];
-			if (!path.contains(v)) {
-				depthFirstSearch(graph, v, destination, path, allPaths);
-				path.remove(v);
+		onPath[root] = true;
+		for (int e = graph.getEdgeStart(root); e < graph.getEdgeEnd(root) && allPaths.size() < maxPaths; e++) {
+			int v = graph.getTarget(e);
+			if (!onPath[v]) {
+				depthFirstSearch(graph, v, destination, path, depth + 1, onPath, allPaths);
 			}
 		}
-		path.remove(currentVertex);
+		onPath[root] = false;
+	}
+	
+	private List toList(DiGraphSnapshot graph, int[] path, int length) {
+		List list = new ArrayList(length);
+		for (int i = 0; i < length; i++) {
+			list.add(graph.getVertex(path[i]));
+		}
+		return list;
 	}
 
 }
@@ -1,13 +1,7 @@
 package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
 import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
 
 /**
@@ -16,30 +10,18 @@ import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
  */
 public class DijkstraShortestPathAlgorithm implements IShortestPathFindingAlgorithm {
 
-	private static final String SPID = DijkstraShortestPathAlgorithm.class.getName() + ".SPID"; //$NON-NLS-1$
-	private static final String DISTANCE = DijkstraShortestPathAlgorithm.class.getName() + ".DISTANCE"; //$NON-NLS-1$
-	private static final String PREVIOUS = DijkstraShortestPathAlgorithm.class.getName() + ".PREVIOUS"; //$NON-NLS-1$
-	private static final Object UNDEFINED = ""; //$NON-NLS-1$
-
-	private int distanceOf(IVertex v) {
-		return ((Integer)v.getPropertyValue(DISTANCE)).intValue();
-	}
-
-	private Object previousOf(IVertex v) {
-		return v.getPropertyValue(PREVIOUS);
-	}
+	private static final int DISTANCE = 0;
+	private static final int PREVIOUS = 1;
+	private static final int MARKED = 0;
+	private static final int UNDEFINED = -1;
 
-	private IVertex getUnmarkedVertexWithSmallestDistance(Map unmarkedMap) {
-		Iterator itr = unmarkedMap.entrySet().iterator();
-		IVertex vertex = null;
+	private int getUnmarkedVertexWithSmallestDistance(int[] distances, boolean[] marked) {
+		int vertex = UNDEFINED;
 		long max = Long.MAX_VALUE;
-		while (itr.hasNext()) {
-			Entry entry = (Entry) itr.next();
-			IVertex temp = (IVertex) entry.getValue();
-			int d = distanceOf(temp);
-			if (d < max) {
-				max = d;
-				vertex = temp;
+		for (int v = 0; v < distances.length; v++) {
+			if (!marked[v] && distances[v] < max) {
+				max = distances[v];
+				vertex = v;
 			}
 		}
 		return vertex;
@@ -55,82 +37,65 @@ public class DijkstraShortestPathAlgorithm implements IShortestPathFindingAlgori
 	 * @throws IllegalArgumentException if the source and the target vertices are not in the graph
 	 */
 	public IVertex[] findShortestPath(DiGraph graph, IVertex source, IVertex target) {
-		if (!graph.containsVertex(source) && !graph.containsVertex(target)){
+		if (!graph.containsVertex(source) || !graph.containsVertex(target)){
 			throw new IllegalArgumentException("The 'source' and 'target' vertices should be in the graph"); //$NON-NLS-1$
 		}
 
-		IVertex[] vertices = graph.getVertices();
-			
-		try {
-			Map unmarkedMap = new HashMap(vertices.length);
-			for (int i = 0; i < vertices.length; i++) {
-				IVertex v = vertices[i];
-				v.setPropertyValue(DISTANCE, Integer.valueOf(Integer.MAX_VALUE));
-				v.setPropertyValue(PREVIOUS, UNDEFINED);
-				String id = String.valueOf(i);
-				v.setPropertyValue(SPID, id);
-				unmarkedMap.put(id, v);
-			}
+		DiGraphSnapshot snapshot = graph.snapshot();
+		ScratchContext context = new ScratchContext(snapshot);
+		int[] distances = context.getIntTable(DISTANCE, Integer.MAX_VALUE);
+		int[] previous = context.getIntTable(PREVIOUS, UNDEFINED);
+		boolean[] marked = context.getFlagTable(MARKED);
 
-			source.setPropertyValue(DISTANCE, Integer.valueOf(0));
+		int s = snapshot.getId(source);
+		int t = snapshot.getId(target);
+		distances[s] = 0;
 
-			while (!unmarkedMap.isEmpty()) {
-				// Get the unmarked vertex with the minimal distance.
-				IVertex w = getUnmarkedVertexWithSmallestDistance(unmarkedMap);
+		int unmarked = distances.length;
+		while (unmarked > 0) {
+			// Get the unmarked vertex with the minimal distance.
+			int w = getUnmarkedVertexWithSmallestDistance(distances, marked);
 
-				// stop if all remaining vertices are inaccessible from source
-				if (distanceOf(w) == Integer.MAX_VALUE){
-					break;
-				}
-								
-				// Mark the vertex (i.e. remove it from the unmarked map).
-				unmarkedMap.remove(w.getPropertyValue(SPID));
+			// stop if all remaining vertices are inaccessible from source
+			if (w == UNDEFINED || distances[w] == Integer.MAX_VALUE){
+				break;
+			}
 
-				// Stop processing if target has been reached.
-				if (w.equals(target)) {
-					break;
-				}
+			// Mark the vertex.
+			marked[w] = true;
+			unmarked--;
 
-				// Relaxation heuristic.
-				IVertex[] neighbors = graph.getConnectedTo(w);
-				if (neighbors.length > 0) {
-					int alt = distanceOf(w) + 1; // use "1" since DiGraph has no concept of weighted edges (i.e. all edges have equal weight)
-					for (int i = 0; i < neighbors.length; i++) {
-						IVertex z = neighbors[i];
-						if (unmarkedMap.containsKey(z.getPropertyValue(SPID))) {
-							if (alt < distanceOf(z)) {
-								z.setPropertyValue(DISTANCE, Integer.valueOf(alt));
-								z.setPropertyValue(PREVIOUS, w);
-							}
-						}
-					}
-				}
+			// Stop processing if target has been reached.
+			if (w == t) {
+				break;
 			}
 
-			// Construct the shortest path.
-			List shortestPath = new ArrayList(0);
-			IVertex u = target;
-			Object prev = previousOf(u);
-			while (!prev.equals(UNDEFINED)) {
-				u = (IVertex) prev;
-				shortestPath.add(0, u);
-				prev = previousOf(u);
-			}
-			if (!shortestPath.isEmpty()) {
-				shortestPath.add(target);
+			// Relaxation heuristic.
+			int alt = distances[w] + 1; // use "1" since DiGraph has no concept of weighted edges (i.e. all edges have equal weight)
+			for (int e = snapshot.getEdgeStart(w); e < snapshot.getEdgeEnd(w); e++) {
+				int z = snapshot.getTarget(e);
+				if (!marked[z] && alt < distances[z]) {
+					distances[z] = alt;
+					previous[z] = w;
+				}
 			}
+		}
 
-			return (IVertex[]) shortestPath.toArray(new IVertex[shortestPath.size()]);
+		// Construct the shortest path.
+		if (previous[t] == UNDEFINED) {
+			return new IVertex[0];
 		}
-		finally {
-			// clean-up
-			for (int i = 0; i < vertices.length; i++) {
-				IVertex v = vertices[i];
-				v.removeProperty(DISTANCE);
-				v.removeProperty(PREVIOUS);
-				v.removeProperty(SPID);
-			}
+		int length = 1;
+		for (int u = previous[t]; u != UNDEFINED; u = previous[u]) {
+			length++;
+		}
+		IVertex[] shortestPath = new IVertex[length];
+		int u = t;
+		for (int i = length - 1; i >= 0; i--) {
+			shortestPath[i] = snapshot.getVertex(u);
+			u = previous[u];
 		}
+		return shortestPath;
 	}
 
 }
@@ -0,0 +1,21 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+/**
+ * Callback receiving the results of an {@link IStreamingElementaryCircuitFindingAlgorithm} as they are found.
+ */
+public interface IElementaryCircuitCollector {
+
+	/**
+	 * Notifies this collector of the strongly connected components holding at least one circuit. This method is
+	 * called once, before any circuit is reported.
+	 * @param sizes the number of vertices of every strongly connected component holding at least one circuit
+	 */
+	public void componentsFound(int[] sizes);
+
+	/**
+	 * Notifies this collector that an elementary circuit has been found.
+	 * @param circuit the elementary circuit that has been found
+	 */
+	public void circuitFound(IElementaryCircuit circuit);
+
+}
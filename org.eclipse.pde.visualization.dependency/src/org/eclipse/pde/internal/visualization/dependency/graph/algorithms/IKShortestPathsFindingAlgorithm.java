@@ -0,0 +1,26 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.Iterator;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Interface used to find the simple paths between two vertices of a <code>graph</code>, shortest first.
+ */
+public interface IKShortestPathsFindingAlgorithm {
+
+	/**
+	 * Returns an <code>Iterator</code> over the simple paths between two vertices in a <code>graph</code>, in
+	 * increasing length order. Every element is an <code>IVertex[]</code> holding the vertices of a path, from the
+	 * source to the target. The paths are computed lazily, as the iterator is advanced.
+	 *
+	 * @param graph - the <code>graph</code> used to calculate the paths
+	 * @param source - the source <code>vertex</code>
+	 * @param target - the target <code>vertex</code>
+	 *
+	 * @return an <code>Iterator</code> over the simple paths between two vertices of the graph, shortest first.
+	 */
+	public Iterator findShortestPaths(DiGraph graph, IVertex source, IVertex target);
+
+}
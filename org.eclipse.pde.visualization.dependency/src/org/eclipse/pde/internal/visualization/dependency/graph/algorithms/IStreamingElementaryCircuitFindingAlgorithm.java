@@ -0,0 +1,25 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+
+/**
+ * Interface used to enumerate the elementary circuits of a graph without materializing them all: every circuit is
+ * handed to an {@link IElementaryCircuitCollector} as soon as it is found, and the enumeration stops once its
+ * {@link CircuitSearchBudget} is exhausted or its progress monitor is canceled.
+ */
+public interface IStreamingElementaryCircuitFindingAlgorithm extends IElementaryCircuitFindingAlgorithm {
+
+	/**
+	 * Reports the elementary circuits of the specified <code>graph</code> to the <code>collector</code>.
+	 * @param graph - the graph used to calculate elementary circuits (cannot be <code>null</code>)
+	 * @param collector - the collector the strongly connected components and circuits are reported to (cannot be <code>null</code>)
+	 * @param budget - the limits of the enumeration (cannot be <code>null</code>)
+	 * @param monitor - the progress monitor used to report progress and to cancel the enumeration, or <code>null</code>
+	 * @return <code>true</code> if every elementary circuit has been reported, <code>false</code> if the enumeration
+	 * was cut short by the <code>budget</code> or by cancellation.
+	 * @throws IllegalArgumentException if the graph, the collector or the budget is <code>null</code>
+	 */
+	public boolean findElementaryCircuits(DiGraph graph, IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor);
+
+}
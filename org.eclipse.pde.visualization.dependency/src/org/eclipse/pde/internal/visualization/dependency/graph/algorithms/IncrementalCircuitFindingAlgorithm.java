@@ -0,0 +1,169 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Updates the elementary circuits of a graph after some of its vertices and edges changed, without enumerating the
+ * circuits of the whole graph again.
+ * <p>
+ * A vertex is <i>touched</i> by the changes if it was added or removed, or if it is an end of an added or removed
+ * edge. The edges of a circuit whose vertices are all untouched did not change, so the circuit still exists; and a
+ * new circuit goes through at least one touched vertex. The strongly connected components of the updated graph
+ * holding a touched vertex are therefore found with the {@link IterativeTarjanAlgorithm}, the previous circuits
+ * meeting neither a touched vertex nor one of these components are kept as is, and only the circuits of these
+ * components are enumerated again, by an {@link IndexedJohnsonCircuitFindingAlgorithm} masked to them.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class IncrementalCircuitFindingAlgorithm {
+
+	private final IterativeTarjanAlgorithm sccAlg = new IterativeTarjanAlgorithm();
+	private final IndexedJohnsonCircuitFindingAlgorithm circuitAlg = new IndexedJohnsonCircuitFindingAlgorithm();
+
+	private int recomputedComponents = 0;
+	private int keptCircuits = 0;
+
+	/**
+	 * Reports the elementary circuits of the specified (updated) <code>graph</code> to the <code>collector</code>: the
+	 * <code>previous</code> circuits that are not affected by the changes first, then the circuits of the strongly
+	 * connected components holding a <code>touched</code> vertex.
+	 * @param graph - the updated graph (cannot be <code>null</code>)
+	 * @param previous - all the elementary circuits of the graph before the changes, found with the same <code>budget</code> (cannot be <code>null</code>)
+	 * @param touched - the <code>Set</code> of the <code>IVertex</code>(s) touched by the changes (cannot be <code>null</code>)
+	 * @param collector - the collector the strongly connected components and circuits are reported to (cannot be <code>null</code>)
+	 * @param budget - the limits of the enumeration (cannot be <code>null</code>)
+	 * @param monitor - the progress monitor used to report progress and to cancel the enumeration, or <code>null</code>
+	 * @return <code>true</code> if every elementary circuit has been reported, <code>false</code> if the enumeration
+	 * was cut short by the <code>budget</code> or by cancellation.
+	 * @throws IllegalArgumentException if the graph, the previous circuits, the touched vertices, the collector or the budget is <code>null</code>
+	 */
+	public boolean updateElementaryCircuits(DiGraph graph, IElementaryCircuit[] previous, Set touched, final IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		if (previous == null){
+			throw new IllegalArgumentException("The 'previous' circuits cannot be null"); //$NON-NLS-1$
+		}
+		if (touched == null){
+			throw new IllegalArgumentException("The 'touched' vertices cannot be null"); //$NON-NLS-1$
+		}
+		if (collector == null){
+			throw new IllegalArgumentException("The 'collector' cannot be null"); //$NON-NLS-1$
+		}
+		if (budget == null){
+			throw new IllegalArgumentException("The 'budget' cannot be null"); //$NON-NLS-1$
+		}
+
+		DiGraphSnapshot snapshot = graph.snapshot();
+		StronglyConnectedComponents sccs = sccAlg.findComponents(snapshot);
+		boolean[] dirty = new boolean[sccs.numberOfComponents()];
+		for (Iterator itr = touched.iterator(); itr.hasNext();) {
+			int id = snapshot.getId((IVertex) itr.next());
+			if (id >= 0) {
+				dirty[sccs.getComponentOf(id)] = true;
+			}
+		}
+
+		// report all the components holding a circuit, and mask the dirty ones
+		BitSet mask = new BitSet(snapshot.numberOfVertices());
+		int[] sizes = new int[sccs.numberOfComponents()];
+		int k = 0;
+		recomputedComponents = 0;
+		for (int c = 0; c < sccs.numberOfComponents(); c++) {
+			if (!hasCircuit(snapshot, sccs, c)) {
+				continue;
+			}
+			sizes[k++] = sccs.size(c);
+			if (dirty[c]) {
+				for (int i = sccs.getComponentStart(c); i < sccs.getComponentEnd(c); i++) {
+					mask.set(sccs.getMember(i));
+				}
+				recomputedComponents++;
+			}
+		}
+		int[] componentSizes = new int[k];
+		System.arraycopy(sizes, 0, componentSizes, 0, k);
+		collector.componentsFound(componentSizes);
+
+		keptCircuits = 0;
+		for (int i = 0; i < previous.length; i++) {
+			if (isUnaffected(previous[i], snapshot, mask, touched)) {
+				collector.circuitFound(previous[i]);
+				keptCircuits++;
+			}
+		}
+		if (recomputedComponents == 0) {
+			return true;
+		}
+		if (keptCircuits >= budget.getMaxCount()) {
+			return false;
+		}
+
+		CircuitSearchBudget remaining = new CircuitSearchBudget(budget.getMaxLength(), budget.getMaxCount() - keptCircuits, budget.getMaxMillis());
+		return circuitAlg.findElementaryCircuits(snapshot, mask, new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+				// already reported, with the components that were not enumerated again
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				collector.circuitFound(circuit);
+			}
+		}, remaining, monitor);
+	}
+
+	/**
+	 * Returns the number of strongly connected components whose circuits were enumerated again by the last update.
+	 * @return the number of strongly connected components whose circuits were enumerated again by the last update.
+	 */
+	public int getRecomputedComponents() {
+		return recomputedComponents;
+	}
+
+	/**
+	 * Returns the number of previous circuits kept as is by the last update.
+	 * @return the number of previous circuits kept as is by the last update.
+	 */
+	public int getKeptCircuits() {
+		return keptCircuits;
+	}
+
+	/* A previous circuit is unaffected if none of its vertices is touched, removed, or part of a dirty component */
+	private static boolean isUnaffected(IElementaryCircuit circuit, DiGraphSnapshot snapshot, BitSet mask, Set touched) {
+		List vertices = circuit.getVertices();
+		for (int i = 0; i < vertices.size(); i++) {
+			IVertex vertex = (IVertex) vertices.get(i);
+			if (touched.contains(vertex)) {
+				return false;
+			}
+			int id = snapshot.getId(vertex);
+			if (id < 0 || mask.get(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* A component holds a circuit if it has more than one vertex, or if its only vertex has a self-loop */
+	private static boolean hasCircuit(DiGraphSnapshot graph, StronglyConnectedComponents sccs, int c) {
+		if (sccs.size(c) > 1) {
+			return true;
+		}
+		int v = sccs.getMember(sccs.getComponentStart(c));
+		for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+			if (graph.getTarget(e) == v) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,348 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+
+/**
+ * Donald B. Johnson's algorithm used for finding all elementary circuits of a directed graph, running on the
+ * integer adjacency arrays of a {@link DiGraphSnapshot}.
+ * <p>
+ * Unlike {@link JohnsonCircuitFindingAlgorithm}, the subgraph induced by the vertices <code>{s, s+1, ..., n}</code>
+ * is never copied: it is described by an index mask handed to the {@link IterativeTarjanAlgorithm}, and the
+ * strong component <code>K</code> with the least vertex is addressed through the component numbers of the
+ * resulting {@link StronglyConnectedComponents}. The blocked flags are kept in a <code>boolean</code> table, the
+ * <code>B</code> sets are (lazily allocated) <code>BitSet</code>s, and both the circuit search and the unblocking
+ * are driven by explicit <code>int</code> stacks.
+ * </p>
+ * <p>
+ * The circuits are found in the same order as {@link JohnsonCircuitFindingAlgorithm}, and are streamed to an
+ * {@link IElementaryCircuitCollector} as they are found. When the enumeration is bounded by the maximum length of
+ * the circuits, a vertex whose search was cut by the length limit is handled as if it had led to a circuit (i.e. it
+ * is unblocked), so no circuit within the limit is missed. Instances are not thread-safe.
+ * </p>
+ */
+public class IndexedJohnsonCircuitFindingAlgorithm implements IStreamingElementaryCircuitFindingAlgorithm {
+
+	/* The budget and the progress monitor are checked every CHECK_INTERVAL steps of the circuit search */
+	private static final int CHECK_INTERVAL = 1024;
+
+	private final IterativeTarjanAlgorithm sccAlg = new IterativeTarjanAlgorithm();
+
+	private DiGraphSnapshot graph;
+	private StronglyConnectedComponents sccs;
+	private int component;
+	private boolean[] blocked;
+	private BitSet[] B;
+	private int[] path;
+	private int[] edgeCursors;
+	private boolean[] found;
+	private int[] unblockStack;
+
+	private IElementaryCircuitCollector collector;
+	private IProgressMonitor monitor;
+	private int maxLength;
+	private int maxCount;
+	private long deadline;
+	private int count;
+	private int steps;
+	private boolean stopped;
+	private boolean truncated;
+
+	/**
+	 * Returns an array containing all elementary circuits
+	 * @param graph - the graph used to calculate elementary circuits
+	 * @return an array containing all elementary circuits
+	 * @throws IllegalArgumentException if the graph is null
+	 */
+	public IElementaryCircuit[] findAllElementaryCircuits(DiGraph graph) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		return findAllElementaryCircuits(graph.snapshot());
+	}
+
+	/**
+	 * Returns an array containing all elementary circuits of the specified <code>graph</code> snapshot.
+	 * @param graph - the snapshot used to calculate elementary circuits
+	 * @return an array containing all elementary circuits
+	 * @throws IllegalArgumentException if the graph is null
+	 */
+	public IElementaryCircuit[] findAllElementaryCircuits(DiGraphSnapshot graph) {
+		final List circuits = new ArrayList(0);//List<IElementaryCircuit>
+		findElementaryCircuits(graph, new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				circuits.add(circuit);
+			}
+		}, CircuitSearchBudget.UNLIMITED, null);
+		return (IElementaryCircuit[]) circuits.toArray(new IElementaryCircuit[circuits.size()]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IStreamingElementaryCircuitFindingAlgorithm#findElementaryCircuits(org.eclipse.pde.internal.visualization.dependency.graph.DiGraph, org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector, org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	public boolean findElementaryCircuits(DiGraph graph, IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		return findElementaryCircuits(graph.snapshot(), collector, budget, monitor);
+	}
+
+	/**
+	 * Reports the elementary circuits of the specified <code>graph</code> snapshot to the <code>collector</code>.
+	 * @param graph - the snapshot used to calculate elementary circuits (cannot be <code>null</code>)
+	 * @param collector - the collector the strongly connected components and circuits are reported to (cannot be <code>null</code>)
+	 * @param budget - the limits of the enumeration (cannot be <code>null</code>)
+	 * @param monitor - the progress monitor used to report progress and to cancel the enumeration, or <code>null</code>
+	 * @return <code>true</code> if every elementary circuit has been reported, <code>false</code> if the enumeration
+	 * was cut short by the <code>budget</code> or by cancellation.
+	 * @throws IllegalArgumentException if the graph, the collector or the budget is <code>null</code>
+	 * @see IStreamingElementaryCircuitFindingAlgorithm#findElementaryCircuits(DiGraph, IElementaryCircuitCollector, CircuitSearchBudget, IProgressMonitor)
+	 */
+	public boolean findElementaryCircuits(DiGraphSnapshot graph, IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor) {
+		return findElementaryCircuits(graph, null, collector, budget, monitor);
+	}
+
+	/**
+	 * Reports the elementary circuits of the subgraph of the specified <code>graph</code> snapshot induced by the
+	 * vertices whose dense id is set in <code>mask</code> to the <code>collector</code>.
+	 * @param graph - the snapshot used to calculate elementary circuits (cannot be <code>null</code>)
+	 * @param mask - the dense ids of the vertices to be considered, or <code>null</code> to consider all the vertices
+	 * @param collector - the collector the strongly connected components and circuits are reported to (cannot be <code>null</code>)
+	 * @param budget - the limits of the enumeration (cannot be <code>null</code>)
+	 * @param monitor - the progress monitor used to report progress and to cancel the enumeration, or <code>null</code>
+	 * @return <code>true</code> if every elementary circuit has been reported, <code>false</code> if the enumeration
+	 * was cut short by the <code>budget</code> or by cancellation.
+	 * @throws IllegalArgumentException if the graph, the collector or the budget is <code>null</code>
+	 */
+	public boolean findElementaryCircuits(DiGraphSnapshot graph, BitSet mask, IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		if (collector == null){
+			throw new IllegalArgumentException("The 'collector' cannot be null"); //$NON-NLS-1$
+		}
+		if (budget == null){
+			throw new IllegalArgumentException("The 'budget' cannot be null"); //$NON-NLS-1$
+		}
+
+		int n = graph.numberOfVertices();
+		this.graph = graph;
+		this.collector = collector;
+		this.monitor = (monitor == null ? new NullProgressMonitor() : monitor);
+		maxLength = budget.getMaxLength();
+		maxCount = budget.getMaxCount();
+		long now = System.currentTimeMillis();
+		deadline = (budget.getMaxMillis() > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + budget.getMaxMillis());
+		count = steps = 0;
+		stopped = truncated = false;
+		blocked = new boolean[n];
+		B = new BitSet[n];
+		path = new int[n];
+		edgeCursors = new int[n];
+		found = new boolean[n];
+		unblockStack = new int[n];
+		this.monitor.beginTask("", n); //$NON-NLS-1$
+		try {
+			// report the strongly connected components holding a circuit up front
+			sccs = sccAlg.findComponents(graph, mask);
+			int[] sizes = new int[sccs.numberOfComponents()];
+			int k = 0;
+			for (int c = 0; c < sccs.numberOfComponents(); c++) {
+				if (hasCircuit(c)) {
+					sizes[k++] = sccs.size(c);
+				}
+			}
+			int[] componentSizes = new int[k];
+			System.arraycopy(sizes, 0, componentSizes, 0, k);
+			collector.componentsFound(componentSizes);
+
+			BitSet induced = new BitSet(n);
+			if (mask == null) {
+				induced.set(0, n);
+			}
+			else {
+				induced.or(mask);
+			}
+			int s = 0;
+			while (s < n && !stopped) {
+				// strong component K with least vertex in subgraph of G induced by {s, s+1, ..., n}
+				if (s > 0) {
+					induced.clear(0, s);
+					sccs = sccAlg.findComponents(graph, induced);
+				}
+				component = -1;
+				int least = n;
+				for (int c = 0; c < sccs.numberOfComponents(); c++) {
+					int v = leastMember(c);
+					if (v < least && hasCircuit(c)) {
+						least = v;
+						component = c;
+					}
+				}
+				if (component == -1) {
+					break;
+				}
+
+				this.monitor.worked(least - s);
+				s = least;
+				for (int i = sccs.getComponentStart(component); i < sccs.getComponentEnd(component); i++) {
+					int v = sccs.getMember(i);
+					blocked[v] = false;
+					if (B[v] != null) {
+						B[v].clear();
+					}
+				}
+				if (isBudgetExhausted()) {
+					break;
+				}
+				circuit(s);
+				this.monitor.worked(1);
+				s++;
+			}
+			return !truncated;
+		}
+		finally {
+			this.monitor.done();
+			// release the algorithm-local state
+			this.graph = null;
+			this.collector = null;
+			this.monitor = null;
+			sccs = null;
+			blocked = null;
+			B = null;
+			path = edgeCursors = unblockStack = null;
+			found = null;
+		}
+	}
+
+	private boolean isBudgetExhausted() {
+		if (monitor.isCanceled() || System.currentTimeMillis() > deadline) {
+			stopped = truncated = true;
+		}
+		return stopped;
+	}
+
+	private int leastMember(int c) {
+		int least = Integer.MAX_VALUE;
+		for (int i = sccs.getComponentStart(c); i < sccs.getComponentEnd(c); i++) {
+			least = Math.min(least, sccs.getMember(i));
+		}
+		return least;
+	}
+
+	/* A component holds a circuit if it has more than one vertex, or if its only vertex has a self-loop */
+	private boolean hasCircuit(int c) {
+		if (sccs.size(c) > 1) {
+			return true;
+		}
+		int v = sccs.getMember(sccs.getComponentStart(c));
+		for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+			if (graph.getTarget(e) == v) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean inComponent(int v) {
+		return sccs.getComponentOf(v) == component;
+	}
+
+	private void circuit(int s) {
+		int depth = 0;
+		push(s, depth++);
+		while (depth > 0) {
+			if (++steps % CHECK_INTERVAL == 0 && isBudgetExhausted()) {
+				return;
+			}
+			int v = path[depth - 1];
+			if (edgeCursors[v] < graph.getEdgeEnd(v)) {
+				int w = graph.getTarget(edgeCursors[v]++);
+				if (!inComponent(w)) {
+					continue;
+				}
+				if (w == s) {
+					// output circuit composed of stack
+					ElementaryCircuit circuit = new ElementaryCircuit(depth);
+					for (int i = 0; i < depth; i++) {
+						circuit.appendVertex(graph.getVertex(path[i]));
+					}
+					collector.circuitFound(circuit);
+					found[v] = true;
+					if (++count >= maxCount) {
+						stopped = truncated = true;
+						return;
+					}
+				}
+				else if (!blocked[w]) {
+					if (depth < maxLength) {
+						push(w, depth++);
+					}
+					else {
+						// the search is cut by the length limit: handle v as if it led to a circuit
+						found[v] = true;
+						truncated = true;
+					}
+				}
+				continue;
+			}
+
+			// All successors of v have been considered
+			if (found[v]) {
+				unblock(v);
+			}
+			else {
+				for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+					int w = graph.getTarget(e);
+					if (inComponent(w)) {
+						if (B[w] == null) {
+							B[w] = new BitSet();
+						}
+						B[w].set(v);
+					}
+				}
+			}
+			depth--;
+			if (depth > 0 && found[v]) {
+				found[path[depth - 1]] = true;
+			}
+		}
+	}
+
+	private void push(int v, int depth) {
+		path[depth] = v;
+		blocked[v] = true;
+		found[v] = false;
+		edgeCursors[v] = graph.getEdgeStart(v);
+	}
+
+	private void unblock(int u) {
+		int top = 0;
+		blocked[u] = false;
+		unblockStack[top++] = u;
+		while (top > 0) {
+			int x = unblockStack[--top];
+			BitSet bx = B[x];
+			if (bx == null) {
+				continue;
+			}
+			for (int w = bx.nextSetBit(0); w >= 0; w = bx.nextSetBit(w + 1)) {
+				if (blocked[w]) {
+					blocked[w] = false;
+					unblockStack[top++] = w;
+				}
+			}
+			bx.clear();
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+
+/**
+ * Iterative implementation of an <code>IStronglyConnectedComponentsAlgorithm</code> based on Tarjan's algorithm.
+ * <p>
+ * Unlike {@link TarjanAlgorithm}, the depth-first search is driven by an explicit <code>int</code> work stack (so
+ * long dependency chains cannot overflow the call stack), the on-stack test is a constant time <code>BitSet</code>
+ * lookup, and the indices and lowlinks are kept in <code>int</code> tables indexed by the dense vertex id of the
+ * {@link DiGraphSnapshot}. The tables are kept between runs and only the entries touched by a run are reset, so
+ * repeated runs over graphs of similar size do not allocate beyond the returned {@link StronglyConnectedComponents}.
+ * </p>
+ * <p>
+ * The components (and the order of their members) are the same as the ones found by {@link TarjanAlgorithm}.
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class IterativeTarjanAlgorithm implements IStronglyConnectedComponentsAlgorithm {
+
+	private static final int UNDEFINED = -1;
+
+	private int[] indices = new int[0];
+	private int[] lowLinks = new int[0];
+	private int[] edgeCursors = new int[0];
+	private int[] work = new int[0];
+	private int[] stack = new int[0];
+	private int[] members = new int[0];
+	private int[] offsets = new int[1];
+	private final BitSet onStack = new BitSet();
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IStronglyConnectedComponentsAlgorithm#findStronglyConnectedComponents(org.eclipse.pde.internal.visualization.dependency.graph.DiGraph)
+	 */
+	public List[] findStronglyConnectedComponents(DiGraph graph) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		return findComponents(graph.snapshot()).toLists();
+	}
+
+	/**
+	 * Returns the strongly connected components of the specified <code>graph</code> snapshot.
+	 * @param graph the source <code>DiGraphSnapshot</code> (cannot be <code>null</code>)
+	 * @return the strongly connected components of the specified <code>graph</code> snapshot.
+	 * @throws IllegalArgumentException if the specified <code>graph</code> is <code>null</code>.
+	 */
+	public StronglyConnectedComponents findComponents(DiGraphSnapshot graph) {
+		return findComponents(graph, null);
+	}
+
+	/**
+	 * Returns the strongly connected components of the subgraph of the specified <code>graph</code> snapshot induced
+	 * by the vertices whose dense id is set in <code>mask</code>. Vertices (and edges leading to vertices) outside the
+	 * mask are ignored, and are not part of any component.
+	 * @param graph the source <code>DiGraphSnapshot</code> (cannot be <code>null</code>)
+	 * @param mask the dense ids of the vertices to be considered, or <code>null</code> to consider all the vertices
+	 * @return the strongly connected components of the subgraph induced by the vertices set in <code>mask</code>.
+	 * @throws IllegalArgumentException if the specified <code>graph</code> is <code>null</code>.
+	 */
+	public StronglyConnectedComponents findComponents(DiGraphSnapshot graph, BitSet mask) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+
+		int n = graph.numberOfVertices();
+		ensureCapacity(n);
+		int[] componentOf = new int[n];
+		Arrays.fill(componentOf, UNDEFINED);
+
+		int index = 0;
+		int top = 0;
+		int count = 0;
+		int components = 0;
+		try {
+			for (int root = nextVertex(mask, 0, n); root < n; root = nextVertex(mask, root + 1, n)) {
+				if (indices[root] != UNDEFINED) {
+					continue;
+				}
+
+				int wtop = 0;
+				indices[root] = lowLinks[root] = index++;
+				edgeCursors[root] = graph.getEdgeStart(root);
+				work[wtop++] = root;
+				stack[top++] = root;
+				onStack.set(root);
+
+				while (wtop > 0) {
+					int v = work[wtop - 1];
+					if (edgeCursors[v] < graph.getEdgeEnd(v)) {
+						// Consider the next successor of v
+						int w = graph.getTarget(edgeCursors[v]++);
+						if (mask != null && !mask.get(w)) {
+							// Successor w is outside of the induced subgraph
+							continue;
+						}
+						if (indices[w] == UNDEFINED) {
+							// Successor w has not yet been visited; descend into it
+							indices[w] = lowLinks[w] = index++;
+							edgeCursors[w] = graph.getEdgeStart(w);
+							work[wtop++] = w;
+							stack[top++] = w;
+							onStack.set(w);
+						}
+						else if (onStack.get(w)) {
+							// Successor w is in stack S and hence in the current SCC
+							lowLinks[v] = Math.min(lowLinks[v], indices[w]);
+						}
+						continue;
+					}
+
+					// All successors of v have been considered
+					wtop--;
+					if (lowLinks[v] == indices[v]) {
+						// v is a root node, pop the stack and generate an SCC
+						offsets[components] = count;
+						int x;
+						do {
+							x = stack[--top];
+							onStack.clear(x);
+							componentOf[x] = components;
+							members[count++] = x;
+						} while (x != v);
+						components++;
+					}
+					if (wtop > 0) {
+						int u = work[wtop - 1];
+						lowLinks[u] = Math.min(lowLinks[u], lowLinks[v]);
+					}
+				}
+			}
+			offsets[components] = count;
+
+			int[] resultMembers = new int[count];
+			System.arraycopy(members, 0, resultMembers, 0, count);
+			int[] resultOffsets = new int[components + 1];
+			System.arraycopy(offsets, 0, resultOffsets, 0, components + 1);
+			return new StronglyConnectedComponents(graph, resultMembers, resultOffsets, componentOf);
+		}
+		finally {
+			// reset only the entries touched by this run
+			for (int i = 0; i < count; i++) {
+				indices[members[i]] = UNDEFINED;
+			}
+			for (int i = 0; i < top; i++) {
+				indices[stack[i]] = UNDEFINED;
+			}
+			onStack.clear();
+		}
+	}
+
+	private static int nextVertex(BitSet mask, int from, int n) {
+		if (mask == null) {
+			return from;
+		}
+		int next = mask.nextSetBit(from);
+		return (next < 0 || next > n ? n : next);
+	}
+
+	private void ensureCapacity(int n) {
+		if (indices.length >= n) {
+			return;
+		}
+		indices = new int[n];
+		Arrays.fill(indices, UNDEFINED);
+		lowLinks = new int[n];
+		edgeCursors = new int[n];
+		work = new int[n];
+		stack = new int[n];
+		members = new int[n];
+		offsets = new int[n + 1];
+	}
+
+}
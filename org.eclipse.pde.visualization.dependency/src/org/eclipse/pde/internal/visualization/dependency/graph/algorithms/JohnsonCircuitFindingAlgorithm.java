@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Stack;
 
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
 import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
 
 /**
@@ -15,19 +16,18 @@ import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
  */
 public class JohnsonCircuitFindingAlgorithm implements IElementaryCircuitFindingAlgorithm {
 
-	private static final String INDEX = JohnsonCircuitFindingAlgorithm.class.getName() + ".johnsonCircuitINDEX"; //$NON-NLS-1$
-	
 	private Map Ak = null;//Map<IVertex, List<IVertex>>
-	private Map B = null;//Map<IVertex, List<IVertex>>
+	private List[] B = null;//List<IVertex>[] indexed by INDEX-1
 	private boolean[] blocked;
 	private int s;
 	private final Stack stack = new Stack();//Stack<IVertex>
 	private final IStronglyConnectedComponentsAlgorithm sccAlg;
 	private DiGraph origGraph;
+	private DiGraphSnapshot origSnapshot;
 	private List circuits;//List<IElementaryCircuit>
 	
 	public JohnsonCircuitFindingAlgorithm() {
-		this(new TarjanAlgorithm());
+		this(new IterativeTarjanAlgorithm());
 	}
 	
 	public JohnsonCircuitFindingAlgorithm(IStronglyConnectedComponentsAlgorithm sccAlg) {
@@ -36,14 +36,15 @@ public class JohnsonCircuitFindingAlgorithm implements IElementaryCircuitFinding
 		this.sccAlg = sccAlg;
 	}
 	
-	private static final int indexOf(IVertex v) {
-		return ((Integer)v.getPropertyValue(INDEX)).intValue();
+	/* The INDEX of a vertex is its (1-based) id in the snapshot of the original graph */
+	private final int indexOf(IVertex v) {
+		return origSnapshot.getId(v) + 1;
 	}
 	
 	private void unblock(IVertex vertex) {
 		int u = indexOf(vertex);
 		blocked[u-1] = false;
-		List edges = (List) B.get(vertex);
+		List edges = B[u-1];
 		Iterator itr = edges.iterator();
 		while (itr.hasNext()) {
 			IVertex wVertex = (IVertex) itr.next();
@@ -90,7 +91,7 @@ public class JohnsonCircuitFindingAlgorithm implements IElementaryCircuitFinding
 			itr = edges.iterator();
 			while (itr.hasNext()) {
 				IVertex wVertex = (IVertex) itr.next();
-				List wEdges = (List) B.get(wVertex);
+				List wEdges = B[indexOf(wVertex)-1];
 				if (!wEdges.contains(vertex)) {
 					wEdges.add(vertex);
 				}
@@ -174,65 +175,69 @@ public class JohnsonCircuitFindingAlgorithm implements IElementaryCircuitFinding
 		circuits = new ArrayList(0);
 		
 		origGraph = graph;
-		int n = graph.numberOfVertices();
+		origSnapshot = graph.snapshot();
+		int n = origSnapshot.numberOfVertices();
 		blocked = new boolean[n];
 		
-		B = new HashMap(n);
-		IVertex[] vertices = graph.getVertices();
-		for (int ci = 1; ci <= n; ci++) {
-			vertices[ci-1].setPropertyValue(INDEX, Integer.valueOf(ci));
-			B.put(vertices[ci-1], new ArrayList(0));
+		B = new List[n];
+		for (int ci = 0; ci < n; ci++) {
+			B[ci] = new ArrayList(0);
 		}
 		
-		stack.clear();
-		s = 1;
-		while (s < n) {
-			Ak = null;
+		try {
+			stack.clear();
+			s = 1;
+			// the last vertex is visited too, as it may hold a self-loop
+			while (s <= n) {
+				Ak = null;
 			
-			// adjacency structure of strong component K with least
-			// vertex in subgraph of G induced by {s, s+1, ..., n};
-			int leastVertex = Integer.MAX_VALUE;
-			DiGraph subgraph = createSubgraph(s, n);
-			List[] sccs = sccAlg.findStronglyConnectedComponents(subgraph);
-			for (int i = 0; i < sccs.length; i++) {
-				List scc = sccs[i];
-				Map adj = getAdjacencyStructureOfSCC(scc, subgraph);
-				int t = indexOf(leastVertex(adj));
-				if (t < leastVertex) {
-					leastVertex = t;
-					Ak = adj;
+				// adjacency structure of strong component K with least
+				// vertex in subgraph of G induced by {s, s+1, ..., n};
+				int leastVertex = Integer.MAX_VALUE;
+				DiGraph subgraph = createSubgraph(s, n);
+				List[] sccs = sccAlg.findStronglyConnectedComponents(subgraph);
+				for (int i = 0; i < sccs.length; i++) {
+					List scc = sccs[i];
+					Map adj = getAdjacencyStructureOfSCC(scc, subgraph);
+					int t = indexOf(leastVertex(adj));
+					if (t < leastVertex) {
+						leastVertex = t;
+						Ak = adj;
+					}
 				}
-			}
 			
-			if (Ak != null) {
-				IVertex sVertex = leastVertex(Ak);
-				s = indexOf(sVertex);
+				if (Ak != null) {
+					IVertex sVertex = leastVertex(Ak);
+					s = indexOf(sVertex);
 				
-				Iterator keysItr = Ak.keySet().iterator();
-				while (keysItr.hasNext()) {
-					IVertex iVertex = (IVertex) keysItr.next();
-					int i = indexOf(iVertex);
-					blocked[i-1] = false;
-					B.put(iVertex, new ArrayList(0));
-				}
+					Iterator keysItr = Ak.keySet().iterator();
+					while (keysItr.hasNext()) {
+						IVertex iVertex = (IVertex) keysItr.next();
+						int i = indexOf(iVertex);
+						blocked[i-1] = false;
+						B[i-1].clear();
+					}
 				
-				circuit(sVertex);
-				s++;
-			}
-			else {
-				s = n;
+					circuit(sVertex);
+					s++;
+				}
+				else {
+					s = n + 1;
+				}
 			}
-		}
 		
-		//TODO needs to be in a finally block
-		// Cleanup
-		vertices = graph.getVertices();
-		for (int i = 0; i < vertices.length; i++) {
-			IVertex v = vertices[i];
-			v.removeProperty(INDEX);
+			return (IElementaryCircuit[]) circuits.toArray(new IElementaryCircuit[circuits.size()]);
+		}
+		finally {
+			// release the algorithm-local state
+			Ak = null;
+			B = null;
+			blocked = null;
+			stack.clear();
+			origGraph = null;
+			origSnapshot = null;
+			circuits = null;
 		}
-		
-		return (IElementaryCircuit[]) circuits.toArray(new IElementaryCircuit[circuits.size()]);
 	}
 
 }
@@ -0,0 +1,364 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * An <code>IStreamingElementaryCircuitFindingAlgorithm</code> enumerating the circuits of every strongly connected
+ * component in parallel.
+ * <p>
+ * Elementary circuits never cross strongly connected components, so the graph is first split with the
+ * {@link IterativeTarjanAlgorithm}, and an independent {@link IndexedJohnsonCircuitFindingAlgorithm} worker (with
+ * its own state) is then run on every component holding a circuit, on the <code>ForkJoinPool</code> shared by the
+ * plug-in (see {@link Activator#getWorkerPool()}). The snapshot of the graph is immutable and is shared by all the
+ * workers.
+ * </p>
+ * <p>
+ * Every circuit reported by Johnson's algorithm starts with its least vertex, and the circuits of a component are
+ * reported by increasing start vertex. The results of the workers are therefore merged by start vertex (stably),
+ * which yields the circuits in the same order as {@link IndexedJohnsonCircuitFindingAlgorithm}, regardless of the
+ * scheduling of the workers. The strongly connected components are reported before any worker runs, and the
+ * circuits are handed to the collector from the calling thread as the workers finish: every time a worker is over,
+ * the circuits starting before the least vertex of every component still searched are reported.
+ * </p>
+ * <p>
+ * Every worker respects the maximum length and the deadline of the {@link CircuitSearchBudget}, and stops once it
+ * found the maximum number of circuits; the merged circuits are then cut to that number, so a search bounded by
+ * the number of circuits reports the same circuits as {@link IndexedJohnsonCircuitFindingAlgorithm}. Canceling the
+ * progress monitor stops all the workers.
+ * </p>
+ */
+public class ParallelCircuitFindingAlgorithm implements IStreamingElementaryCircuitFindingAlgorithm {
+
+	/**
+	 * Returns an array containing all elementary circuits
+	 * @param graph - the graph used to calculate elementary circuits
+	 * @return an array containing all elementary circuits
+	 * @throws IllegalArgumentException if the graph is null
+	 */
+	public IElementaryCircuit[] findAllElementaryCircuits(DiGraph graph) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		return findAllElementaryCircuits(graph.snapshot());
+	}
+
+	/**
+	 * Returns an array containing all elementary circuits of the specified <code>graph</code> snapshot.
+	 * @param graph - the snapshot used to calculate elementary circuits
+	 * @return an array containing all elementary circuits
+	 * @throws IllegalArgumentException if the graph is null
+	 */
+	public IElementaryCircuit[] findAllElementaryCircuits(DiGraphSnapshot graph) {
+		final List circuits = new ArrayList(0);//List<IElementaryCircuit>
+		findElementaryCircuits(graph, new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				circuits.add(circuit);
+			}
+		}, CircuitSearchBudget.UNLIMITED, null);
+		return (IElementaryCircuit[]) circuits.toArray(new IElementaryCircuit[circuits.size()]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IStreamingElementaryCircuitFindingAlgorithm#findElementaryCircuits(org.eclipse.pde.internal.visualization.dependency.graph.DiGraph, org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector, org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	public boolean findElementaryCircuits(DiGraph graph, IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		return findElementaryCircuits(graph.snapshot(), collector, budget, monitor);
+	}
+
+	/**
+	 * Reports the elementary circuits of the specified <code>graph</code> snapshot to the <code>collector</code>.
+	 * @param graph - the snapshot used to calculate elementary circuits (cannot be <code>null</code>)
+	 * @param collector - the collector the strongly connected components and circuits are reported to (cannot be <code>null</code>)
+	 * @param budget - the limits of the enumeration (cannot be <code>null</code>)
+	 * @param monitor - the progress monitor used to report progress and to cancel the enumeration, or <code>null</code>
+	 * @return <code>true</code> if every elementary circuit has been reported, <code>false</code> if the enumeration
+	 * was cut short by the <code>budget</code> or by cancellation.
+	 * @throws IllegalArgumentException if the graph, the collector or the budget is <code>null</code>
+	 * @see IStreamingElementaryCircuitFindingAlgorithm#findElementaryCircuits(DiGraph, IElementaryCircuitCollector, CircuitSearchBudget, IProgressMonitor)
+	 */
+	public boolean findElementaryCircuits(DiGraphSnapshot graph, IElementaryCircuitCollector collector, CircuitSearchBudget budget, IProgressMonitor monitor) {
+		if (graph == null){
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		if (collector == null){
+			throw new IllegalArgumentException("The 'collector' cannot be null"); //$NON-NLS-1$
+		}
+		if (budget == null){
+			throw new IllegalArgumentException("The 'budget' cannot be null"); //$NON-NLS-1$
+		}
+		if (monitor == null) {
+			monitor = new NullProgressMonitor();
+		}
+		long now = System.currentTimeMillis();
+		long deadline = (budget.getMaxMillis() > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + budget.getMaxMillis());
+
+		StronglyConnectedComponents sccs = new IterativeTarjanAlgorithm().findComponents(graph);
+		List tasks = new ArrayList(0);//List<ComponentTask>
+		for (int c = 0; c < sccs.numberOfComponents(); c++) {
+			if (hasCircuit(graph, sccs, c)) {
+				BitSet mask = new BitSet(graph.numberOfVertices());
+				for (int i = sccs.getComponentStart(c); i < sccs.getComponentEnd(c); i++) {
+					mask.set(sccs.getMember(i));
+				}
+				tasks.add(new ComponentTask(graph, mask, sccs.size(c), budget, deadline, monitor));
+			}
+		}
+		int[] sizes = new int[tasks.size()];
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = ((ComponentTask) tasks.get(i)).size();
+		}
+		collector.componentsFound(sizes);
+		if (tasks.isEmpty()) {
+			return true;
+		}
+
+		monitor.beginTask("", tasks.size()); //$NON-NLS-1$
+		try {
+			ComponentTask[] pending = (ComponentTask[]) tasks.toArray(new ComponentTask[tasks.size()]);
+			CircuitMerger merger = new CircuitMerger(graph, pending, collector, budget.getMaxCount());
+			if (pending.length == 1) {
+				// nothing to run in parallel
+				pending[0].compute();
+				monitor.worked(1);
+				merger.add(pending[0]);
+			}
+			else {
+				// schedule the largest components first
+				Arrays.sort(pending, new Comparator() {
+					public int compare(Object o1, Object o2) {
+						return ((ComponentTask) o2).size() - ((ComponentTask) o1).size();
+					}
+				});
+				BlockingQueue finished = new LinkedBlockingQueue();//BlockingQueue<ComponentTask>
+				for (int i = 0; i < pending.length; i++) {
+					pending[i].setFinishedQueue(finished);
+					Activator.getWorkerPool().execute(pending[i]);
+				}
+				// the progress and the circuits are reported from the calling thread only, as the workers finish
+				for (int i = 0; i < pending.length; i++) {
+					ComponentTask task = takeUninterruptibly(finished);
+					task.join();
+					monitor.worked(1);
+					merger.add(task);
+				}
+			}
+			// as the sequential search, the search is over once the maximum number of circuits is reached
+			return merger.isComplete() && merger.getCount() < budget.getMaxCount() && !monitor.isCanceled();
+		}
+		finally {
+			monitor.done();
+		}
+	}
+
+	private static ComponentTask takeUninterruptibly(BlockingQueue queue) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return (ComponentTask) queue.take();
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static int startOf(DiGraphSnapshot graph, IElementaryCircuit circuit) {
+		return graph.getId((IVertex) circuit.getVertices().get(0));
+	}
+
+	/* A component holds a circuit if it has more than one vertex, or if its only vertex has a self-loop */
+	private static boolean hasCircuit(DiGraphSnapshot graph, StronglyConnectedComponents sccs, int c) {
+		if (sccs.size(c) > 1) {
+			return true;
+		}
+		int v = sccs.getMember(sccs.getComponentStart(c));
+		for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+			if (graph.getTarget(e) == v) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Johnson worker enumerating the circuits of a single strongly connected component, with its own state.
+	 */
+	private static class ComponentTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final DiGraphSnapshot graph;
+		private final BitSet mask;
+		private final int size;
+		private final CircuitSearchBudget budget;
+		private final long deadline;
+		private final IProgressMonitor monitor;
+		private final List circuits = new ArrayList(0);//List<IElementaryCircuit>
+		private boolean complete = false;
+		private BlockingQueue finished = null;//BlockingQueue<ComponentTask>
+		/* The index of the next circuit to be reported; only accessed from the calling thread */
+		int cursor = 0;
+
+		ComponentTask(DiGraphSnapshot graph, BitSet mask, int size, CircuitSearchBudget budget, long deadline, IProgressMonitor monitor) {
+			this.graph = graph;
+			this.mask = mask;
+			this.size = size;
+			this.budget = budget;
+			this.deadline = deadline;
+			this.monitor = monitor;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int leastVertex() {
+			return mask.nextSetBit(0);
+		}
+
+		void setFinishedQueue(BlockingQueue finished) {
+			this.finished = finished;
+		}
+
+		List getCircuits() {
+			return circuits;
+		}
+
+		boolean isComplete() {
+			return complete;
+		}
+
+		protected void compute() {
+			try {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0 || monitor.isCanceled()) {
+					return;
+				}
+				CircuitSearchBudget workerBudget = new CircuitSearchBudget(budget.getMaxLength(), budget.getMaxCount(), remaining);
+				complete = new IndexedJohnsonCircuitFindingAlgorithm().findElementaryCircuits(graph, mask, new IElementaryCircuitCollector() {
+					public void componentsFound(int[] sizes) {
+					}
+					public void circuitFound(IElementaryCircuit circuit) {
+						circuits.add(circuit);
+					}
+				}, workerBudget, new CancelMonitor(monitor));
+			}
+			finally {
+				if (finished != null) {
+					finished.add(this);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Reports the circuits of the finished workers to the collector by increasing start vertex. A circuit is only
+	 * reported once no unfinished worker can find a circuit starting before it, that is once its start vertex is
+	 * less than the least vertex of every component still searched.
+	 */
+	private static class CircuitMerger {
+
+		private final DiGraphSnapshot graph;
+		private final IElementaryCircuitCollector collector;
+		private final int maxCount;
+		/* The least vertices of the components still searched */
+		private final BitSet unfinished = new BitSet();
+		/* The finished workers having circuits left to report, by start vertex of their next circuit */
+		private final PriorityQueue ready;//PriorityQueue<ComponentTask>
+		private int count = 0;
+		private boolean complete = true;
+
+		CircuitMerger(final DiGraphSnapshot graph, ComponentTask[] tasks, IElementaryCircuitCollector collector, int maxCount) {
+			this.graph = graph;
+			this.collector = collector;
+			this.maxCount = maxCount;
+			for (int i = 0; i < tasks.length; i++) {
+				unfinished.set(tasks[i].leastVertex());
+			}
+			ready = new PriorityQueue(Math.max(1, tasks.length), new Comparator() {
+				public int compare(Object o1, Object o2) {
+					return nextStart((ComponentTask) o1) - nextStart((ComponentTask) o2);
+				}
+			});
+		}
+
+		int getCount() {
+			return count;
+		}
+
+		boolean isComplete() {
+			return complete;
+		}
+
+		/* Notifies this merger that the specified worker is over, and reports the circuits known to come next */
+		void add(ComponentTask task) {
+			unfinished.clear(task.leastVertex());
+			complete = complete && task.isComplete();
+			if (!task.getCircuits().isEmpty()) {
+				ready.add(task);
+			}
+			int bound = unfinished.nextSetBit(0);
+			while (!ready.isEmpty() && count < maxCount && (bound == -1 || nextStart((ComponentTask) ready.peek()) < bound)) {
+				ComponentTask next = (ComponentTask) ready.poll();
+				collector.circuitFound((IElementaryCircuit) next.getCircuits().get(next.cursor++));
+				count++;
+				if (next.cursor < next.getCircuits().size()) {
+					ready.add(next);
+				}
+			}
+		}
+
+		private int nextStart(ComponentTask task) {
+			return startOf(graph, (IElementaryCircuit) task.getCircuits().get(task.cursor));
+		}
+
+	}
+
+	/**
+	 * Progress monitor of a worker: only forwards the cancellation of the search, as the progress monitor of the
+	 * search is used from the calling thread only.
+	 */
+	private static class CancelMonitor extends NullProgressMonitor {
+
+		private final IProgressMonitor monitor;
+
+		CancelMonitor(IProgressMonitor monitor) {
+			this.monitor = monitor;
+		}
+
+		public boolean isCanceled() {
+			return monitor.isCanceled();
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.BitSet;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * The vertices and edges of a {@link DiGraphSnapshot} lying on the paths between a source and a target vertex.
+ *
+ * @see PathSubgraphAlgorithm
+ */
+public final class PathSubgraph {
+
+	private final DiGraphSnapshot graph;
+	private final BitSet vertices;
+	private final int[] edgeSources;
+	private final int[] edgeTargets;
+
+	PathSubgraph(DiGraphSnapshot graph, BitSet vertices, int[] edgeSources, int[] edgeTargets) {
+		this.graph = graph;
+		this.vertices = vertices;
+		this.edgeSources = edgeSources;
+		this.edgeTargets = edgeTargets;
+	}
+
+	/**
+	 * Returns true if no path connects the source to the target.
+	 * @return true if no path connects the source to the target.
+	 */
+	public boolean isEmpty() {
+		return vertices.isEmpty();
+	}
+
+	/**
+	 * Returns true if the specified <code>vertex</code> lies on a path between the source and the target.
+	 * @param vertex the vertex to be tested
+	 * @return true if the specified <code>vertex</code> lies on a path between the source and the target.
+	 */
+	public boolean containsVertex(IVertex vertex) {
+		int id = graph.getId(vertex);
+		return (id >= 0 && vertices.get(id));
+	}
+
+	/**
+	 * Returns an array containing the vertices lying on a path between the source and the target.
+	 * @return an array containing the vertices lying on a path between the source and the target.
+	 */
+	public IVertex[] getVertices() {
+		IVertex[] result = new IVertex[vertices.cardinality()];
+		int i = 0;
+		for (int v = vertices.nextSetBit(0); v >= 0; v = vertices.nextSetBit(v + 1)) {
+			result[i++] = graph.getVertex(v);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of edges lying on a path between the source and the target.
+	 * @return the number of edges lying on a path between the source and the target.
+	 */
+	public int numberOfEdges() {
+		return edgeSources.length;
+	}
+
+	/**
+	 * Returns the source vertex of the edge at the specified <code>index</code>.
+	 * @param index the index of the edge
+	 * @return the source vertex of the edge at the specified <code>index</code>.
+	 */
+	public IVertex getEdgeSource(int index) {
+		return graph.getVertex(edgeSources[index]);
+	}
+
+	/**
+	 * Returns the target vertex of the edge at the specified <code>index</code>.
+	 * @param index the index of the edge
+	 * @return the target vertex of the edge at the specified <code>index</code>.
+	 */
+	public IVertex getEdgeTarget(int index) {
+		return graph.getVertex(edgeTargets[index]);
+	}
+
+}
@@ -0,0 +1,112 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.BitSet;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Computes the vertices and edges lying on the paths between two vertices of the graph, in <code>O(V + E)</code>
+ * time, without enumerating the paths.
+ * <p>
+ * A forward reachability pass from the source (which does not expand the target, since a path ends there) and a
+ * backward reachability pass from the target (which does not expand the source, since a path starts there) are
+ * intersected: a vertex lies on a path if it is reached by both passes, and an edge lies on a path if both of its
+ * vertices do. Where the graph is acyclic this is exactly the union of the paths found by
+ * {@link DepthFirstTraversalAlgorithm}; within a cycle it may also include the vertices of a detour that leaves and
+ * re-enters the cycle.
+ * </p>
+ */
+public class PathSubgraphAlgorithm {
+
+	/**
+	 * Returns the vertices and edges lying on the paths between two vertices of the <code>graph</code>.
+	 *
+	 * @param graph the <code>graph</code> used to calculate the paths
+	 * @param source the source <code>IVertex</code>
+	 * @param target the target <code>IVertex</code>
+	 *
+	 * @return the vertices and edges lying on the paths between two vertices of the <code>graph</code>.
+	 *
+	 * @throws IllegalArgumentException if the <code>source</code> or <code>target</code> vertices are not members
+	 * of the provided <code>graph</code>.
+	 */
+	public PathSubgraph findPathSubgraph(DiGraph graph, IVertex source, IVertex target) {
+		if (!graph.containsVertex(source) || !graph.containsVertex(target)){
+			throw new IllegalArgumentException("The 'source' and the 'target' vertices should be in the graph"); //$NON-NLS-1$
+		}
+		DiGraphSnapshot snapshot = graph.snapshot();
+		int n = snapshot.numberOfVertices();
+		int s = snapshot.getId(source);
+		int t = snapshot.getId(target);
+		int[] queue = new int[n];
+
+		// forward pass from the source, not expanding the target
+		BitSet forward = new BitSet(n);
+		forward.set(s);
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = s;
+		while (head < tail) {
+			int v = queue[head++];
+			if (v == t) {
+				continue;
+			}
+			for (int e = snapshot.getEdgeStart(v); e < snapshot.getEdgeEnd(v); e++) {
+				int w = snapshot.getTarget(e);
+				if (!forward.get(w)) {
+					forward.set(w);
+					queue[tail++] = w;
+				}
+			}
+		}
+		if (!forward.get(t)) {
+			return new PathSubgraph(snapshot, new BitSet(0), new int[0], new int[0]);
+		}
+
+		// backward pass from the target, not expanding the source, restricted to the forward-reachable vertices
+		BitSet vertices = new BitSet(n);
+		vertices.set(t);
+		head = tail = 0;
+		queue[tail++] = t;
+		int edges = 0;
+		while (head < tail) {
+			int v = queue[head++];
+			if (v == s) {
+				continue;
+			}
+			for (int e = snapshot.getReverseEdgeStart(v); e < snapshot.getReverseEdgeEnd(v); e++) {
+				int u = snapshot.getSource(e);
+				if (forward.get(u) && u != t) {
+					edges++;
+					if (!vertices.get(u)) {
+						vertices.set(u);
+						queue[tail++] = u;
+					}
+				}
+			}
+		}
+
+		// collect the edges (u, w) with both ends on a path, u != target and w != source
+		int[] edgeSources = new int[edges];
+		int[] edgeTargets = new int[edges];
+		int i = 0;
+		for (int j = 0; j < tail; j++) {
+			int w = queue[j];
+			if (w == s) {
+				continue;
+			}
+			for (int e = snapshot.getReverseEdgeStart(w); e < snapshot.getReverseEdgeEnd(w); e++) {
+				int u = snapshot.getSource(e);
+				if (forward.get(u) && u != t) {
+					edgeSources[i] = u;
+					edgeTargets[i] = w;
+					i++;
+				}
+			}
+		}
+		return new PathSubgraph(snapshot, vertices, edgeSources, edgeTargets);
+	}
+
+}
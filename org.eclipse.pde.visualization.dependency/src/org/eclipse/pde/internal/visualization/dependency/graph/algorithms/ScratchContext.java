@@ -0,0 +1,113 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Algorithm-local scratch state for a {@link DiGraphSnapshot}.
+ * <p>
+ * Graph algorithms keep their per-vertex bookkeeping (indices, distances, predecessors, visited flags, ...) in
+ * primitive side tables indexed by the dense vertex id of the snapshot, rather than in the property map of each
+ * {@link IVertex}. Tables are identified by an algorithm-defined slot number, are allocated lazily, and are reused
+ * (after being reset) whenever the same slot is requested again, so repeated runs over the same snapshot do not
+ * allocate.
+ * </p>
+ * <p>
+ * A <code>ScratchContext</code> is owned by a single algorithm run and is not thread-safe. Since the tables are
+ * never attached to the vertices, nothing needs to be cleaned up once the run completes (or fails).
+ * </p>
+ */
+public final class ScratchContext {
+
+	private static final int[][] NO_INT_TABLES = new int[0][];
+	private static final boolean[][] NO_FLAG_TABLES = new boolean[0][];
+	private static final BitSet[] NO_BIT_SETS = new BitSet[0];
+
+	private final DiGraphSnapshot graph;
+	private int[][] intTables = NO_INT_TABLES;
+	private boolean[][] flagTables = NO_FLAG_TABLES;
+	private BitSet[] bitSets = NO_BIT_SETS;
+
+	/**
+	 * Creates a scratch context for the specified <code>graph</code> snapshot.
+	 * @param graph the snapshot whose vertex ids index the scratch tables
+	 * @throws IllegalArgumentException if the specified <code>graph</code> is <code>null</code>
+	 */
+	public ScratchContext(DiGraphSnapshot graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("The 'graph' cannot be null."); //$NON-NLS-1$
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * Returns the snapshot whose vertex ids index the scratch tables.
+	 * @return the snapshot whose vertex ids index the scratch tables.
+	 */
+	public DiGraphSnapshot getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the <code>int</code> table for the specified <code>slot</code>, with every entry set to <code>initialValue</code>.
+	 * @param slot the algorithm-defined slot number (zero based)
+	 * @param initialValue the value every entry of the table is reset to
+	 * @return the <code>int</code> table for the specified <code>slot</code>.
+	 */
+	public int[] getIntTable(int slot, int initialValue) {
+		if (slot >= intTables.length) {
+			int[][] tables = new int[slot + 1][];
+			System.arraycopy(intTables, 0, tables, 0, intTables.length);
+			intTables = tables;
+		}
+		if (intTables[slot] == null) {
+			intTables[slot] = new int[graph.numberOfVertices()];
+		}
+		Arrays.fill(intTables[slot], initialValue);
+		return intTables[slot];
+	}
+
+	/**
+	 * Returns the <code>boolean</code> table for the specified <code>slot</code>, with every entry set to <code>false</code>.
+	 * @param slot the algorithm-defined slot number (zero based)
+	 * @return the <code>boolean</code> table for the specified <code>slot</code>.
+	 */
+	public boolean[] getFlagTable(int slot) {
+		if (slot >= flagTables.length) {
+			boolean[][] tables = new boolean[slot + 1][];
+			System.arraycopy(flagTables, 0, tables, 0, flagTables.length);
+			flagTables = tables;
+		}
+		if (flagTables[slot] == null) {
+			flagTables[slot] = new boolean[graph.numberOfVertices()];
+		}
+		else {
+			Arrays.fill(flagTables[slot], false);
+		}
+		return flagTables[slot];
+	}
+
+	/**
+	 * Returns the (cleared) <code>BitSet</code> for the specified <code>slot</code>.
+	 * @param slot the algorithm-defined slot number (zero based)
+	 * @return the <code>BitSet</code> for the specified <code>slot</code>.
+	 */
+	public BitSet getBitSet(int slot) {
+		if (slot >= bitSets.length) {
+			BitSet[] sets = new BitSet[slot + 1];
+			System.arraycopy(bitSets, 0, sets, 0, bitSets.length);
+			bitSets = sets;
+		}
+		if (bitSets[slot] == null) {
+			bitSets[slot] = new BitSet(graph.numberOfVertices());
+		}
+		else {
+			bitSets[slot].clear();
+		}
+		return bitSets[slot];
+	}
+
+}
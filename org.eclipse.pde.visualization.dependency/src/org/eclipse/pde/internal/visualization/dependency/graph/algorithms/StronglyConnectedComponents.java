@@ -0,0 +1,137 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+
+/**
+ * The strongly connected components of a {@link DiGraphSnapshot}, stored as dense <code>int</code> ranges.
+ * <p>
+ * The dense ids of the members of component <code>c</code> are found in the members table between the offsets
+ * <code>getComponentStart(c)</code> (inclusive) and <code>getComponentEnd(c)</code> (exclusive):
+ * </p>
+ * <pre>
+ * for (int i = components.getComponentStart(c); i &lt; components.getComponentEnd(c); i++) {
+ *     int v = components.getMember(i);
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * Components are numbered in the order they were completed, i.e. in reverse topological order of the condensation
+ * of the graph.
+ * </p>
+ *
+ * @see IterativeTarjanAlgorithm
+ */
+public final class StronglyConnectedComponents {
+
+	private final DiGraphSnapshot graph;
+	private final int[] members;
+	private final int[] offsets;
+	private final int[] componentOf;
+
+	/**
+	 * Creates the strongly connected components of the specified <code>graph</code>.
+	 * @param graph the snapshot the components belong to
+	 * @param members the dense ids of the members of every component, grouped by component
+	 * @param offsets the offset of the first member of every component, followed by the total number of members
+	 * @param componentOf the component of every vertex of the <code>graph</code>, or <code>-1</code> for the vertices
+	 * not part of any component
+	 */
+	StronglyConnectedComponents(DiGraphSnapshot graph, int[] members, int[] offsets, int[] componentOf) {
+		this.graph = graph;
+		this.members = members;
+		this.offsets = offsets;
+		this.componentOf = componentOf;
+	}
+
+	/**
+	 * Returns the snapshot these components belong to.
+	 * @return the snapshot these components belong to.
+	 */
+	public DiGraphSnapshot getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of strongly connected components.
+	 * @return the number of strongly connected components.
+	 */
+	public int numberOfComponents() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the offset of the first member of the specified <code>component</code>.
+	 * @param component the component number
+	 * @return the offset of the first member of the specified <code>component</code>.
+	 */
+	public int getComponentStart(int component) {
+		return offsets[component];
+	}
+
+	/**
+	 * Returns the offset following the last member of the specified <code>component</code>.
+	 * @param component the component number
+	 * @return the offset following the last member of the specified <code>component</code>.
+	 */
+	public int getComponentEnd(int component) {
+		return offsets[component + 1];
+	}
+
+	/**
+	 * Returns the number of members of the specified <code>component</code>.
+	 * @param component the component number
+	 * @return the number of members of the specified <code>component</code>.
+	 */
+	public int size(int component) {
+		return offsets[component + 1] - offsets[component];
+	}
+
+	/**
+	 * Returns the dense id of the member at the specified <code>offset</code>.
+	 * @param offset the offset of the member
+	 * @return the dense id of the member at the specified <code>offset</code>.
+	 */
+	public int getMember(int offset) {
+		return members[offset];
+	}
+
+	/**
+	 * Returns the component of the vertex with the specified dense <code>id</code>, or <code>-1</code> if the vertex
+	 * is not part of any component (i.e. it was excluded from the search).
+	 * @param id the dense id of the vertex
+	 * @return the component of the vertex with the specified dense <code>id</code>, or <code>-1</code>.
+	 */
+	public int getComponentOf(int id) {
+		return componentOf[id];
+	}
+
+	/**
+	 * Returns a <code>List</code> holding the vertex set of the specified <code>component</code>.
+	 * @param component the component number
+	 * @return a <code>List</code> holding the vertex set of the specified <code>component</code>.
+	 */
+	public List toList(int component) {
+		List list = new ArrayList(size(component));
+		for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+			list.add(graph.getVertex(members[i]));
+		}
+		return list;
+	}
+
+	/**
+	 * Returns an array of <code>List</code>(s) where each list holds the vertex set of an individual component.
+	 * @return an array of <code>List</code>(s) where each list holds the vertex set of an individual component.
+	 * @see IStronglyConnectedComponentsAlgorithm#findStronglyConnectedComponents(org.eclipse.pde.internal.visualization.dependency.graph.DiGraph)
+	 */
+	public List[] toLists() {
+		List[] lists = new List[numberOfComponents()];
+		for (int c = 0; c < lists.length; c++) {
+			lists[c] = toList(c);
+		}
+		return lists;
+	}
+
+}
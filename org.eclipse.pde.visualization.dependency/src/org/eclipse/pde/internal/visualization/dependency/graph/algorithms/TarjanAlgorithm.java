@@ -2,21 +2,28 @@ package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
-import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
 
 /**
  * Implementation of an <code>IStronglyConnectedComponentsAlgorithm</code> based on Tarjan's algorithm.
  */
 public class TarjanAlgorithm implements IStronglyConnectedComponentsAlgorithm {
 
-	private static final String INDEX = TarjanAlgorithm.class.getName() + ".tarjanINDEX"; //$NON-NLS-1$
-	private static final String LOWLINK = TarjanAlgorithm.class.getName() + ".tarjanLOWLINK"; //$NON-NLS-1$
-	
+	private static final int INDEX = 0;
+	private static final int LOWLINK = 1;
+	private static final int ON_STACK = 0;
+
+	private static final int UNDEFINED = -1;
+
 	private int index = 0;
-	
+	private int[] indices;
+	private int[] lowLinks;
+	private boolean[] onStack;
+	private int[] stack;
+	private int top;
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IStronglyConnectedComponentsAlgorithm#findStronglyConnectedComponents(org.eclipse.pde.internal.visualization.dependency.graph.DiGraph)
@@ -25,72 +32,66 @@ public class TarjanAlgorithm implements IStronglyConnectedComponentsAlgorithm {
 		if (graph == null){
 			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
 		}
-		
+
+		DiGraphSnapshot snapshot = graph.snapshot();
+		ScratchContext context = new ScratchContext(snapshot);
 		index = 0;
-		Stack stack = new Stack();
+		indices = context.getIntTable(INDEX, UNDEFINED);
+		lowLinks = context.getIntTable(LOWLINK, UNDEFINED);
+		onStack = context.getFlagTable(ON_STACK);
+		stack = new int[snapshot.numberOfVertices()];
+		top = 0;
 		List sccs = new ArrayList(0);
-		IVertex[] vertices = graph.getVertices();
 		try {
-			for (int i = 0; i < vertices.length; i++) {
-				IVertex v = vertices[i];
-				if (v.getPropertyValue(INDEX) == null) {
-					computeSCC(graph, v, stack, sccs);
+			for (int v = 0; v < snapshot.numberOfVertices(); v++) {
+				if (indices[v] == UNDEFINED) {
+					computeSCC(snapshot, v, sccs);
 				}
 			}
 			return (List[]) sccs.toArray(new List[sccs.size()]);
-		} 
+		}
 		finally {
-			// clean-up
-			for (int i = 0; i < vertices.length; i++) {
-				IVertex v = vertices[i];
-				v.removeProperty(INDEX);
-				v.removeProperty(LOWLINK);
-			}
+			// release the scratch tables
+			indices = lowLinks = stack = null;
+			onStack = null;
 		}
 	}
-	
-	private void computeSCC(final DiGraph graph, final IVertex v, final Stack stack, final List sccs) {
+
+	private void computeSCC(final DiGraphSnapshot graph, final int v, final List sccs) {
 		// Set the depth index for v to the smallest unused index
-	    v.setPropertyValue(INDEX, Integer.valueOf(index));
-	    v.setPropertyValue(LOWLINK, Integer.valueOf(index));
-	    index++;
-	    stack.push(v);
-		
-	    // Consider successors of v
-	    IVertex[] edges = graph.getConnectedTo(v);
-	    for (int i = 0; i < edges.length; i++) {
-	    	IVertex w = edges[i];
-	    	if (w.getPropertyValue(INDEX) == null) {
-	    		// Successor w has not yet been visited; recurse on it
-	    		computeSCC(graph, w, stack, sccs);
-	    		v.setPropertyValue(LOWLINK, Integer.valueOf(Math.min(lowLinkOf(v), lowLinkOf(w))));
-	    	}
-	    	else if (stack.contains(w)) {
-	    		// Successor w is in stack S and hence in the current SCC
-		        v.setPropertyValue(LOWLINK, Integer.valueOf(Math.min(lowLinkOf(v), indexOf(w))));
-	    	}
-	    }
+		indices[v] = index;
+		lowLinks[v] = index;
+		index++;
+		stack[top++] = v;
+		onStack[v] = true;
 
-	    // If v is a root node, pop the stack and generate an SCC
-	    if (lowLinkOf(v) == indexOf(v)) {
-	    	// start a new strongly connected component
-	    	List scc = new ArrayList(0);
-	    	sccs.add(scc);
-	    	
-	    	IVertex x = null;
+		// Consider successors of v
+		for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+			int w = graph.getTarget(e);
+			if (indices[w] == UNDEFINED) {
+				// Successor w has not yet been visited; recurse on it
+				computeSCC(graph, w, sccs);
+				lowLinks[v] = Math.min(lowLinks[v], lowLinks[w]);
+			}
+			else if (onStack[w]) {
+				// Successor w is in stack S and hence in the current SCC
+				lowLinks[v] = Math.min(lowLinks[v], indices[w]);
+			}
+		}
+
+		// If v is a root node, pop the stack and generate an SCC
+		if (lowLinks[v] == indices[v]) {
+			// start a new strongly connected component
+			List scc = new ArrayList(0);
+			sccs.add(scc);
+
+			int x;
 			do {
-				x = (IVertex) stack.pop();
-				scc.add(x);
-			} while (!v.equals(x));	
-	    }		
-	}
-	
-	private int indexOf(IVertex v) {
-		return ((Integer) v.getPropertyValue(INDEX)).intValue();
-	}
-	
-	private int lowLinkOf(IVertex v) {
-		return ((Integer) v.getPropertyValue(LOWLINK)).intValue();
+				x = stack[--top];
+				onStack[x] = false;
+				scc.add(graph.getVertex(x));
+			} while (x != v);
+		}
 	}
 
 }
@@ -0,0 +1,250 @@
+package org.eclipse.pde.internal.visualization.dependency.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Yen's algorithm used to find the simple paths between two vertices of the graph, shortest first.
+ * <p>
+ * The first path is a shortest path (found by a breadth-first search, since all the edges of a <code>DiGraph</code>
+ * have the same weight). Every following path is the shortest of the candidates derived from the previously returned
+ * paths: for each vertex (the "spur" vertex) of the last returned path, the shortest path from the spur vertex to the
+ * target that avoids the vertices preceding it and the edges already used by returned paths sharing the same prefix
+ * is appended to that prefix. Candidates are only derived when the iterator is advanced, so inspecting the first
+ * <code>k</code> paths costs <code>O(k * V * (V + E))</code> time and <code>O(k * V)</code> memory, regardless of the
+ * total number of paths.
+ * </p>
+ * <p>
+ * Paths of equal length are returned in a deterministic order. The returned iterators are not thread-safe, and
+ * become stale if the graph is modified.
+ * </p>
+ */
+public class YenKShortestPathsAlgorithm implements IKShortestPathsFindingAlgorithm {
+
+	/**
+	 * Returns an <code>Iterator</code> over the simple paths between two vertices in a <code>graph</code>, in
+	 * increasing length order.
+	 *
+	 * @param graph - the <code>graph</code> used to calculate the paths
+	 * @param source - the source <code>vertex</code>
+	 * @param target - the target <code>vertex</code>
+	 * @return an <code>Iterator</code> of <code>IVertex[]</code> paths, shortest first. The iterator is empty if the
+	 * target cannot be reached from the source (or if both are the same vertex).
+	 * @throws IllegalArgumentException if the source and the target vertices are not in the graph
+	 */
+	public Iterator findShortestPaths(DiGraph graph, IVertex source, IVertex target) {
+		if (!graph.containsVertex(source) || !graph.containsVertex(target)){
+			throw new IllegalArgumentException("The 'source' and 'target' vertices should be in the graph"); //$NON-NLS-1$
+		}
+		DiGraphSnapshot snapshot = graph.snapshot();
+		return new PathIterator(snapshot, snapshot.getId(source), snapshot.getId(target));
+	}
+
+	/**
+	 * A path, identified by the dense ids of its vertices.
+	 */
+	private static final class Path {
+
+		final int[] vertices;
+		final long sequence;
+
+		Path(int[] vertices, long sequence) {
+			this.vertices = vertices;
+			this.sequence = sequence;
+		}
+
+		public boolean equals(Object obj) {
+			return (obj instanceof Path && Arrays.equals(vertices, ((Path) obj).vertices));
+		}
+
+		public int hashCode() {
+			return Arrays.hashCode(vertices);
+		}
+
+	}
+
+	/**
+	 * Lazy iterator over the paths, holding the state of Yen's algorithm.
+	 */
+	private static final class PathIterator implements Iterator {
+
+		private final DiGraphSnapshot graph;
+		private final int source;
+		private final int target;
+
+		/* the returned paths (A), the candidates (B), and all the paths seen so far */
+		private final List found = new ArrayList(0);//List<Path>
+		private final PriorityQueue candidates;//PriorityQueue<Path>
+		private final Set seen = new HashSet(0);//Set<Path>
+		private long sequence = 0;
+
+		/* breadth-first search tables; a vertex is visited during the current search if visits[v] == stamp */
+		private final int[] visits;
+		private final int[] parents;
+		private final int[] queue;
+		private final BitSet excluded;
+		private final BitSet forbiddenNext;
+		private int stamp = 0;
+
+		private Path next;
+		private boolean done;
+
+		PathIterator(DiGraphSnapshot graph, int source, int target) {
+			this.graph = graph;
+			this.source = source;
+			this.target = target;
+			int n = graph.numberOfVertices();
+			visits = new int[n];
+			parents = new int[n];
+			queue = new int[n];
+			excluded = new BitSet(n);
+			forbiddenNext = new BitSet(n);
+			candidates = new PriorityQueue(11, new Comparator() {
+				public int compare(Object o1, Object o2) {
+					Path p1 = (Path) o1;
+					Path p2 = (Path) o2;
+					if (p1.vertices.length != p2.vertices.length) {
+						return p1.vertices.length - p2.vertices.length;
+					}
+					return (p1.sequence < p2.sequence ? -1 : (p1.sequence == p2.sequence ? 0 : 1));
+				}
+			});
+			done = (source == target);
+		}
+
+		public boolean hasNext() {
+			if (next == null && !done) {
+				next = computeNext();
+				done = (next == null);
+			}
+			return (next != null);
+		}
+
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Path path = next;
+			next = null;
+			return graph.toVertices(path.vertices, 0, path.vertices.length);
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private Path computeNext() {
+			if (found.isEmpty()) {
+				int[] shortest = shortestPath(source);
+				if (shortest == null) {
+					return null;
+				}
+				Path path = new Path(shortest, sequence++);
+				seen.add(path);
+				found.add(path);
+				return path;
+			}
+
+			int[] last = ((Path) found.get(found.size() - 1)).vertices;
+			for (int i = 0; i < last.length - 1; i++) {
+				int spur = last[i];
+
+				// the edges leaving the spur vertex along returned paths sharing the root path last[0..i]
+				forbiddenNext.clear();
+				for (int j = 0; j < found.size(); j++) {
+					int[] p = ((Path) found.get(j)).vertices;
+					if (p.length > i + 1 && startsWith(p, last, i + 1)) {
+						forbiddenNext.set(p[i + 1]);
+					}
+				}
+				// the vertices of the root path preceding the spur vertex
+				excluded.clear();
+				for (int j = 0; j < i; j++) {
+					excluded.set(last[j]);
+				}
+
+				int[] spurPath = shortestPath(spur);
+				if (spurPath != null) {
+					int[] vertices = new int[i + spurPath.length];
+					System.arraycopy(last, 0, vertices, 0, i);
+					System.arraycopy(spurPath, 0, vertices, i, spurPath.length);
+					Path candidate = new Path(vertices, sequence++);
+					if (seen.add(candidate)) {
+						candidates.add(candidate);
+					}
+				}
+			}
+			excluded.clear();
+			forbiddenNext.clear();
+
+			Path path = (Path) candidates.poll();
+			if (path != null) {
+				found.add(path);
+			}
+			return path;
+		}
+
+		private static boolean startsWith(int[] path, int[] prefix, int length) {
+			for (int i = 0; i < length; i++) {
+				if (path[i] != prefix[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/* Breadth-first search from 'from' to the target, avoiding the excluded vertices and the forbidden first hops */
+		private int[] shortestPath(int from) {
+			stamp++;
+			int head = 0;
+			int tail = 0;
+			visits[from] = stamp;
+			parents[from] = -1;
+			queue[tail++] = from;
+			while (head < tail) {
+				int v = queue[head++];
+				for (int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++) {
+					int w = graph.getTarget(e);
+					if (visits[w] == stamp || excluded.get(w) || (v == from && forbiddenNext.get(w))) {
+						continue;
+					}
+					visits[w] = stamp;
+					parents[w] = v;
+					if (w == target) {
+						return toPath(w);
+					}
+					queue[tail++] = w;
+				}
+			}
+			return null;
+		}
+
+		private int[] toPath(int last) {
+			int length = 0;
+			for (int u = last; u != -1; u = parents[u]) {
+				length++;
+			}
+			int[] path = new int[length];
+			int u = last;
+			for (int i = length - 1; i >= 0; i--) {
+				path[i] = u;
+				u = parents[u];
+			}
+			return path;
+		}
+
+	}
+
+}
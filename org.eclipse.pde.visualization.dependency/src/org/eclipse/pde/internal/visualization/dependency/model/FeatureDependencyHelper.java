@@ -1,77 +1,59 @@
 package org.eclipse.pde.internal.visualization.dependency.model;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.osgi.service.resolver.BaseDescription;
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.osgi.service.resolver.BundleSpecification;
 import org.eclipse.osgi.service.resolver.VersionRange;
 import org.eclipse.pde.core.plugin.IMatchRules;
 import org.eclipse.pde.core.plugin.IPluginModelBase;
-import org.eclipse.pde.core.plugin.PluginRegistry;
-import org.eclipse.pde.internal.core.PDECore;
-import org.eclipse.pde.internal.core.feature.FeatureImport;
 import org.eclipse.pde.internal.core.ifeature.IFeature;
 import org.eclipse.pde.internal.core.ifeature.IFeatureChild;
 import org.eclipse.pde.internal.core.ifeature.IFeatureImport;
 import org.eclipse.pde.internal.core.ifeature.IFeatureModel;
 import org.eclipse.pde.internal.core.ifeature.IFeaturePlugin;
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
-import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
 import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
 import org.osgi.framework.Version;
 
 public final class FeatureDependencyHelper {
 	
+	/** Timings of the last graph built. */
+	private final GraphBuildTimings timings = new GraphBuildTimings();
+	
 	/** Set which stores visited source vertices of the feature dependency graph. */
 	private final transient Set processedSources = new HashSet(0);
 	
+	/** Cache of the feature model and plug-in registry lookups of the current build, or <code>null</code> between builds. */
+	private transient PDEModelLookupCache modelLookupCache = null;
+	
+	/** Cache containing currently processed <code>IFeatureVertex</code>(s) of the feature graph, keyed by id and normalized version. */
+	private final transient Map featureVertexCache = new HashMap(0);
+	
 	/** Cache containing currently processed <code>IPluginVertex</code>(s) that form dependencies in the feature graph. */
 	private final transient Map pluginVertexCache = new HashMap(0);
 	
 	/** Cache containing currently processed error vertices linked to feature model dependencies that could not be found. */
 	private final transient Map featureErrorVertexCache = new HashMap(0);
 	
+	/** Index of the <code>IPluginVertex</code>(s) of the plugin vertex cache, used to match optional bundles by version range. */
+	private final transient PluginVertexIndex pluginVertexIndex = new PluginVertexIndex();
+	
 	/** Cache containing currently processed error vertices linked to plug-in model dependencies of a feature that could not be found. */
 	private final transient Map pluginErrorVertexCache = new HashMap(0);
 	
 	/** Cache containing currently processed error vertices linked to fragment model dependencies of a feature that could not be found. */
 	private final transient Map fragmentErrorVertexCache = new HashMap(0);
 	
-	/**
-	 * The key class used to identify entries in the vertex caches. The key's uniqueness is determined 
-	 * by the corresponding model object's id and version attributes.
-	 */
-	private static final class VertexCacheKey {
-		public String id;
-		public String version;
-		public VertexCacheKey(String id, String version) {
-			this.id = id;
-			this.version = version;
-		}
-		public int hashCode() {
-			final int prime = 31;
-			int result = prime + id.hashCode();
-			result = prime * result + version.hashCode();
-			return result;
-		}
-		public boolean equals(Object obj) {
-			if (this == obj) {
-				return true;
-			}
-			if (!(obj instanceof VertexCacheKey)) {
-				return false;
-			}
-			VertexCacheKey other = (VertexCacheKey) obj;
-			return (id.equals(other.id) && version.equals(other.version));
-		}
-	}
-	
 	/**
 	 * Returns the <code>Version.emptyVersion.toString()</code> value if the specified <code>version</code> is <code>null</code> or
 	 * an "empty" string, otherwise returns the original <code>version</code>.
@@ -90,40 +72,55 @@ public final class FeatureDependencyHelper {
 	 */
 	private void clearCaches() {
 		processedSources.clear();
+		featureVertexCache.clear();
 		pluginVertexCache.clear();
+		pluginVertexIndex.clear();
 		featureErrorVertexCache.clear();
 		pluginErrorVertexCache.clear();
 		fragmentErrorVertexCache.clear();
 	}
 	
 	/**
-	 * Returns the specified <code>graph</code>'s <code>IFeatureVertex</code> matching the specified <code>id</code>, and
+	 * Returns the <code>IFeatureVertex</code> (from the feature vertex cache) matching the specified <code>id</code>, and
 	 * <code>version</code>, or <code>null</code> if no match.
 	 * 
-	 * @param graph   the feature <code>DiGraph</code>
 	 * @param id      the feature id to match
 	 * @param version the feature version to match
 	 * 
-	 * @return the specified <code>graph</code>'s <code>IFeatureVertex</code> matching the specified <code>id</code>, and
+	 * @return the <code>IFeatureVertex</code> (from the feature vertex cache) matching the specified <code>id</code>, and
 	 * <code>version</code>, or <code>null</code> if no match.
 	 */
-	private IFeatureVertex findFeatureVertexMatchingIdAndVersion(DiGraph graph, String id, String version) {
-		IFeatureVertex match = null;
-		if (graph.numberOfVertices() > 0) {
-			final Version versionToMatch = Version.parseVersion(version);
-			IVertex[] vertices = graph.getVertices();
-			for (int i = 0; i < vertices.length; i++) {
-				IVertex v = vertices[i];
-				if (v instanceof IFeatureVertex) {
-					IFeatureVertex feature = (IFeatureVertex) v;
-					if (id.equals(feature.getId()) && versionToMatch.equals(Version.parseVersion(feature.getVersion()))) {
-						match = feature;
-						break;
-					}
-				}
-			}
+	private IFeatureVertex findFeatureVertexMatchingIdAndVersion(String id, String version) {
+		return (IFeatureVertex) featureVertexCache.get(newFeatureVertexCacheKey(id, version));
+	}
+	
+	/**
+	 * Adds the specified feature <code>vertex</code> to the feature vertex cache.
+	 * 
+	 * @param vertex the <code>IFeatureVertex</code> to cache
+	 */
+	private void cacheFeatureVertex(IFeatureVertex vertex) {
+		featureVertexCache.put(newFeatureVertexCacheKey(vertex.getId(), vertex.getVersion()), vertex);
+	}
+	
+	/**
+	 * Returns the feature vertex cache key of the specified <code>id</code>, and <code>version</code>. The version is 
+	 * normalized (e.g. "1.0" and "1.0.0" are the same key), so that features are matched by their parsed version.
+	 * 
+	 * @param id      the feature id
+	 * @param version the feature version
+	 * 
+	 * @return the feature vertex cache key of the specified <code>id</code>, and <code>version</code>.
+	 */
+	private static VertexCacheKey newFeatureVertexCacheKey(String id, String version) {
+		String normalized;
+		try {
+			normalized = Version.parseVersion(version).toString();
+		}
+		catch (IllegalArgumentException e) {
+			normalized = safeVersion(version);
 		}
-		return match;
+		return new VertexCacheKey(id, normalized);
 	}
 
 	/**
@@ -137,70 +134,180 @@ public final class FeatureDependencyHelper {
 	 * included in the specified version range, or <code>null</code> if no match.
 	 */
 	private IPluginVertex findPluginVertexMatchingIdAndVersionRange(String id, VersionRange range) {
-		IPluginVertex match = null;
-		Iterator itr = pluginVertexCache.entrySet().iterator();
-		while (itr.hasNext()) {
-			Map.Entry entry = (Map.Entry) itr.next();
-			VertexCacheKey key = (VertexCacheKey) entry.getKey();
-			if (id.equals(key.id) && range.isIncluded(Version.parseVersion(key.version))) {
-				match = (IPluginVertex) entry.getValue();
-				break;
-			}
-		}
-		return match;
+		return pluginVertexIndex.find(id, range);
+	}
+	
+	/**
+	 * Adds the specified <code>vertex</code> to the plugin vertex cache, and to the version index of the cache.
+	 * 
+	 * @param key    the key of the vertex
+	 * @param vertex the <code>IPluginVertex</code> to cache
+	 */
+	private void cachePluginVertex(VertexCacheKey key, IPluginVertex vertex) {
+		pluginVertexCache.put(key, vertex);
+		pluginVertexIndex.put(key.id, key.version, vertex);
 	}
 
 	public DiGraph createFeatureGraph(final IFeatureVertex root) {
+		return createFeatureGraph(root, null);
+	}
+	
+	/**
+	 * Returns the feature dependency graph of the specified <code>root</code>, or the part of it built so far if the
+	 * progress monitor is cancelled.
+	 * 
+	 * @param root    the root <code>IFeatureVertex</code>
+	 * @param monitor the progress monitor used to cancel the build, or <code>null</code>
+	 * 
+	 * @return the (partial if cancelled) feature dependency graph of the specified <code>root</code>.
+	 */
+	public DiGraph createFeatureGraph(final IFeatureVertex root, IProgressMonitor monitor) {
 		Assert.isNotNull(root);
+		if (monitor == null) {
+			monitor = new NullProgressMonitor();
+		}
 		clearCaches();
+		timings.reset();
+		long start = System.nanoTime();
+		modelLookupCache = new PDEModelLookupCache();
 		try {
 			DiGraph graph = new DiGraph();
 			graph.addVertex(root);
-			buildFeatureGraph(graph, root);
+			cacheFeatureVertex(root);
+			buildFeatureGraph(graph, root, monitor);
 			return graph;
 		}
 		finally {
 			clearCaches();
+			modelLookupCache.trace();
+			modelLookupCache = null;
+			timings.addTotal(System.nanoTime() - start);
+			timings.trace("Feature graph"); //$NON-NLS-1$
 		}
 	}
 	
-	private void buildFeatureGraph(DiGraph graph, IFeatureVertex source) {
-		if (processedSources.contains(source)) {
-			return;
+	/**
+	 * A pending feature vertex of the feature dependency graph, with its included features, imports and plug-ins, and
+	 * the index of the next one to process.
+	 */
+	private static final class FeatureFrame {
+		final IFeatureVertex source;
+		final IFeatureChild[] children;
+		final IFeatureImport[] imports;
+		final IFeaturePlugin[] plugins;
+		int nextChild = 0;
+		int nextImport = 0;
+		int nextPlugin = 0;
+		FeatureFrame(IFeatureVertex source) {
+			this.source = source;
+			IFeature theFeature = source.getCorrespondingFeature();
+			this.children = theFeature.getIncludedFeatures();
+			this.imports = theFeature.getImports();
+			this.plugins = theFeature.getPlugins();
 		}
-		processedSources.add(source);
-		
-		IFeature theFeature = source.getCorrespondingFeature();
-		
-		// Process the current feature's references to other features ("Included Features" tab).
-		IFeatureChild[] children = theFeature.getIncludedFeatures();
-		for (int i = 0; i < children.length; i++) {
-			IFeatureVertex vertex = processIncludedFeatureDependency(graph, source, children[i]);
-			if (vertex != null) {
-				buildFeatureGraph(graph, vertex);
-			}
+	}
+	
+	/**
+	 * A pending plug-in vertex of the feature dependency graph, with its dependencies and the index of the next 
+	 * dependency to process.
+	 */
+	private static final class PluginFrame {
+		final IPluginVertex source;
+		final Object[] deps;
+		int next = 0;
+		PluginFrame(IPluginVertex source, Object[] deps) {
+			this.source = source;
+			this.deps = deps;
 		}
-		
-		// Process the current feature's required features/plug-ins ("Dependencies" tab).
-		IFeatureImport[] imports = theFeature.getImports();
-		for (int i = 0; i < imports.length; i++) {
-			IFeatureImport fi = imports[i];
-			if (fi.getType() == IFeatureImport.FEATURE) {
-				IFeatureVertex vertex = processRequiredFeatureDependency(graph, source, fi);
+	}
+	
+	/**
+	 * Computes and adds all feature and plug-in dependencies/edges from the specified <code>root</code> feature vertex.
+	 * 
+	 * <p>
+	 * The dependencies are walked depth first, in the same order as a recursive walk would, but the pending vertices 
+	 * are kept on an explicit stack so that long dependency chains cannot overflow the call stack.
+	 * </p>
+	 * 
+	 * @param graph   the feature dependency <code>DiGraph</code>
+	 * @param root    the root <code>IFeatureVertex</code> of the graph
+	 * @param monitor the progress monitor checked between the dependencies, the walk stopping once it is cancelled
+	 */
+	private void buildFeatureGraph(DiGraph graph, IFeatureVertex root, IProgressMonitor monitor) {
+		List stack = new ArrayList();//List<FeatureFrame|PluginFrame>
+		pushFeature(stack, root);
+		while (!stack.isEmpty() && !monitor.isCanceled()) {
+			Object top = stack.get(stack.size() - 1);
+			if (top instanceof PluginFrame) {
+				PluginFrame frame = (PluginFrame) top;
+				if (frame.next == frame.deps.length) {
+					stack.remove(stack.size() - 1);
+					continue;
+				}
+				IPDEDependencyVertex vertex = findOrCreateDependencyVertex(frame.deps[frame.next++]);
+				if (vertex != null) {
+					graph.addEdge(frame.source, vertex);
+					if (vertex instanceof IPluginVertex) {
+						pushPlugin(stack, (IPluginVertex) vertex);
+					}
+				}
+				continue;
+			}
+			
+			FeatureFrame frame = (FeatureFrame) top;
+			if (frame.nextChild < frame.children.length) {
+				// Process the current feature's references to other features ("Included Features" tab).
+				IFeatureVertex vertex = processIncludedFeatureDependency(graph, frame.source, frame.children[frame.nextChild++]);
+				if (vertex != null) {
+					pushFeature(stack, vertex);
+				}
+			}
+			else if (frame.nextImport < frame.imports.length) {
+				// Process the current feature's required features/plug-ins ("Dependencies" tab).
+				IFeatureImport fi = frame.imports[frame.nextImport++];
+				if (fi.getType() == IFeatureImport.FEATURE) {
+					IFeatureVertex vertex = processRequiredFeatureDependency(graph, frame.source, fi);
+					if (vertex != null) {
+						pushFeature(stack, vertex);
+					}
+				}
+				else if (fi.getType() == IFeatureImport.PLUGIN) {
+					IPluginVertex vertex = processRequiredPluginDependencies(graph, frame.source, fi);
+					if (vertex != null) {
+						pushPlugin(stack, vertex);
+					}
+				}
+			}
+			else if (frame.nextPlugin < frame.plugins.length) {
+				// Process the current feature's plug-ins and fragments ("Plug-ins" tab).
+				IPluginVertex vertex = processFeaturePluginDependencies(graph, frame.source, frame.plugins[frame.nextPlugin++]);
 				if (vertex != null) {
-					buildFeatureGraph(graph, vertex);
+					pushPlugin(stack, vertex);
 				}
 			}
-			else if (fi.getType() == IFeatureImport.PLUGIN) {
-				processRequiredPluginDependencies(graph, source, fi);
+			else {
+				stack.remove(stack.size() - 1);
 			}
 		}
-		
-		// Process the current feature's plug-ins and fragments ("Plug-ins" tab).
-		IFeaturePlugin[] plugins = theFeature.getPlugins();
-		for (int i = 0; i < plugins.length; i++) {
-			processFeaturePluginDependencies(graph, source, plugins[i]);
+	}
+	
+	private void pushFeature(List stack, IFeatureVertex source) {
+		if (processedSources.contains(source)) {
+			return;
+		}
+		processedSources.add(source);
+		stack.add(new FeatureFrame(source));
+	}
+	
+	private void pushPlugin(List stack, IPluginVertex source) {
+		if (processedSources.contains(source)) {
+			return;
 		}
+		processedSources.add(source);
+		long start = System.nanoTime();
+		Object[] deps = AnalysisUtil.getDependencies(source.getModelObject());
+		timings.add(GraphBuildTimings.DEPENDENCIES, System.nanoTime() - start);
+		stack.add(new PluginFrame(source, deps));
 	}
 	
 	/**
@@ -230,7 +337,9 @@ public final class FeatureDependencyHelper {
 			return null;
 		}
 		
-		IFeatureModel featureModel = PDECore.getDefault().getFeatureModelManager().findFeatureModel(id, version);
+		long start = System.nanoTime();
+		IFeatureModel featureModel = modelLookupCache.findFeatureModel(id, version);
+		timings.add(GraphBuildTimings.MODEL_LOOKUPS, System.nanoTime() - start);
 		if (featureModel == null) {
 			internalAddFeatureDependencyErrorVertex(graph, source, child, new VertexCacheKey(id, version));
 			return null;
@@ -238,9 +347,10 @@ public final class FeatureDependencyHelper {
 		
 		IFeature correspondingFeature = featureModel.getFeature();
 		String fVersion = safeVersion(correspondingFeature.getVersion());
-		IFeatureVertex vertex = findFeatureVertexMatchingIdAndVersion(graph, id, fVersion);
+		IFeatureVertex vertex = findFeatureVertexMatchingIdAndVersion(id, fVersion);
 		if (vertex == null) {
 			vertex = new FeatureVertex(child, id, fVersion, correspondingFeature);
+			cacheFeatureVertex(vertex);
 		}
 		graph.addEdge(source, vertex);	
 		return vertex;
@@ -274,15 +384,18 @@ public final class FeatureDependencyHelper {
 		}		
 		
 		IFeatureVertex vertex = null;
-		IFeature correspondingFeature = ((FeatureImport)featureImport).findFeature(id, version, featureImport.getMatch());
+		long start = System.nanoTime();
+		IFeature correspondingFeature = modelLookupCache.findFeature(featureImport);
+		timings.add(GraphBuildTimings.MODEL_LOOKUPS, System.nanoTime() - start);
 		if (correspondingFeature == null) {
 			internalAddFeatureDependencyErrorVertex(graph, source, featureImport, new VertexCacheKey(id, version));
 		}
 		else {
 			String fVersion = safeVersion(correspondingFeature.getVersion());
-			vertex = findFeatureVertexMatchingIdAndVersion(graph, id, fVersion);
+			vertex = findFeatureVertexMatchingIdAndVersion(id, fVersion);
 			if (vertex == null) {
 				vertex = new FeatureVertex(featureImport, id, fVersion, correspondingFeature);
+				cacheFeatureVertex(vertex);
 			}
 			graph.addEdge(source, vertex);
 		}			
@@ -301,8 +414,8 @@ public final class FeatureDependencyHelper {
 	/**
 	 * Adds a dependency/edge between the specified <code>source</code> feature vertex, and an <code>IPluginVertex</code> 
 	 * representing the provided required plug-in <code>featureImport</code>, if and only if the plugin registry contains a 
-	 * model matching the corresponding id, version, and match rule. Further dependencies of the representative plugin vertex 
-	 * will also be computed and added to <code>graph</code> automatically.
+	 * model matching the corresponding id, version, and match rule. The further dependencies of the representative plugin vertex 
+	 * have to be computed and added to <code>graph</code> by the caller.
 	 *  
 	 * <p>
 	 * If a model cannot be found, then a <code>UnresolvedModelVertex</code> will be added to <code>graph</code>, with an 
@@ -313,10 +426,13 @@ public final class FeatureDependencyHelper {
 	 * @param source         the source <code>IFeatureVertex</code> from which the dependency/edge will be created from
 	 * @param requiredPlugin the <code>IFeatureImport</code> representing the required plug-in to process
 	 * 
-	 * @see #calculateAndAddPluginDependencies(DiGraph, IPluginVertex)
+	 * @return the <code>IPluginVertex</code> representing the required plug-in that has been connected to <code>source</code>,
+	 * or <code>null</code> if no model matching the corresponding id, version, and match rule could be found.
 	 */
-	private void processRequiredPluginDependencies(DiGraph graph, IFeatureVertex source, IFeatureImport featureImport) {
-		IPluginModelBase matchingPluginModel = PluginRegistry.findModel(featureImport.getId(), featureImport.getVersion(), featureImport.getMatch(), null);
+	private IPluginVertex processRequiredPluginDependencies(DiGraph graph, IFeatureVertex source, IFeatureImport featureImport) {
+		long start = System.nanoTime();
+		IPluginModelBase matchingPluginModel = modelLookupCache.findPluginModel(featureImport.getId(), featureImport.getVersion(), featureImport.getMatch());
+		timings.add(GraphBuildTimings.MODEL_LOOKUPS, System.nanoTime() - start);
 		if (matchingPluginModel == null) {
 			// Note that if the version is in fact null, then this implies that a model with the corresponding id could not
 			// be found (i.e. version + match rule were never even considered during the search), so we need to make sure that
@@ -336,19 +452,20 @@ public final class FeatureDependencyHelper {
 				IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
 				if (vertex == null) {
 					vertex = new PluginVertex(bd);
-					pluginVertexCache.put(key, vertex);
+					cachePluginVertex(key, vertex);
 				}
 				graph.addEdge(source, vertex);
-				calculateAndAddPluginDependencies(graph, vertex);
+				return vertex;
 			}
 		}
+		return null;
 	}
 
 	/**
 	 * Adds a dependency/edge between the specified <code>source</code> feature vertex, and an <code>IPluginVertex</code> 
 	 * representing the provided feature <code>plugin</code>, if and only if the plugin registry contains a model matching 
-	 * the corresponding id, and version. Further dependencies of the representative plugin vertex will also be computed 
-	 * and added to <code>graph</code> automatically.
+	 * the corresponding id, and version. The further dependencies of the representative plugin vertex have to be computed 
+	 * and added to <code>graph</code> by the caller.
 	 *  
 	 * <p>
 	 * If a model cannot be found, then a <code>UnresolvedModelVertex</code> will be added to <code>graph</code>, with an 
@@ -365,20 +482,23 @@ public final class FeatureDependencyHelper {
 	 * @param source the source <code>IFeatureVertex</code> from which the dependency/edge will be created from
 	 * @param plugin the <code>IFeaturePlugin</code> to process
 	 * 
-	 * @see #calculateAndAddPluginDependencies(DiGraph, IPluginVertex)
+	 * @return the <code>IPluginVertex</code> representing the feature plug-in that has been connected to <code>source</code>,
+	 * or <code>null</code> if no model matching the corresponding id, and version could be found.
 	 */
-	private void processFeaturePluginDependencies(DiGraph graph, IFeatureVertex source, IFeaturePlugin plugin) {
+	private IPluginVertex processFeaturePluginDependencies(DiGraph graph, IFeatureVertex source, IFeaturePlugin plugin) {
 		String id = plugin.getId();
 		
 		// If the version is not specified, then we must treat this as error since version is mandatory for feature plug-ins.
 		String version = plugin.getVersion();
 		if (version == null || version.trim().length() == 0) {
 			internalAddFeaturePluginErrorVertex(graph, source, plugin, new VertexCacheKey(id, "")); //$NON-NLS-1$
-			return;
+			return null;
 		}
 		
 		int matchRules = (Version.emptyVersion.toString().equals(version) ? IMatchRules.GREATER_OR_EQUAL : IMatchRules.PERFECT);
-		IPluginModelBase matchingPluginModel = PluginRegistry.findModel(id, version, matchRules, null);
+		long start = System.nanoTime();
+		IPluginModelBase matchingPluginModel = modelLookupCache.findPluginModel(id, version, matchRules);
+		timings.add(GraphBuildTimings.MODEL_LOOKUPS, System.nanoTime() - start);
 		if (matchingPluginModel == null) {
 			internalAddFeaturePluginErrorVertex(graph, source, plugin, new VertexCacheKey(id, safeVersion(version)));
 		}
@@ -389,12 +509,13 @@ public final class FeatureDependencyHelper {
 				IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
 				if (vertex == null) {
 					vertex = new PluginVertex(bd);
-					pluginVertexCache.put(key, vertex);
+					cachePluginVertex(key, vertex);
 				}
 				graph.addEdge(source, vertex);
-				calculateAndAddPluginDependencies(graph, vertex);
+				return vertex;
 			}
 		}
+		return null;
 	}
 
 	private void internalAddFeaturePluginErrorVertex(DiGraph graph, IFeatureVertex source, IFeaturePlugin plugin, VertexCacheKey key) {
@@ -409,62 +530,53 @@ public final class FeatureDependencyHelper {
 	}
 	
 	/**
-	 * Computes and adds all plug-in dependencies/edges from the specified <code>source</code> plug-in vertex. Further dependencies 
-	 * of the representative plug-in vertex will also be computed and added to <code>graph</code> automatically.
+	 * Returns the (cached) vertex representing the specified plug-in dependency: an <code>IPluginVertex</code> for a resolved
+	 * or an optional bundle, an <code>UnresolvedModelVertex</code> for a mandatory unresolved bundle, or <code>null</code> for
+	 * any other dependency.
 	 * 
-	 * @param graph  the feature dependency <code>DiGraph</code>
-	 * @param source the source <code>IPluginVertex</code> from which the plug-in dependencies/edges will be created
+	 * @param dep the dependency, as returned by <code>AnalysisUtil.getDependencies(Object)</code>
+	 * 
+	 * @return the (cached) vertex representing the specified plug-in dependency.
 	 * 
 	 * @see {@link org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil#getDependencies(Object)}
 	 */
-	private void calculateAndAddPluginDependencies(DiGraph graph, IPluginVertex source) {
-		if (processedSources.contains(source)) {
-			return;
+	private IPDEDependencyVertex findOrCreateDependencyVertex(Object dep) {
+		if (dep instanceof BaseDescription) {
+			BaseDescription bd = (BaseDescription) dep;
+			VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
+			IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
+			if (vertex == null) {
+				vertex = new PluginVertex(dep);
+				cachePluginVertex(key, vertex);
+			}
+			return vertex;
 		}
-		processedSources.add(source);
-		
-		Object[] deps = AnalysisUtil.getDependencies(source.getModelObject());
-		for (int i = 0; i < deps.length; i++) {
-			Object dep = deps[i];
-			if (dep instanceof BaseDescription) {
-				BaseDescription bd = (BaseDescription) dep;
-				VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
-				IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
-				if (vertex == null) {
-					vertex = new PluginVertex(dep);
-					pluginVertexCache.put(key, vertex);
+		else if (dep instanceof BundleSpecification) { // Unresolved bundle
+			BundleSpecification bs = (BundleSpecification) dep;
+			if (bs.isOptional()){ // add as a IPluginVertex because it is optional
+				VersionRange range = bs.getVersionRange();
+				if (range == null) {
+					range = VersionRange.emptyRange;
 				}
-				graph.addEdge(source, vertex);
-				calculateAndAddPluginDependencies(graph, vertex);
-			}
-			else if (dep instanceof BundleSpecification) { // Unresolved bundle
-				BundleSpecification bs = (BundleSpecification) dep;
-				if (bs.isOptional()){ // add as a IPluginVertex because it is optional
-					VersionRange range = bs.getVersionRange();
-					if (range == null) {
-						range = VersionRange.emptyRange;
-					}
-					
-					IPluginVertex vertex = findPluginVertexMatchingIdAndVersionRange(bs.getName(), range);
-					if (vertex == null) {
-						vertex = new PluginVertex(bs);
-						VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
-						pluginVertexCache.put(key, vertex);
-					}
-					graph.addEdge(source, vertex);
-					calculateAndAddPluginDependencies(graph, vertex);
-				} 
-				else { // add as a UnresolvedModelVertex because is a mandatory bundle.
-					VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : safeVersion(bs.getBundle().getVersion().toString())); //$NON-NLS-1$
-					UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) pluginErrorVertexCache.get(key);
-					if (errorVertex == null) {
-						errorVertex = new UnresolvedModelVertex(bs, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
-						pluginErrorVertexCache.put(key, errorVertex);
-					}
-					graph.addEdge(source, errorVertex);
+				
+				IPluginVertex vertex = findPluginVertexMatchingIdAndVersionRange(bs.getName(), range);
+				if (vertex == null) {
+					vertex = new PluginVertex(bs);
+					VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
+					cachePluginVertex(key, vertex);
 				}
+				return vertex;
+			} 
+			// add as a UnresolvedModelVertex because is a mandatory bundle.
+			VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : safeVersion(bs.getBundle().getVersion().toString())); //$NON-NLS-1$
+			UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) pluginErrorVertexCache.get(key);
+			if (errorVertex == null) {
+				errorVertex = new UnresolvedModelVertex(bs, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
+				pluginErrorVertexCache.put(key, errorVertex);
 			}
+			return errorVertex;
 		}
+		return null;
 	}
 	
 }
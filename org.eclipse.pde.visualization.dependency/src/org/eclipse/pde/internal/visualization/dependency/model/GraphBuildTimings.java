@@ -0,0 +1,103 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+
+/**
+ * Breakdown of the time spent building a dependency graph.
+ * <p>
+ * The graph builders accumulate the time spent computing the dependencies of the vertices
+ * ({@link #DEPENDENCIES}), and looking up the feature and plug-in models ({@link #MODEL_LOOKUPS}); the time left
+ * over from the total build time ({@link #GRAPH_ASSEMBLY}) is spent creating the vertices and the edges of the graph.
+ * The timings of every build are traced when the <code>debug/timings</code> option is on.
+ * </p>
+ */
+public final class GraphBuildTimings {
+
+	/** Phase computing the dependencies (or dependents) of the vertices. */
+	public static final int DEPENDENCIES = 0;
+
+	/** Phase looking up the feature and plug-in models. */
+	public static final int MODEL_LOOKUPS = 1;
+
+	/** Phase creating the vertices and the edges of the graph (the remainder of the total build time). */
+	public static final int GRAPH_ASSEMBLY = 2;
+
+	private static final String[] PHASE_NAMES = { "dependencies", "model lookups", "graph assembly" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	private final long[] phaseNanos = new long[2];
+	private long totalNanos = 0;
+
+	/**
+	 * Adds the specified duration to the specified measured <code>phase</code>.
+	 *
+	 * @param phase the phase ({@link #DEPENDENCIES} or {@link #MODEL_LOOKUPS})
+	 * @param nanos the duration, in nanoseconds
+	 */
+	public void add(int phase, long nanos) {
+		phaseNanos[phase] += nanos;
+	}
+
+	/**
+	 * Adds the specified duration to the total build time.
+	 *
+	 * @param nanos the duration, in nanoseconds
+	 */
+	public void addTotal(long nanos) {
+		totalNanos += nanos;
+	}
+
+	/**
+	 * Returns the time spent in the specified <code>phase</code>, in nanoseconds.
+	 *
+	 * @param phase the phase ({@link #DEPENDENCIES}, {@link #MODEL_LOOKUPS} or {@link #GRAPH_ASSEMBLY})
+	 *
+	 * @return the time spent in the specified <code>phase</code>, in nanoseconds.
+	 */
+	public long getNanos(int phase) {
+		if (phase == GRAPH_ASSEMBLY) {
+			return Math.max(0, totalNanos - phaseNanos[DEPENDENCIES] - phaseNanos[MODEL_LOOKUPS]);
+		}
+		return phaseNanos[phase];
+	}
+
+	/**
+	 * Returns the total build time, in nanoseconds.
+	 * @return the total build time, in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Resets all the timings to zero.
+	 */
+	public void reset() {
+		phaseNanos[DEPENDENCIES] = phaseNanos[MODEL_LOOKUPS] = 0;
+		totalNanos = 0;
+	}
+
+	/**
+	 * Traces the timings of the specified <code>graph</code> build, if the <code>debug/timings</code> option is on.
+	 *
+	 * @param graph the name of the graph built
+	 */
+	public void trace(String graph) {
+		if (Activator.DEBUG_TIMINGS) {
+			Activator.trace(graph + " built: " + this); //$NON-NLS-1$
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("total ").append(totalNanos / 1000000).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int phase = DEPENDENCIES; phase <= GRAPH_ASSEMBLY; phase++) {
+			buffer.append(", ").append(PHASE_NAMES[phase]).append(' ').append(getNanos(phase) / 1000000).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return buffer.toString();
+	}
+
+}
@@ -0,0 +1,168 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.pde.core.plugin.IPluginModelBase;
+import org.eclipse.pde.core.plugin.PluginRegistry;
+import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.core.feature.FeatureImport;
+import org.eclipse.pde.internal.core.ifeature.IFeature;
+import org.eclipse.pde.internal.core.ifeature.IFeatureImport;
+import org.eclipse.pde.internal.core.ifeature.IFeatureModel;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+
+/**
+ * Per-build cache of the feature model and plug-in registry lookups made while building a feature dependency graph.
+ * <p>
+ * The lookups are delegated to the feature model manager and to the <code>PluginRegistry</code>, and memoized by
+ * (id, version, match rule), including the lookups that do not find any model, so a plug-in or a feature referenced
+ * from many features is resolved only once per build. The number of lookups answered from the memo (hits) and
+ * delegated to PDE (misses) is traced when the <code>debug/caches</code> option is on.
+ * </p>
+ * <p>
+ * The cache does not track changes of the models, and must not be kept beyond the build it was created for.
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class PDEModelLookupCache {
+
+	/** Memo value of the lookups that did not find any model. */
+	private static final Object NO_MODEL = new Object();
+
+	private static final int FEATURE_MODEL = 0;
+	private static final int FEATURE = 1;
+	private static final int PLUGIN_MODEL = 2;
+
+	/** Map of <code>LookupKey</code> to the model found (or <code>NO_MODEL</code>). */
+	private final Map lookups = new HashMap(0);
+
+	private int hits = 0;
+	private int misses = 0;
+
+	/**
+	 * The key of a memoized lookup: its kind, and the id, version, and match rule looked up.
+	 */
+	private static final class LookupKey {
+		private final int kind;
+		private final String id;
+		private final String version;
+		private final int match;
+		public LookupKey(int kind, String id, String version, int match) {
+			this.kind = kind;
+			this.id = id;
+			this.version = version;
+			this.match = match;
+		}
+		public int hashCode() {
+			final int prime = 31;
+			int result = prime + kind;
+			result = prime * result + (id == null ? 0 : id.hashCode());
+			result = prime * result + (version == null ? 0 : version.hashCode());
+			result = prime * result + match;
+			return result;
+		}
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof LookupKey)) {
+				return false;
+			}
+			LookupKey other = (LookupKey) obj;
+			return (kind == other.kind && match == other.match
+					&& (id == null ? other.id == null : id.equals(other.id))
+					&& (version == null ? other.version == null : version.equals(other.version)));
+		}
+	}
+
+	/**
+	 * Returns the feature model with the specified <code>id</code>, and <code>version</code>, or <code>null</code> if no
+	 * match.
+	 *
+	 * @param id      the feature id to match
+	 * @param version the feature version to match
+	 *
+	 * @return the feature model with the specified <code>id</code>, and <code>version</code>, or <code>null</code> if no match.
+	 *
+	 * @see org.eclipse.pde.internal.core.FeatureModelManager#findFeatureModel(String, String)
+	 */
+	public IFeatureModel findFeatureModel(String id, String version) {
+		LookupKey key = new LookupKey(FEATURE_MODEL, id, version, 0);
+		Object model = lookups.get(key);
+		if (model == null) {
+			model = PDECore.getDefault().getFeatureModelManager().findFeatureModel(id, version);
+			lookups.put(key, (model == null ? NO_MODEL : model));
+			misses++;
+		}
+		else {
+			hits++;
+		}
+		return (model == NO_MODEL ? null : (IFeatureModel) model);
+	}
+
+	/**
+	 * Returns the feature required by the specified <code>featureImport</code>, i.e. the first feature with its id whose
+	 * version matches its version according to its match rule, or <code>null</code> if no match.
+	 *
+	 * @param featureImport the required feature to look up
+	 *
+	 * @return the feature required by the specified <code>featureImport</code>, or <code>null</code> if no match.
+	 *
+	 * @see org.eclipse.pde.internal.core.feature.FeatureImport#findFeature(String, String, int)
+	 */
+	public IFeature findFeature(IFeatureImport featureImport) {
+		String id = featureImport.getId();
+		String version = featureImport.getVersion();
+		int match = featureImport.getMatch();
+		LookupKey key = new LookupKey(FEATURE, id, version, match);
+		Object feature = lookups.get(key);
+		if (feature == null) {
+			feature = ((FeatureImport) featureImport).findFeature(id, version, match);
+			lookups.put(key, (feature == null ? NO_MODEL : feature));
+			misses++;
+		}
+		else {
+			hits++;
+		}
+		return (feature == NO_MODEL ? null : (IFeature) feature);
+	}
+
+	/**
+	 * Returns the plug-in model the <code>PluginRegistry</code> finds for the specified <code>id</code>, <code>version</code>
+	 * and <code>match</code> rule, or <code>null</code> if no match.
+	 *
+	 * @param id      the plug-in id to match
+	 * @param version the plug-in version to match, or <code>null</code> to match any version
+	 * @param match   the match rule (see <code>IMatchRules</code>)
+	 *
+	 * @return the plug-in model the <code>PluginRegistry</code> finds for the specified <code>id</code>, <code>version</code>
+	 * and <code>match</code> rule, or <code>null</code> if no match.
+	 *
+	 * @see PluginRegistry#findModel(String, String, int, org.eclipse.pde.core.plugin.PluginRegistry.PluginFilter)
+	 */
+	public IPluginModelBase findPluginModel(String id, String version, int match) {
+		LookupKey key = new LookupKey(PLUGIN_MODEL, id, version, match);
+		Object model = lookups.get(key);
+		if (model == null) {
+			model = PluginRegistry.findModel(id, version, match, null);
+			lookups.put(key, (model == null ? NO_MODEL : model));
+			misses++;
+		}
+		else {
+			hits++;
+		}
+		return (model == NO_MODEL ? null : (IPluginModelBase) model);
+	}
+
+	/**
+	 * Traces the number of lookups answered from the memo and delegated to PDE, if the <code>debug/caches</code>
+	 * option is on.
+	 */
+	public void trace() {
+		if (Activator.DEBUG_CACHES) {
+			Activator.trace("Model lookups: " + hits + " hits, " + misses + " misses"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+}
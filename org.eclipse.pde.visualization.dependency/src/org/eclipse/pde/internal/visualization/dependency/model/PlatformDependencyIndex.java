@@ -0,0 +1,508 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.BundleSpecification;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.osgi.service.resolver.StateDelta;
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
+import org.osgi.framework.Version;
+
+/**
+ * Dependency index of all the bundles of a resolver <code>State</code>, answering the dependencies and the callers
+ * (the dependents) of the bundles.
+ * <p>
+ * Every bundle of the state, and every other dependency of these bundles (the <code>BundleSpecification</code>s of
+ * their unresolved required bundles), is given a dense id: the bundles of the state come first. The dependencies
+ * ({@link AnalysisUtil#getDependencies(Object)}) of every bundle, and their transpose, the callers of every bundle
+ * and dependency, are stored in compressed <code>int</code> adjacency arrays. The index is built once per state and
+ * state time stamp (see {@link #getIndex(State)}), and then answers the callers of a bundle, its transitive callers,
+ * and the dependency graph of a root bundle (or its reversed callers graph), as the slice of the index reachable from
+ * the root, in time proportional to the size of the answer.
+ * </p>
+ * <p>
+ * When the state is resolved again, the resolutions recorded with {@link #stateResolved(StateDelta)} tell which
+ * bundles changed: the index of the new time stamp then only computes the dependencies of the changed bundles, and of
+ * the bundles depending on a changed bundle that was removed or replaced, and takes those of the other bundles from
+ * the previous index. Without the deltas of all the resolutions since the previous index, every dependency is
+ * computed again.
+ * </p>
+ * <p>
+ * The vertices of the bundles are shared by all the slices; the vertices of the unresolved dependencies (optional
+ * bundles, and error vertices for mandatory ones) are created for every slice. The index of every state asked for
+ * is kept (softly referenced, so that the states can still be collected) until {@link #release()} is called, and the
+ * index of a state is built under a lock of its own, so the indexes of different states are built independently.
+ * </p>
+ */
+public final class PlatformDependencyIndex {
+
+	/** Map of the states asked for to their <code>IndexEntry</code>, weakly keyed so the states can be collected. */
+	private static final Map entries = new WeakHashMap(4);
+
+	/* The index of a state, the changes of the state since the index, and the lock it is built under */
+	private static final class IndexEntry {
+		SoftReference index = null;//SoftReference<PlatformDependencyIndex>
+		final StateChanges changes = new StateChanges(-1);
+	}
+
+	private final long timeStamp;
+
+	/** The number of bundles whose dependencies were computed, the others were taken from the previous index. */
+	private int computed = 0;
+
+	/** The bundles of the state, then the other dependencies, by dense id. */
+	private final Object[] nodes;
+
+	/** The number of bundles of the state: the ids of the bundles range from <code>0</code> to <code>numberOfBundles - 1</code>. */
+	private final int numberOfBundles;
+
+	/** Map of an indexed bundle or dependency to its dense id (<code>Integer</code>). */
+	private final Map ids;
+
+	/** The vertices of the bundles, by dense id. */
+	private final IPluginVertex[] vertices;
+
+	/** Dependencies of the bundles. */
+	private final int[] dependencyOffsets;
+	private final int[] dependencies;
+
+	/** Callers of the bundles and dependencies. */
+	private final int[] callerOffsets;
+	private final int[] callers;
+
+	/** Work tables of the slices: a bundle has been reached by the current slice if its stamp is the current one. */
+	private final int[] stamps;
+	private final int[] queue;
+	private int stamp = 0;
+
+	/**
+	 * Returns the dependency index of the specified <code>state</code>, building it if it was not built for the current
+	 * time stamp of the state.
+	 *
+	 * @param state the resolver state
+	 *
+	 * @return the dependency index of the specified <code>state</code>.
+	 * @throws IllegalArgumentException if the <code>state</code> is <code>null</code>
+	 */
+	public static PlatformDependencyIndex getIndex(State state) {
+		if (state == null) {
+			throw new IllegalArgumentException("The 'state' cannot be null"); //$NON-NLS-1$
+		}
+		IndexEntry entry;
+		synchronized (entries) {
+			entry = (IndexEntry) entries.get(state);
+			if (entry == null) {
+				entry = new IndexEntry();
+				entries.put(state, entry);
+			}
+		}
+		synchronized (entry) {
+			PlatformDependencyIndex index = (entry.index == null ? null : (PlatformDependencyIndex) entry.index.get());
+			long timeStamp = state.getTimeStamp();
+			if (index == null || index.timeStamp != timeStamp) {
+				Set changed = entry.changes.restart(index == null ? -1 : index.timeStamp, timeStamp);
+				index = new PlatformDependencyIndex(state, timeStamp, (changed == null ? null : index), changed);
+				entry.index = new SoftReference(index);
+				if (Activator.DEBUG_CACHES) {
+					Activator.trace("Dependency index built: " + index.computed + " of " + index.numberOfBundles + " bundles computed"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Records the bundles changed by a resolution of a state, so that the next index of the state only computes the
+	 * dependencies of the bundles affected by the changes. The index must be told of every resolution: an index
+	 * is built from the previous one only if the deltas of all the resolutions since the previous one were recorded.
+	 *
+	 * @param delta the delta of the resolution
+	 */
+	public static void stateResolved(StateDelta delta) {
+		if (delta == null) {
+			return;
+		}
+		State state = delta.getState();
+		IndexEntry entry;
+		synchronized (entries) {
+			entry = (IndexEntry) entries.get(state);
+		}
+		if (entry != null) {
+			entry.changes.record(delta, state.getTimeStamp());
+		}
+	}
+
+	/**
+	 * Releases the indexes of all the states asked for.
+	 */
+	public static void release() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/*
+	 * Builds the index of the specified state, taking the dependencies of the bundles not affected by the changed
+	 * bundles from the previous index, if any.
+	 */
+	private PlatformDependencyIndex(State state, long timeStamp, PlatformDependencyIndex previous, Set changed) {
+		this.timeStamp = timeStamp;
+
+		// the bundles of the state, then the other dependencies as they are found
+		BundleDescription[] bundles = state.getBundles();
+		int n = bundles.length;
+		numberOfBundles = n;
+		List indexed = new ArrayList(n);//List<Object>
+		ids = new HashMap(n * 2);
+		vertices = new IPluginVertex[n];
+		for (int i = 0; i < n; i++) {
+			ids.put(bundles[i], new Integer(i));
+			indexed.add(bundles[i]);
+			int p = (previous == null ? -1 : previous.getId(bundles[i]));
+			vertices[i] = (p >= 0 && p < previous.numberOfBundles ? previous.vertices[p] : new PluginVertex(bundles[i]));
+		}
+
+		int[] targets = new int[n * 4 + 16];
+		dependencyOffsets = new int[n + 1];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			dependencyOffsets[i] = count;
+			Object[] deps = (previous == null ? null : previous.getUnchangedDependencies(state, bundles[i], changed));
+			if (deps == null) {
+				deps = AnalysisUtil.getDependencies(bundles[i]);
+				computed++;
+			}
+			for (int j = 0; j < deps.length; j++) {
+				if (deps[j] == null) {
+					continue;
+				}
+				Integer id = (Integer) ids.get(deps[j]);
+				if (id == null) {
+					id = new Integer(indexed.size());
+					ids.put(deps[j], id);
+					indexed.add(deps[j]);
+				}
+				if (count == targets.length) {
+					targets = Arrays.copyOf(targets, count * 2);
+				}
+				targets[count++] = id.intValue();
+			}
+		}
+		dependencyOffsets[n] = count;
+		dependencies = Arrays.copyOf(targets, count);
+		nodes = indexed.toArray();
+
+		// the callers are the transpose of the dependencies (counting sort of the edges by target)
+		int size = nodes.length;
+		callerOffsets = new int[size + 1];
+		for (int k = 0; k < count; k++) {
+			callerOffsets[dependencies[k] + 1]++;
+		}
+		for (int i = 0; i < size; i++) {
+			callerOffsets[i + 1] += callerOffsets[i];
+		}
+		int[] next = Arrays.copyOf(callerOffsets, size);
+		callers = new int[count];
+		for (int i = 0; i < n; i++) {
+			for (int k = dependencyOffsets[i]; k < dependencyOffsets[i + 1]; k++) {
+				callers[next[dependencies[k]]++] = i;
+			}
+		}
+
+		stamps = new int[n];
+		queue = new int[n];
+	}
+
+	/*
+	 * Returns the dependencies of the specified bundle in this index, or null if the bundle is not indexed, if it is one
+	 * of the changed bundles, or if one of its dependencies is a changed bundle that is no longer in the state.
+	 */
+	private Object[] getUnchangedDependencies(State state, BundleDescription bundle, Set changed) {
+		int v = getId(bundle);
+		if (v < 0 || v >= numberOfBundles || changed.contains(new Long(bundle.getBundleId()))) {
+			return null;
+		}
+		Object[] deps = new Object[dependencyOffsets[v + 1] - dependencyOffsets[v]];
+		for (int k = dependencyOffsets[v]; k < dependencyOffsets[v + 1]; k++) {
+			Object dependency = nodes[dependencies[k]];
+			if (dependency instanceof BundleDescription) {
+				long id = ((BundleDescription) dependency).getBundleId();
+				if (changed.contains(new Long(id)) && state.getBundle(id) != dependency) {
+					return null;
+				}
+			}
+			deps[k - dependencyOffsets[v]] = dependency;
+		}
+		return deps;
+	}
+
+	/**
+	 * Returns the time stamp of the state this index was built from.
+	 * @return the time stamp of the state this index was built from
+	 */
+	public long getTimeStamp() {
+		return timeStamp;
+	}
+
+	/**
+	 * Returns the number of bundles whose dependencies were computed to build this index: the dependencies of the
+	 * other bundles were taken from the previous index of the state.
+	 * @return the number of bundles whose dependencies were computed to build this index
+	 */
+	public int numberOfComputedBundles() {
+		return computed;
+	}
+
+	/**
+	 * Returns the number of bundles in the index.
+	 * @return the number of bundles in the index
+	 */
+	public int numberOfBundles() {
+		return numberOfBundles;
+	}
+
+	/**
+	 * Returns the number of indexed bundles and dependencies: their dense ids range from <code>0</code> to
+	 * <code>size() - 1</code>.
+	 * @return the number of indexed bundles and dependencies
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the dense id of the specified bundle (or unresolved <code>BundleSpecification</code>), or <code>-1</code>
+	 * if it is not indexed.
+	 *
+	 * @param bundle the bundle
+	 *
+	 * @return the dense id of the specified bundle, or <code>-1</code> if it is not indexed.
+	 */
+	public int getId(Object bundle) {
+		Integer id = (Integer) ids.get(bundle);
+		return (id == null ? -1 : id.intValue());
+	}
+
+	/**
+	 * Returns the bundle (or unresolved <code>BundleSpecification</code>) with the specified dense id.
+	 *
+	 * @param id the dense id, from <code>0</code> to <code>size() - 1</code>
+	 *
+	 * @return the bundle with the specified dense id.
+	 */
+	public Object getBundle(int id) {
+		return nodes[id];
+	}
+
+	/**
+	 * Returns the bundles that directly depend on the specified bundle (or unresolved <code>BundleSpecification</code>).
+	 *
+	 * @param bundle the bundle
+	 *
+	 * @return the bundles that directly depend on the specified bundle, an empty array if it is not indexed.
+	 */
+	public Object[] getCallers(Object bundle) {
+		int v = getId(bundle);
+		if (v < 0) {
+			return new Object[0];
+		}
+		Set found = new HashSet(callerOffsets[v + 1] - callerOffsets[v]);
+		for (int k = callerOffsets[v]; k < callerOffsets[v + 1]; k++) {
+			found.add(nodes[callers[k]]);
+		}
+		return found.toArray();
+	}
+
+	/**
+	 * Returns the dense ids of the bundles that directly or indirectly depend on the specified bundle (or unresolved
+	 * <code>BundleSpecification</code>), including the bundle itself, or <code>null</code> if it is not indexed.
+	 *
+	 * @param bundle the bundle
+	 *
+	 * @return the dense ids of the transitive callers of the specified bundle, including the bundle itself, or
+	 * <code>null</code> if it is not indexed.
+	 */
+	public BitSet getAllCallerIds(Object bundle) {
+		int r = getId(bundle);
+		if (r < 0) {
+			return null;
+		}
+		BitSet reached = new BitSet(nodes.length);
+		int[] pending = new int[nodes.length];
+		int head = 0;
+		int tail = 0;
+		reached.set(r);
+		pending[tail++] = r;
+		while (head < tail) {
+			int v = pending[head++];
+			for (int k = callerOffsets[v]; k < callerOffsets[v + 1]; k++) {
+				int caller = callers[k];
+				if (!reached.get(caller)) {
+					reached.set(caller);
+					pending[tail++] = caller;
+				}
+			}
+		}
+		return reached;
+	}
+
+	/**
+	 * Returns the <code>Set</code> of the bundles that directly or indirectly depend on the specified bundle (or
+	 * unresolved <code>BundleSpecification</code>), including the bundle itself.
+	 *
+	 * @param bundle the bundle
+	 *
+	 * @return the unmodifiable <code>Set</code> of the transitive callers of the specified bundle, including the bundle
+	 * itself.
+	 */
+	public Set getAllCallers(Object bundle) {
+		BitSet reached = getAllCallerIds(bundle);
+		if (reached == null) {
+			return Collections.singleton(bundle);
+		}
+		Set found = new HashSet(reached.cardinality() * 2);
+		for (int i = reached.nextSetBit(0); i >= 0; i = reached.nextSetBit(i + 1)) {
+			found.add(nodes[i]);
+		}
+		return Collections.unmodifiableSet(found);
+	}
+
+	/**
+	 * Returns the dependency graph of the specified <code>root</code> plug-in vertex (or, if <code>reversed</code>, the
+	 * graph of its callers, with edges from the callers to the bundles they depend on), or <code>null</code> if the
+	 * model object of the root is not a bundle of this index.
+	 * <p>
+	 * The graph contains the <code>root</code> vertex itself, and the shared vertices of the other bundles reachable from
+	 * it. Optional unresolved bundles are matched by version range against the bundles of the graph, and mandatory
+	 * unresolved bundles are represented by <code>UnresolvedModelVertex</code>(s).
+	 * </p>
+	 *
+	 * @param root     the root plug-in vertex
+	 * @param reversed <code>true</code> for the graph of the callers of the root
+	 *
+	 * @return the dependency graph of the specified <code>root</code> plug-in vertex, or <code>null</code> if the model
+	 * object of the root is not a bundle of this index.
+	 */
+	public synchronized DiGraph createSlice(IPluginVertex root, boolean reversed) {
+		int r = getId(root.getModelObject());
+		if (r < 0 || r >= numberOfBundles) {
+			return null;
+		}
+		int[] offsets = (reversed ? callerOffsets : dependencyOffsets);
+		int[] targets = (reversed ? callers : dependencies);
+
+		// first pass: the bundles reachable from the root, in breadth-first order
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		int head = 0;
+		int tail = 0;
+		stamps[r] = stamp;
+		queue[tail++] = r;
+		while (head < tail) {
+			int v = queue[head++];
+			for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+				int w = targets[e];
+				if (w < numberOfBundles && stamps[w] != stamp) {
+					stamps[w] = stamp;
+					queue[tail++] = w;
+				}
+			}
+		}
+
+		// second pass: the edges of the reached bundles, in dependency order
+		PluginVertexIndex vertexIndex = null;
+		Map optionalVertexCache = null;
+		Map errorVertexCache = null;
+		DiGraph graph = new DiGraph();
+		graph.addVertex(root);
+		for (int i = 0; i < tail; i++) {
+			int v = queue[i];
+			IPluginVertex source = (v == r ? root : vertices[v]);
+			for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+				int w = targets[e];
+				if (w < numberOfBundles) {
+					IPluginVertex target = (w == r ? root : vertices[w]);
+					if (reversed) {
+						graph.addEdge(target, source);
+					}
+					else {
+						graph.addEdge(source, target);
+					}
+					continue;
+				}
+				if (!(nodes[w] instanceof BundleSpecification)) {
+					// not part of the state
+					continue;
+				}
+
+				BundleSpecification bs = (BundleSpecification) nodes[w];
+				if (bs.isOptional()) { // add as a IPluginVertex because it is optional
+					if (vertexIndex == null) {
+						vertexIndex = newVertexIndex(root, r, tail);
+						optionalVertexCache = new HashMap(0);
+					}
+					VersionRange range = bs.getVersionRange();
+					if (range == null) {
+						range = VersionRange.emptyRange;
+					}
+					IPluginVertex vertex = vertexIndex.find(bs.getName(), range);
+					if (vertex == null) {
+						VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
+						vertex = (IPluginVertex) optionalVertexCache.get(key);
+						if (vertex == null) {
+							vertex = new PluginVertex(bs);
+							optionalVertexCache.put(key, vertex);
+							vertexIndex.put(key.id, key.version, vertex);
+						}
+					}
+					graph.addEdge(source, vertex);
+				}
+				else { // add as a UnresolvedModelVertex because is a mandatory bundle.
+					if (errorVertexCache == null) {
+						errorVertexCache = new HashMap(0);
+					}
+					VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : bs.getBundle().getVersion().toString()); //$NON-NLS-1$
+					UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) errorVertexCache.get(key);
+					if (errorVertex == null) {
+						errorVertex = new UnresolvedModelVertex(bs, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
+						errorVertexCache.put(key, errorVertex);
+					}
+					graph.addEdge(source, errorVertex);
+				}
+			}
+		}
+		return graph;
+	}
+
+	/* Returns a version index of the bundles reached by the current slice (the first 'size' entries of the queue) */
+	private PluginVertexIndex newVertexIndex(IPluginVertex root, int r, int size) {
+		PluginVertexIndex vertexIndex = new PluginVertexIndex();
+		for (int i = 0; i < size; i++) {
+			int v = queue[i];
+			BundleDescription bd = (BundleDescription) nodes[v];
+			if (bd.getName() == null) {
+				continue;
+			}
+			String version = (bd.getVersion() == null ? Version.emptyVersion.toString() : bd.getVersion().toString());
+			vertexIndex.put(bd.getName(), version, (v == r ? root : vertices[v]));
+		}
+		return vertexIndex;
+	}
+
+}
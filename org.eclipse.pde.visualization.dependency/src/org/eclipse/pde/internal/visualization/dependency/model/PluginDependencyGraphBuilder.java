@@ -0,0 +1,302 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.osgi.service.resolver.BaseDescription;
+import org.eclipse.osgi.service.resolver.BundleSpecification;
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
+import org.eclipse.pde.internal.visualization.dependency.views.DependencyUtil;
+import org.osgi.framework.Version;
+
+/**
+ * Builds the plug-in dependency closure of a set of <code>IPluginVertex</code>(s) into a <code>DiGraph</code>.
+ * <p>
+ * The closure is expanded level by level (breadth first). The dependencies of all the vertices of a level are
+ * computed in parallel on the <code>ForkJoinPool</code> shared by the plug-in (see {@link Activator#getWorkerPool()}),
+ * and the vertices of the resolved dependencies are created through a concurrent vertex cache keyed by
+ * {@link VertexCacheKey}, so that every bundle is represented by a single vertex whichever worker meets it first. The edges, the optional and the unresolved dependencies of the level
+ * are then merged into the graph sequentially, in the order of the level, so the resulting graph does not depend on
+ * the scheduling of the workers.
+ * </p>
+ * <p>
+ * In reversed mode, the dependents of every vertex are expanded instead of its dependencies, and the edges are
+ * reversed (from the dependent to the vertex).
+ * </p>
+ * <p>
+ * The caches are kept until {@link #clear()} is called, so several closures can be added to the same graph. Instances
+ * must be driven from a single thread.
+ * </p>
+ */
+public final class PluginDependencyGraphBuilder {
+
+	/** Number of vertices of a level below which the dependencies are computed by a single worker. */
+	private static final int GRAIN = 16;
+
+	private final boolean reversed;
+
+	/** Timings of the builds, or <code>null</code> if the builds are not timed. */
+	private final GraphBuildTimings timings;
+
+	/** Cache containing the <code>IPluginVertex</code>(s) of the graph, keyed by <code>VertexCacheKey</code>. */
+	private final ConcurrentHashMap vertexCache = new ConcurrentHashMap();
+
+	/** Index of the <code>IPluginVertex</code>(s) of the vertex cache, used to match optional bundles by version range. */
+	private final PluginVertexIndex vertexIndex = new PluginVertexIndex();
+
+	/** Cache containing the error vertices linked to mandatory plug-in dependencies that could not be resolved. */
+	private final Map errorVertexCache = new HashMap(0);
+
+	/** Set which stores the vertices whose dependencies have been (or are being) added to the graph. */
+	private final Set expandedSources = new HashSet(0);
+
+	/**
+	 * Creates a builder adding the dependencies (or the dependents, if <code>reversed</code>) of plug-in vertices.
+	 *
+	 * @param reversed <code>true</code> to add the dependents of the plug-in vertices, with reversed edges
+	 */
+	public PluginDependencyGraphBuilder(boolean reversed) {
+		this(reversed, null);
+	}
+
+	/**
+	 * Creates a builder adding the dependencies (or the dependents, if <code>reversed</code>) of plug-in vertices, and
+	 * accumulating the time spent computing the dependencies into the specified <code>timings</code>.
+	 *
+	 * @param reversed <code>true</code> to add the dependents of the plug-in vertices, with reversed edges
+	 * @param timings  the timings of the builds, or <code>null</code>
+	 */
+	public PluginDependencyGraphBuilder(boolean reversed, GraphBuildTimings timings) {
+		this.reversed = reversed;
+		this.timings = timings;
+	}
+
+	/**
+	 * Returns the cache key of the specified bundle description.
+	 *
+	 * @param bd the bundle description
+	 *
+	 * @return the cache key of the specified bundle description.
+	 */
+	public static VertexCacheKey newVertexCacheKey(BaseDescription bd) {
+		return new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? Version.emptyVersion.toString() : bd.getVersion().toString()));
+	}
+
+	/**
+	 * Returns the cached <code>IPluginVertex</code> representing the specified bundle description, creating (and
+	 * caching) it if needed.
+	 *
+	 * @param bd the bundle description
+	 *
+	 * @return the cached <code>IPluginVertex</code> representing the specified bundle description.
+	 */
+	public IPluginVertex getPluginVertex(BaseDescription bd) {
+		VertexCacheKey key = newVertexCacheKey(bd);
+		IPluginVertex vertex = (IPluginVertex) vertexCache.get(key);
+		if (vertex == null) {
+			vertex = new PluginVertex(bd);
+			vertexCache.put(key, vertex);
+			vertexIndex.put(key.id, key.version, vertex);
+		}
+		return vertex;
+	}
+
+	/**
+	 * Registers the specified <code>vertex</code> (e.g. the root of a graph) in the vertex cache, if its model object is
+	 * a bundle description.
+	 *
+	 * @param vertex the <code>IPluginVertex</code> to register
+	 */
+	public void registerPluginVertex(IPluginVertex vertex) {
+		Object model = vertex.getModelObject();
+		if (model instanceof BaseDescription) {
+			VertexCacheKey key = newVertexCacheKey((BaseDescription) model);
+			vertexCache.put(key, vertex);
+			vertexIndex.put(key.id, key.version, vertex);
+		}
+	}
+
+	/**
+	 * Returns the cached error vertex of the unresolved plug-in identified by the specified <code>key</code>, creating
+	 * (and caching) it if needed.
+	 *
+	 * @param key         the key of the unresolved plug-in
+	 * @param modelObject the model object referencing the unresolved plug-in
+	 *
+	 * @return the cached error vertex of the unresolved plug-in identified by the specified <code>key</code>.
+	 */
+	public UnresolvedModelVertex getPluginErrorVertex(VertexCacheKey key, Object modelObject) {
+		UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) errorVertexCache.get(key);
+		if (errorVertex == null) {
+			errorVertex = new UnresolvedModelVertex(modelObject, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
+			errorVertexCache.put(key, errorVertex);
+		}
+		return errorVertex;
+	}
+
+	/**
+	 * Adds the plug-in dependency closure of the specified <code>sources</code> to the <code>graph</code>. Sources whose
+	 * dependencies have already been added are skipped. The progress monitor is checked between the levels: if it is
+	 * cancelled, the closure is left incomplete.
+	 *
+	 * @param graph   the dependency <code>DiGraph</code>
+	 * @param sources the <code>List</code> of <code>IPluginVertex</code>(s) from which the dependencies are added
+	 * @param monitor the progress monitor used to cancel the build, or <code>null</code>
+	 */
+	public void addDependencies(DiGraph graph, List sources, IProgressMonitor monitor) {
+		if (monitor == null) {
+			monitor = new NullProgressMonitor();
+		}
+		List frontier = new ArrayList(sources.size());
+		for (int i = 0; i < sources.size(); i++) {
+			IPluginVertex source = (IPluginVertex) sources.get(i);
+			if (expandedSources.add(source)) {
+				frontier.add(source);
+			}
+		}
+
+		while (!frontier.isEmpty() && !monitor.isCanceled()) {
+			IPluginVertex[] level = (IPluginVertex[]) frontier.toArray(new IPluginVertex[frontier.size()]);
+			Object[][] targets = new Object[level.length][];
+			LevelTask task = new LevelTask(level, targets, 0, level.length);
+			long start = System.nanoTime();
+			if (level.length <= GRAIN) {
+				task.compute();
+			}
+			else {
+				Activator.getWorkerPool().invoke(task);
+			}
+			if (timings != null) {
+				timings.add(GraphBuildTimings.DEPENDENCIES, System.nanoTime() - start);
+			}
+
+			frontier = new ArrayList(0);
+			for (int i = 0; i < level.length; i++) {
+				for (int j = 0; j < targets[i].length; j++) {
+					IPDEDependencyVertex vertex = mergeTarget(targets[i][j]);
+					if (reversed) {
+						graph.addEdge(vertex, level[i]);
+					}
+					else {
+						graph.addEdge(level[i], vertex);
+					}
+					if (vertex instanceof IPluginVertex && expandedSources.add(vertex)) {
+						frontier.add(vertex);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Clears all entries from the caches.
+	 */
+	public void clear() {
+		vertexCache.clear();
+		vertexIndex.clear();
+		errorVertexCache.clear();
+		expandedSources.clear();
+	}
+
+	/* Returns the vertex of a dependency computed by a worker (the vertex itself, or an unresolved bundle specification) */
+	private IPDEDependencyVertex mergeTarget(Object target) {
+		if (target instanceof IPluginVertex) {
+			IPluginVertex vertex = (IPluginVertex) target;
+			if (!expandedSources.contains(vertex) && vertex.getModelObject() instanceof BaseDescription) {
+				// first time the vertex is merged, make it visible to the version range matches
+				VertexCacheKey key = newVertexCacheKey((BaseDescription) vertex.getModelObject());
+				vertexIndex.put(key.id, key.version, vertex);
+			}
+			return vertex;
+		}
+
+		BundleSpecification bs = (BundleSpecification) target;
+		if (bs.isOptional()) { // add as a IPluginVertex because it is optional
+			VersionRange range = bs.getVersionRange();
+			if (range == null) {
+				range = VersionRange.emptyRange;
+			}
+			IPluginVertex vertex = vertexIndex.find(bs.getName(), range);
+			if (vertex == null) {
+				vertex = new PluginVertex(bs);
+				VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
+				vertexCache.put(key, vertex);
+				vertexIndex.put(key.id, key.version, vertex);
+			}
+			return vertex;
+		}
+		// add as a UnresolvedModelVertex because is a mandatory bundle.
+		VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : bs.getBundle().getVersion().toString()); //$NON-NLS-1$
+		return getPluginErrorVertex(key, bs);
+	}
+
+	/* Returns the vertex of a resolved bundle, creating it at most once across the workers */
+	private IPluginVertex getConcurrentPluginVertex(BaseDescription bd) {
+		VertexCacheKey key = newVertexCacheKey(bd);
+		IPluginVertex vertex = (IPluginVertex) vertexCache.get(key);
+		if (vertex == null) {
+			IPluginVertex created = new PluginVertex(bd);
+			vertex = (IPluginVertex) vertexCache.putIfAbsent(key, created);
+			if (vertex == null) {
+				vertex = created;
+			}
+		}
+		return vertex;
+	}
+
+	/**
+	 * Worker computing the dependencies of a range of vertices of a level. The resolved dependencies are replaced by
+	 * their (concurrently cached) vertices, the unresolved ones are kept as <code>BundleSpecification</code>(s).
+	 */
+	private final class LevelTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IPluginVertex[] level;
+		private final Object[][] targets;
+		private final int from;
+		private final int to;
+
+		LevelTask(IPluginVertex[] level, Object[][] targets, int from, int to) {
+			this.level = level;
+			this.targets = targets;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (to - from > GRAIN) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new LevelTask(level, targets, from, middle), new LevelTask(level, targets, middle, to));
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				Object model = level[i].getModelObject();
+				Object[] deps = (reversed ? DependencyUtil.getDirectDependendBundles(model) : AnalysisUtil.getDependencies(model));
+				List resolved = new ArrayList(deps.length);
+				for (int j = 0; j < deps.length; j++) {
+					if (deps[j] instanceof BaseDescription) {
+						resolved.add(getConcurrentPluginVertex((BaseDescription) deps[j]));
+					}
+					else if (deps[j] instanceof BundleSpecification) {
+						resolved.add(deps[j]);
+					}
+				}
+				targets[i] = resolved.toArray();
+			}
+		}
+
+	}
+
+}
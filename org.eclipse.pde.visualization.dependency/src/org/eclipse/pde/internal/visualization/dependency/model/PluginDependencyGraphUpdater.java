@@ -0,0 +1,176 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.osgi.service.resolver.BaseDescription;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.BundleSpecification;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Applies the changes of the plug-ins of a resolver state (e.g. reported by a PDE model change event) to a plug-in
+ * dependency graph built earlier, instead of replacing the graph.
+ * <p>
+ * The graph of the root is sliced again out of the {@link PlatformDependencyIndex} of the current state, so that the
+ * bundles rewired by the changes (e.g. by a changed export or a changed resolution) are taken into account as well,
+ * and the slice is then merged into the graph: the vertices and the edges that are still part of the slice are left
+ * untouched, the ones that are no longer part of it are removed, and the new ones are added. The vertices of the
+ * changed plug-ins are replaced by vertices of their current bundle descriptions.
+ * </p>
+ */
+public final class PluginDependencyGraphUpdater {
+
+	private final DiGraph graph;
+	private IPluginVertex root;
+	private final boolean reversed;
+
+	/** Set of the vertices touched by the last update: added, removed, or with changed outgoing edges. */
+	private final Set touchedVertices = new HashSet(0);
+
+	/**
+	 * Creates an updater of the specified dependency <code>graph</code> of the specified <code>root</code>.
+	 *
+	 * @param graph    the dependency graph of the <code>root</code> (cannot be <code>null</code>)
+	 * @param root     the root of the dependency graph (cannot be <code>null</code>)
+	 * @param reversed <code>true</code> if the graph is the graph of the dependents of the <code>root</code>,
+	 *                 <code>false</code> if it is the graph of its dependencies
+	 *
+	 * @throws IllegalArgumentException if the <code>graph</code> or the <code>root</code> is <code>null</code>
+	 */
+	public PluginDependencyGraphUpdater(DiGraph graph, IPluginVertex root, boolean reversed) {
+		if (graph == null) {
+			throw new IllegalArgumentException("The 'graph' cannot be null"); //$NON-NLS-1$
+		}
+		if (root == null) {
+			throw new IllegalArgumentException("The 'root' cannot be null"); //$NON-NLS-1$
+		}
+		this.graph = graph;
+		this.root = root;
+		this.reversed = reversed;
+	}
+
+	/**
+	 * Applies the changes of the specified resolver state to the graph.
+	 * <p>
+	 * Returns <code>false</code> if the graph cannot be updated (the root plug-in is no longer part of the state), in
+	 * which case the graph is left unchanged.
+	 * </p>
+	 *
+	 * @param state the current resolver state of the plug-ins (cannot be <code>null</code>)
+	 *
+	 * @return <code>true</code> if the graph was updated (or was not affected by the changes), <code>false</code> if it
+	 * has to be built again.
+	 *
+	 * @throws IllegalArgumentException if the <code>state</code> is <code>null</code>
+	 */
+	public boolean update(State state) {
+		if (state == null) {
+			throw new IllegalArgumentException("The 'state' cannot be null"); //$NON-NLS-1$
+		}
+		touchedVertices.clear();
+		if (!(root.getModelObject() instanceof BaseDescription)) {
+			return false;
+		}
+		BaseDescription description = (BaseDescription) root.getModelObject();
+		BundleDescription bd = state.getBundle(description.getName(), description.getVersion());
+		if (bd == null) {
+			bd = state.getBundle(description.getName(), null);
+		}
+		if (bd == null) {
+			return false;
+		}
+		IPluginVertex sliceRoot = (bd == description ? root : new PluginVertex(bd));
+		DiGraph slice = PlatformDependencyIndex.getIndex(state).createSlice(sliceRoot, reversed);
+		if (slice == null) {
+			return false;
+		}
+
+		// the vertices of the graph that are still part of the slice are kept, the others are replaced
+		Map existing = new HashMap(graph.numberOfVertices() * 2);//Map<Object, IVertex>
+		IVertex[] vertices = graph.getVertices();
+		for (int i = 0; i < vertices.length; i++) {
+			existing.put(getKey((IPDEDependencyVertex) vertices[i]), vertices[i]);
+		}
+		Map merged = new HashMap(slice.numberOfVertices() * 2);//Map<IVertex, IVertex>
+		IVertex[] sliceVertices = slice.getVertices();
+		for (int i = 0; i < sliceVertices.length; i++) {
+			IVertex vertex = (IVertex) existing.remove(getKey((IPDEDependencyVertex) sliceVertices[i]));
+			if (vertex == null) {
+				vertex = sliceVertices[i];
+				graph.addVertex(vertex);
+				touchedVertices.add(vertex);
+			}
+			merged.put(sliceVertices[i], vertex);
+		}
+
+		// the outgoing edges are replaced where they changed, before the removed vertices drop their edges
+		for (int i = 0; i < sliceVertices.length; i++) {
+			IVertex source = (IVertex) merged.get(sliceVertices[i]);
+			IVertex[] sliceTargets = slice.getConnectedTo(sliceVertices[i]);
+			Set targets = new HashSet(sliceTargets.length * 2);//Set<IVertex>
+			for (int j = 0; j < sliceTargets.length; j++) {
+				targets.add(merged.get(sliceTargets[j]));
+			}
+			IVertex[] currentTargets = graph.getConnectedTo(source);
+			if (currentTargets.length == targets.size() && targets.containsAll(Arrays.asList(currentTargets))) {
+				continue;
+			}
+			for (int j = 0; j < currentTargets.length; j++) {
+				graph.removeEdge(source, currentTargets[j]);
+			}
+			for (Iterator itr = targets.iterator(); itr.hasNext();) {
+				graph.addEdge(source, (IVertex) itr.next());
+			}
+			touchedVertices.add(source);
+		}
+		for (Iterator itr = existing.values().iterator(); itr.hasNext();) {
+			IVertex vertex = (IVertex) itr.next();
+			graph.removeVertex(vertex);
+			touchedVertices.add(vertex);
+		}
+		root = (IPluginVertex) merged.get(sliceRoot);
+		return true;
+	}
+
+	/**
+	 * Returns the root of the graph, which is replaced by the update if the root plug-in changed.
+	 * @return the root of the graph
+	 */
+	public IPluginVertex getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the <code>Set</code> of the vertices touched by the last update: the added and removed vertices, and the
+	 * vertices whose outgoing edges were computed again.
+	 * @return the <code>Set</code> of the vertices touched by the last update
+	 */
+	public Set getTouchedVertices() {
+		return touchedVertices;
+	}
+
+	/*
+	 * Returns the key identifying the specified vertex across the graphs sliced out of the states: its bundle
+	 * description, or the name and the version (range) of the missing plug-in it represents
+	 */
+	private static Object getKey(IPDEDependencyVertex vertex) {
+		Object model = vertex.getModelObject();
+		if (vertex instanceof UnresolvedModelVertex) {
+			return "!" + ((UnresolvedModelVertex) vertex).getId() + "_" + ((UnresolvedModelVertex) vertex).getVersion(); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (model instanceof BundleSpecification) {
+			VersionRange range = ((BundleSpecification) model).getVersionRange();
+			return "?" + ((BundleSpecification) model).getName() + "_" + (range == null ? VersionRange.emptyRange : range); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return model;
+	}
+
+}
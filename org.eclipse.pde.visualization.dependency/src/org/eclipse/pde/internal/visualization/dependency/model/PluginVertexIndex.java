@@ -0,0 +1,136 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.osgi.service.resolver.VersionRange;
+import org.osgi.framework.Version;
+
+/**
+ * Index of the <code>IPluginVertex</code>(s) created while building a dependency graph, used to find a vertex by
+ * id and version range.
+ * <p>
+ * The vertices are grouped by id, and the vertices of an id are kept sorted by their parsed <code>Version</code>, so
+ * a version range match is a binary search for the upper bound of the range instead of a scan (and a version parse)
+ * over every cached vertex. Versions that cannot be parsed (e.g. the <code>VersionRange.toString()</code> used to key
+ * the vertices of unresolved optional bundles) are not indexed.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public final class PluginVertexIndex {
+
+	/** Map of plug-in id to the <code>List</code> of its <code>Entry</code>(s), sorted by version. */
+	private final Map entriesById = new HashMap(0);
+
+	private static final class Entry {
+		final Version version;
+		IPluginVertex vertex;
+		Entry(Version version, IPluginVertex vertex) {
+			this.version = version;
+			this.vertex = vertex;
+		}
+	}
+
+	/**
+	 * Adds the specified <code>vertex</code> to the index, under the specified <code>id</code> and <code>version</code>.
+	 * A vertex previously indexed under the same id and version is replaced.
+	 *
+	 * @param id      the plug-in id
+	 * @param version the plug-in version
+	 * @param vertex  the <code>IPluginVertex</code> to index
+	 *
+	 * @return <code>true</code> if the vertex has been indexed, or <code>false</code> if the <code>version</code> could not be parsed.
+	 * @throws IllegalArgumentException if the <code>id</code> or the <code>vertex</code> is <code>null</code>
+	 */
+	public boolean put(String id, String version, IPluginVertex vertex) {
+		if (id == null) {
+			throw new IllegalArgumentException("The 'id' cannot be null"); //$NON-NLS-1$
+		}
+		if (vertex == null) {
+			throw new IllegalArgumentException("The 'vertex' cannot be null"); //$NON-NLS-1$
+		}
+		Version parsed;
+		try {
+			parsed = Version.parseVersion(version);
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+
+		List entries = (List) entriesById.get(id);
+		if (entries == null) {
+			entries = new ArrayList(1);
+			entriesById.put(id, entries);
+		}
+		int position = firstAbove(entries, parsed, true);
+		if (position > 0 && ((Entry) entries.get(position - 1)).version.equals(parsed)) {
+			((Entry) entries.get(position - 1)).vertex = vertex;
+		}
+		else {
+			entries.add(position, new Entry(parsed, vertex));
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the <code>IPluginVertex</code> matching the specified <code>id</code> with the highest version included in
+	 * the specified version <code>range</code>, or <code>null</code> if no match.
+	 *
+	 * @param id    the plug-in id to match
+	 * @param range the version range to match
+	 *
+	 * @return the <code>IPluginVertex</code> matching the specified <code>id</code> with the highest version included in
+	 * the specified version <code>range</code>, or <code>null</code> if no match.
+	 */
+	public IPluginVertex find(String id, VersionRange range) {
+		List entries = (List) entriesById.get(id);
+		if (entries == null) {
+			return null;
+		}
+		int end = entries.size();
+		Version maximum = range.getMaximum();
+		if (maximum != null) {
+			end = firstAbove(entries, maximum, range.getIncludeMaximum());
+		}
+		Version minimum = range.getMinimum();
+		for (int i = end - 1; i >= 0; i--) {
+			Entry entry = (Entry) entries.get(i);
+			if (range.isIncluded(entry.version)) {
+				return entry.vertex;
+			}
+			if (minimum != null && entry.version.compareTo(minimum) < 0) {
+				break;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all the vertices from the index.
+	 */
+	public void clear() {
+		entriesById.clear();
+	}
+
+	/* Returns the position of the first entry whose version is above (or at, if not inclusive) the specified bound */
+	private static int firstAbove(List entries, Version bound, boolean inclusive) {
+		int low = 0;
+		int high = entries.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int c = ((Entry) entries.get(middle)).version.compareTo(bound);
+			if (c < 0 || (c == 0 && inclusive)) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.osgi.service.resolver.BundleDelta;
+import org.eclipse.osgi.service.resolver.StateDelta;
+
+/**
+ * The bundles of a resolver <code>State</code> changed by its resolutions since a known time stamp of the state, as
+ * reported by the <code>StateDelta</code>s of the resolutions. A cache of the state uses them to drop the information
+ * of the changed bundles only, instead of all its information, when the time stamp of the state changes.
+ * <p>
+ * The changes are only known if every resolution since the known time stamp has been recorded: the time stamp
+ * reached by the last recorded resolution must be the current time stamp of the state. Only the ids of the bundles are
+ * kept, so the changes do not hold the state.
+ * </p>
+ * <p>
+ * Instances are thread safe.
+ * </p>
+ */
+public final class StateChanges {
+
+	private long from;
+	private long to;
+
+	/** The ids (<code>Long</code>) of the bundles changed from time stamp <code>from</code> to time stamp <code>to</code>. */
+	private final Set ids = new HashSet(0);
+
+	/**
+	 * Creates the changes of a state since the specified time stamp.
+	 *
+	 * @param timeStamp the time stamp of the state the changes are recorded from
+	 */
+	public StateChanges(long timeStamp) {
+		from = to = timeStamp;
+	}
+
+	/**
+	 * Records the bundles added, removed, updated, resolved, unresolved or rewired by a resolution of the state.
+	 *
+	 * @param delta     the delta of the resolution
+	 * @param timeStamp the time stamp of the state after the resolution
+	 */
+	public synchronized void record(StateDelta delta, long timeStamp) {
+		BundleDelta[] changes = delta.getChanges();
+		for (int i = 0; i < changes.length; i++) {
+			ids.add(new Long(changes[i].getBundle().getBundleId()));
+		}
+		to = timeStamp;
+	}
+
+	/**
+	 * Returns the ids of the bundles changed from time stamp <code>since</code> to time stamp <code>timeStamp</code>, or
+	 * <code>null</code> if they are not known, and records the changes from <code>timeStamp</code> on.
+	 *
+	 * @param since     the time stamp of the state the information of the cache was computed for
+	 * @param timeStamp the current time stamp of the state
+	 *
+	 * @return the <code>Set</code> of the ids (<code>Long</code>) of the changed bundles, or <code>null</code> if they are
+	 * not known.
+	 */
+	public synchronized Set restart(long since, long timeStamp) {
+		Set changed = (from == since && to == timeStamp ? new HashSet(ids) : null);
+		from = to = timeStamp;
+		ids.clear();
+		return changed;
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.eclipse.pde.internal.visualization.dependency.model;
+
+/**
+ * The key class used to identify entries in the vertex caches of the dependency graph builders. The key's uniqueness
+ * is determined by the corresponding model object's id and version attributes.
+ * <p>
+ * Keys are immutable, and can be shared between threads.
+ * </p>
+ */
+public final class VertexCacheKey {
+
+	public final String id;
+	public final String version;
+
+	/**
+	 * Creates a key with the specified <code>id</code> and <code>version</code>.
+	 *
+	 * @param id      the model object's id (cannot be <code>null</code>)
+	 * @param version the model object's version (cannot be <code>null</code>)
+	 */
+	public VertexCacheKey(String id, String version) {
+		this.id = id;
+		this.version = version;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	public int hashCode() {
+		final int prime = 31;
+		int result = prime + id.hashCode();
+		result = prime * result + version.hashCode();
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof VertexCacheKey)) {
+			return false;
+		}
+		VertexCacheKey other = (VertexCacheKey) obj;
+		return (id.equals(other.id) && version.equals(other.version));
+	}
+
+}
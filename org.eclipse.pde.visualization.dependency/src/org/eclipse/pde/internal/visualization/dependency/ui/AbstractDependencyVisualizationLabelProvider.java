@@ -1,6 +1,8 @@
 package org.eclipse.pde.internal.visualization.dependency.ui;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.draw2d.IFigure;
@@ -32,6 +34,8 @@ public abstract class AbstractDependencyVisualizationLabelProvider implements IL
 	private IDependencyVisualizationView fView;
 	private GraphViewer fViewer;
 	private AbstractInterestingDependenciesCalculator fDependencyCalculator;
+	/* The relationships revealed by the last highlight applied */
+	private Set revealedRelationships = Collections.EMPTY_SET;
 	private IVertex rootVertex = null;
 	private IVertex selectedVertex = null;
 	private IVertex pinnedVertex = null;
@@ -85,6 +89,7 @@ public abstract class AbstractDependencyVisualizationLabelProvider implements IL
 		pinnedVertex = null;
 		fDependencyCalculator.clear();
 		fDependencyCalculator = null;
+		revealedRelationships = Collections.EMPTY_SET;
 		disabledColor = null;
 	}
 
@@ -272,12 +277,12 @@ public abstract class AbstractDependencyVisualizationLabelProvider implements IL
 	}
 	
 	/**
-	 * Sets the current selection
+	 * Sets the current selection. The interesting dependencies of the selection may be calculated in the background:
+	 * the previous highlight is kept until they are calculated.
 	 * @param root - the root vertex
 	 * @param selected - the selected vertex
 	 */
 	public void setCurrentSelection(IVertex root, IVertex selected) {
-		internalUnrevealConnections();
 		rootVertex = root;
 		selectedVertex = selected;
 		internalUpdateViewer();
@@ -298,6 +303,7 @@ public abstract class AbstractDependencyVisualizationLabelProvider implements IL
 	public void updateInterestingDependenciesCalculator(AbstractInterestingDependenciesCalculator dependencyCalculator) {
 		Assert.isNotNull(dependencyCalculator);
 		internalUnrevealConnections();
+		fDependencyCalculator.cancel();
 		fDependencyCalculator = dependencyCalculator;
 		internalUpdateViewer();
 	}
@@ -306,27 +312,45 @@ public abstract class AbstractDependencyVisualizationLabelProvider implements IL
 	 * UnReveals all the connections
 	 */
 	private void internalUnrevealConnections() {
-		for (Iterator iter = fDependencyCalculator.getInterestingRelationships().iterator(); iter.hasNext();) {
+		for (Iterator iter = revealedRelationships.iterator(); iter.hasNext();) {
 			EntityConnectionData entityConnectionData = (EntityConnectionData) iter.next();
 			fViewer.unReveal(entityConnectionData);
 		}
+		revealedRelationships = Collections.EMPTY_SET;
 	}
 	
 	/**
-	 * Updates the viewer nodes and connections
+	 * Calculates the interesting dependencies, and updates the viewer once they are calculated
 	 */
 	private void internalUpdateViewer() {
-		fDependencyCalculator.calculate(this);
-		
+		final AbstractInterestingDependenciesCalculator calculator = fDependencyCalculator;
+		calculator.calculate(this, new Runnable() {
+			public void run() {
+				// dropped if the label provider was disposed or its calculator replaced meanwhile
+				if (fViewer != null && calculator == fDependencyCalculator) {
+					internalApplyHighlight();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Updates the viewer nodes and connections with the interesting dependencies, in a single batch
+	 */
+	private void internalApplyHighlight() {
+		internalUnrevealConnections();
+
 		Object[] nodes = fViewer.getNodeElements();
 		for (int i = 0; i < nodes.length; i++) {
 			fViewer.update(nodes[i], null);
 		}
 
-		for (Iterator iter = fDependencyCalculator.getInterestingRelationships().iterator(); iter.hasNext();) {
+		Set relationships = fDependencyCalculator.getInterestingRelationships();
+		for (Iterator iter = relationships.iterator(); iter.hasNext();) {
 			Object entityConnectionData = iter.next();
 			fViewer.reveal(entityConnectionData);
 		}
+		revealedRelationships = relationships;
 
 		Object[] connections = fViewer.getConnectionElements();
 		for (int i = 0; i < connections.length; i++) {
@@ -3,9 +3,14 @@ package org.eclipse.pde.internal.visualization.dependency.ui;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.GroupMarker;
 import org.eclipse.jface.action.IAction;
@@ -23,20 +28,31 @@ import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.pde.core.plugin.ModelEntry;
+import org.eclipse.pde.internal.core.IFeatureModelDelta;
+import org.eclipse.pde.internal.core.IFeatureModelListener;
+import org.eclipse.pde.internal.core.IPluginModelListener;
+import org.eclipse.pde.internal.core.PDECore;
+import org.eclipse.pde.internal.core.PluginModelDelta;
+import org.eclipse.pde.internal.core.ifeature.IFeature;
+import org.eclipse.pde.internal.core.ifeature.IFeatureModel;
 import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
 import org.eclipse.pde.internal.visualization.dependency.PDEVizImages;
 import org.eclipse.pde.internal.visualization.dependency.errors.ErrorReporting;
 import org.eclipse.pde.internal.visualization.dependency.errors.UnresolvedError;
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
 import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
-import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.DepthFirstTraversalAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget;
 import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
-import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitFindingAlgorithm;
-import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.JohnsonCircuitFindingAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IncrementalCircuitFindingAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.ParallelCircuitFindingAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.PathSubgraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.PathSubgraphAlgorithm;
 import org.eclipse.pde.internal.visualization.dependency.model.IPDEDependencyVertex;
 import org.eclipse.pde.internal.visualization.dependency.model.UnresolvedModelVertex;
+import org.eclipse.pde.internal.visualization.dependency.ui.DependencyGraphRebuildScheduler.GraphState;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -70,6 +86,7 @@ import org.eclipse.ui.forms.widgets.FormToolkit;
 import org.eclipse.ui.forms.widgets.ScrolledForm;
 import org.eclipse.ui.forms.widgets.Section;
 import org.eclipse.ui.part.ViewPart;
+import org.eclipse.ui.progress.IWorkbenchSiteProgressService;
 import org.eclipse.zest.core.viewers.AbstractZoomableViewer;
 import org.eclipse.zest.core.viewers.EntityConnectionData;
 import org.eclipse.zest.core.viewers.GraphViewer;
@@ -92,11 +109,17 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
     
 	private static final IElementaryCircuit[] EMPTY_CIRCUITS = new IElementaryCircuit[0];
 	
+	/* The circuit search stops after 1000 circuits or 2 seconds, whichever comes first. */
+	private static final CircuitSearchBudget CIRCUIT_SEARCH_BUDGET = new CircuitSearchBudget(Integer.MAX_VALUE, 1000, 2000);
+	
 	private INavigationHistoryManager navigationHistoryManager = null;
 	private IElementaryCircuit[] circuits = EMPTY_CIRCUITS;
+	private boolean circuitSearchComplete = true;
+	private int circuitComponents = 0;
 	private IElementaryCircuit currentCircuit = null;
 	
 	private DiGraph dependencyGraph = null;
+	private DiGraph circuitsGraph = null;
 	/*private*/protected IVertex currentRootVertex = null;//TODO change back to private
 	private GraphViewer viewer;
 	private AbstractDependencyVisualizationLabelProvider labelProvider;
@@ -120,6 +143,13 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 	private ScrolledForm form;
 	private Composite headClient;
 	
+	private ModelChangeListener modelChangeListener = null;
+	private final DependencyGraphRebuildScheduler rebuildScheduler = new DependencyGraphRebuildScheduler(this, DependencyGraphRebuildScheduler.DEFAULT_QUIET_WINDOW);
+	
+	/* The jobs computing the graph to be shown and the circuits of the graph shown, or null; only accessed from the UI thread */
+	private DependencyGraphBuildJob buildJob = null;
+	private CircuitSearchJob circuitSearchJob = null;
+	
 	public AbstractDependencyVisualizationView() {
 		super();
 	}
@@ -139,12 +169,26 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 		return currentCircuit;
 	}
 	
+	public boolean isCircuitSearchComplete() {
+		return circuitSearchComplete;
+	}
+	
+	public int getNumberOfCircuitComponents() {
+		return circuitComponents;
+	}
+	
 	public DiGraph getDependencyGraph() {
 		return dependencyGraph;
 	}
 	
 	public void setDependencyGraph(DiGraph graph) {
 		dependencyGraph = graph;
+		if (graph != null && graph == circuitsGraph) {
+			// the circuits of the graph are already known (e.g. found by the rebuild scheduler)
+			circuitsDropDownAction.setEnabled(circuits.length > 0);
+			circuitsDropDownAction.updateToolTipText();
+			return;
+		}
 		findCircuits();
 	}
 	
@@ -165,35 +209,65 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 	}
 	
 	public void focusOn(final IVertex root, final boolean recordHistory, final ErrorReporting errorReporting) {
+		// the graph is computed from the current models: pending model changes are obsolete
+		rebuildScheduler.reset();
+		if (buildJob != null) {
+			buildJob.cancel();
+			buildJob = null;
+		}
+		
+		if (errorReporting != null) {
+			// errors are shown on the current graph, which is not computed again
+			showFocusedGraph(root, getDependencyGraph(), recordHistory, errorReporting);
+			return;
+		}
+		buildJob = new DependencyGraphBuildJob(this, root, isShowCallers(), recordHistory);
+		scheduleJob(buildJob);
+	}
+	
+	/*
+	 * Publishes the graph of 'root' computed by 'job', unless the view focused on another root meanwhile. May be called
+	 * from any thread.
+	 */
+	void publishFocusedGraph(final DependencyGraphBuildJob job, final IVertex root, final DiGraph graph, final boolean recordHistory) {
+		if (form.isDisposed()) {
+			return;
+		}
+		form.getDisplay().asyncExec(new Runnable() {
+			public void run() {
+				if (!form.isDisposed() && buildJob == job) {
+					buildJob = null;
+					showFocusedGraph(root, graph, recordHistory, null);
+					if (!job.getChangedPluginIds().isEmpty() || !job.getChangedFeatureIds().isEmpty()) {
+						// the graph may miss the changes notified while it was built
+						rebuildScheduler.modelsChanged(job.getChangedPluginIds(), job.getChangedFeatureIds(), getGraphState());
+					}
+				}
+			}
+		});
+	}
+	
+	private void showFocusedGraph(final IVertex root, DiGraph graph, boolean recordHistory, final ErrorReporting errorReporting) {
 		viewer.setSelection(new StructuredSelection());
 		selectionChanged(null);
 		viewer.setFilters(new ViewerFilter[] {});
 		
-		DiGraph computedGraph = computeDependencyGraph(root);
-		
 		if (errorReporting != null) {
 			if (errorReporting.getClass() == UnresolvedError.class) {
-				final List paths = new DepthFirstTraversalAlgorithm().findAllPaths(getDependencyGraph(), currentRootVertex, errorReporting.getVertex());
+				final PathSubgraph paths = new PathSubgraphAlgorithm().findPathSubgraph(graph, currentRootVertex, errorReporting.getVertex());
 				viewer.addFilter(new ViewerFilter() {
 					public boolean select(Viewer viewer, Object parentElement, Object element) {
 						if (element instanceof EntityConnectionData) {
 							return true;
 						}
-						for (int i = 0; i < paths.size(); i++) {
-							List list = (List) paths.get(i);
-							if (list.contains(element)) {
-								return true;
-							}
-						}
-						return false;
+						return (element instanceof IVertex && paths.containsVertex((IVertex) element));
 					}
 				});
 			}
 			ErrorReporting.showCurrentError(this, errorReporting, form.getMessageManager());
-			viewer.setInput(getDependencyGraph());
-		} else {//don't update the graph when filtering errors
-			viewer.setInput(computedGraph);
 		}
+		// the circuits of a new graph are searched in the background
+		viewer.setInput(graph);
 
 		form.setText(computeFormText(root));
 		form.reflow(true);
@@ -213,7 +287,7 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 		
 		// Check for errors in the graph
 		if (errorReporting == null) {// Don't report errors while error reporting
-			ErrorReporting.createErrorReports(computedGraph.getVertices(), this, form.getMessageManager());
+			ErrorReporting.createErrorReports(graph.getVertices(), this, form.getMessageManager());
 		}
 		
 		viewer.setLayoutAlgorithm(getDefaultLayoutAlgorithm(currentRootVertex));
@@ -259,16 +333,153 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 	}
 	
 	private void findCircuits() {
+		if (circuitSearchJob != null) {
+			circuitSearchJob.cancel();
+			circuitSearchJob = null;
+		}
 		circuits = EMPTY_CIRCUITS;
+		// no circuit is known until the search is over
+		circuitSearchComplete = (dependencyGraph == null);
+		circuitComponents = 0;
+		circuitsGraph = dependencyGraph;
 		if (dependencyGraph != null) {
-			BusyIndicator.showWhile(getSite().getShell().getDisplay(), new Runnable() {
-				public void run() {
-					IElementaryCircuitFindingAlgorithm circuitFindingAlg = new JohnsonCircuitFindingAlgorithm();
-					circuits = circuitFindingAlg.findAllElementaryCircuits(dependencyGraph);
+			circuitSearchJob = new CircuitSearchJob(this, dependencyGraph, CIRCUIT_SEARCH_BUDGET);
+			scheduleJob(circuitSearchJob);
+		}
+		circuitsDropDownAction.setEnabled(false);
+		circuitsDropDownAction.updateToolTipText();
+	}
+	
+	/*
+	 * Publishes the circuits found so far by 'job' ('over' once its search is over), unless the view shows another
+	 * graph (or searched its circuits again) by then. May be called from any thread.
+	 */
+	void publishCircuits(final CircuitSearchJob job, final IElementaryCircuit[] found, final boolean complete, final int components, final boolean over) {
+		if (form.isDisposed()) {
+			return;
+		}
+		form.getDisplay().asyncExec(new Runnable() {
+			public void run() {
+				if (!form.isDisposed() && circuitSearchJob == job) {
+					if (over) {
+						circuitSearchJob = null;
+					}
+					circuits = found;
+					circuitSearchComplete = complete;
+					circuitComponents = components;
+					circuitsDropDownAction.setEnabled(circuits.length > 0);
+					circuitsDropDownAction.updateToolTipText();
 				}
-			});
+			}
+		});
+	}
+	
+	/* Schedules the specified job, showing the view as busy while it runs */
+	private void scheduleJob(Job job) {
+		IWorkbenchSiteProgressService service = (IWorkbenchSiteProgressService) getSite().getAdapter(IWorkbenchSiteProgressService.class);
+		if (service != null) {
+			service.schedule(job);
+		}
+		else {
+			job.schedule();
+		}
+	}
+	
+	/*
+	 * Returns the state of the graph of 'base' updated with the changes of the plug-in and feature models with the
+	 * specified ids, or null if the graph is not affected by the changes. Called by the rebuild scheduler, from a
+	 * background thread: the graph of 'base' is copied, not modified.
+	 */
+	GraphState rebuildDependencyGraph(GraphState base, Set changedPluginIds, Set changedFeatureIds, IProgressMonitor monitor) {
+		DiGraph graph = new DiGraph(base.graph);
+		Set touched = new HashSet(0);//Set<IVertex>
+		IVertex root = updateDependencyGraph(graph, base.root, base.callers, changedPluginIds, changedFeatureIds, touched);
+		if ((root != null && touched.isEmpty()) || monitor.isCanceled()) {
+			return null;
+		}
+		
+		final List found = new ArrayList(0);//List<IElementaryCircuit>
+		final int[] components = new int[1];
+		IElementaryCircuitCollector collector = new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+				components[0] = sizes.length;
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				found.add(circuit);
+			}
+		};
+		boolean complete;
+		if (root == null) {
+			root = base.root;
+			graph = computeDependencyGraph(root, base.callers, monitor);
+			complete = new ParallelCircuitFindingAlgorithm().findElementaryCircuits(graph, collector, CIRCUIT_SEARCH_BUDGET, monitor);
+		}
+		else if (base.circuitSearchComplete) {
+			// only the strongly connected components holding a touched vertex are searched again
+			complete = new IncrementalCircuitFindingAlgorithm().updateElementaryCircuits(graph, base.circuits, touched, collector, CIRCUIT_SEARCH_BUDGET, monitor);
+		}
+		else {
+			complete = new ParallelCircuitFindingAlgorithm().findElementaryCircuits(graph, collector, CIRCUIT_SEARCH_BUDGET, monitor);
+		}
+		IElementaryCircuit[] circuits = (IElementaryCircuit[]) found.toArray(new IElementaryCircuit[found.size()]);
+		return new GraphState(graph, root, base.callers, circuits, complete, components[0]);
+	}
+	
+	/*
+	 * Publishes the graph rebuilt from 'base' by the rebuild scheduler. If the view shows another graph by then, the
+	 * rebuild is dropped and its changes are handed back to the scheduler with the current graph. May be called from
+	 * any thread.
+	 */
+	void publishDependencyGraph(final GraphState base, final GraphState rebuilt, final Set changedPluginIds, final Set changedFeatureIds, final int generation) {
+		if (form.isDisposed()) {
+			return;
 		}
-		circuitsDropDownAction.setEnabled(circuits.length > 0);
+		form.getDisplay().asyncExec(new Runnable() {
+			public void run() {
+				if (form.isDisposed()) {
+					return;
+				}
+				if (dependencyGraph == base.graph && currentRootVertex == base.root) {
+					showGraphState(rebuilt);
+				}
+				else if (currentRootVertex != null && dependencyGraph != null) {
+					rebuildScheduler.rebuildDropped(changedPluginIds, changedFeatureIds, generation, getGraphState());
+				}
+			}
+		});
+	}
+	
+	/* Shows the specified graph state in a single step, keeping the selection if its vertex is still in the graph */
+	private void showGraphState(GraphState state) {
+		circuits = state.circuits;
+		circuitSearchComplete = state.circuitSearchComplete;
+		circuitComponents = state.circuitComponents;
+		circuitsGraph = state.graph;
+		currentCircuit = null;
+		if (circuitSearchJob != null) {
+			circuitSearchJob.cancel();
+			circuitSearchJob = null;
+		}
+		
+		IVertex selected = labelProvider.getSelected();
+		if (selected != null && !state.graph.containsVertex(selected)) {
+			labelProvider.setPinnedVertex(null);
+			selected = null;
+		}
+		currentRootVertex = state.root;
+		viewer.setFilters(new ViewerFilter[] {});
+		viewer.setLayoutAlgorithm(getDefaultLayoutAlgorithm(currentRootVertex));
+		viewer.setInput(state.graph);
+		viewer.setSelection(selected == null ? new StructuredSelection() : new StructuredSelection(selected));
+		selectionChanged(selected);
+		
+		form.setText(computeFormText(currentRootVertex));
+		ErrorReporting.createErrorReports(state.graph.getVertices(), this, form.getMessageManager());
+	}
+	
+	/* Returns the current state of the graph; must be called from the UI thread */
+	private GraphState getGraphState() {
+		return new GraphState(dependencyGraph, currentRootVertex, isShowCallers(), getCircuits(), circuitSearchComplete, circuitComponents);
 	}
 		
 	public void createPartControl(Composite parent) {
@@ -325,6 +536,10 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 		makeActions();
 		hookContextMenu();
 		fillToolBar();
+		
+		modelChangeListener = new ModelChangeListener();
+		PDECore.getDefault().getModelManager().addPluginModelListener(modelChangeListener);
+		PDECore.getDefault().getFeatureModelManager().addFeatureModelListener(modelChangeListener);
 	}
 	
 	private void createHeaderRegion(final ScrolledForm form) {
@@ -682,6 +897,20 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 	}
 	
 	public void dispose() {
+		if (modelChangeListener != null) {
+			PDECore.getDefault().getModelManager().removePluginModelListener(modelChangeListener);
+			PDECore.getDefault().getFeatureModelManager().removeFeatureModelListener(modelChangeListener);
+			modelChangeListener = null;
+		}
+		rebuildScheduler.reset();
+		if (buildJob != null) {
+			buildJob.cancel();
+			buildJob = null;
+		}
+		if (circuitSearchJob != null) {
+			circuitSearchJob.cancel();
+			circuitSearchJob = null;
+		}
 		form.dispose();
 		super.dispose();
 	}
@@ -715,7 +944,63 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 	
 	protected abstract AbstractDependencyVisualizationLabelProvider createDependencyVisualizationLabelProvider(AbstractInterestingDependenciesCalculator dependencyCalculator);
 	
-	protected abstract DiGraph computeDependencyGraph(IVertex root);
+	/**
+	 * Returns <code>true</code> if the view shows the callers of its root rather than its dependencies. Called from the
+	 * UI thread when the graph is scheduled to be computed, the result being handed to
+	 * {@link #computeDependencyGraph(IVertex, boolean, IProgressMonitor)} and
+	 * {@link #updateDependencyGraph(DiGraph, IVertex, boolean, Set, Set, Set)}. The default implementation returns
+	 * <code>false</code>.
+	 * @return <code>true</code> if the view shows the callers of its root
+	 */
+	protected boolean isShowCallers() {
+		return false;
+	}
+	
+	/**
+	 * Computes the dependency graph of the <code>root</code>. Called from a background thread; must not access the
+	 * widgets of the view. The computation should stop once the progress monitor is cancelled, the (partial) result
+	 * being dropped.
+	 * @param root the root of the graph
+	 * @param callers <code>true</code> if the graph of the callers of the root is computed
+	 * @param monitor the progress monitor used to cancel the computation
+	 * @return the dependency graph of the root
+	 */
+	protected abstract DiGraph computeDependencyGraph(IVertex root, boolean callers, IProgressMonitor monitor);
+	
+	/**
+	 * Applies the changes of the plug-in and feature models with the specified ids to the dependency <code>graph</code> of
+	 * the <code>root</code>, and adds the vertices touched by the changes (added or removed vertices, and ends of added or
+	 * removed edges) to the <code>touched</code> set; only the circuits going through them are searched again.
+	 * <p>
+	 * Returns the root of the updated graph (a new vertex if the root model changed), or <code>null</code> if the graph
+	 * has to be computed again. The default implementation leaves the graph unchanged if none of its vertices
+	 * represents a changed model, and asks for the graph to be computed again otherwise.
+	 * </p>
+	 * <p>
+	 * This method is called from a background thread, on a copy of the graph shown by the view; it must not access the
+	 * widgets of the view. {@link #computeDependencyGraph(IVertex, boolean, IProgressMonitor)} is called from the same
+	 * thread when the graph has to be computed again.
+	 * </p>
+	 * @param graph the current dependency graph
+	 * @param root the root of the current dependency graph
+	 * @param callers <code>true</code> if the graph is the graph of the callers of the root
+	 * @param changedPluginIds the <code>Set</code> of the ids of the added, removed or changed plug-ins
+	 * @param changedFeatureIds the <code>Set</code> of the ids of the added, removed or changed features
+	 * @param touched the <code>Set</code> the vertices touched by the changes are added to
+	 * @return the root of the updated graph, or <code>null</code> if the graph has to be computed again.
+	 */
+	protected IVertex updateDependencyGraph(DiGraph graph, IVertex root, boolean callers, Set changedPluginIds, Set changedFeatureIds, Set touched) {
+		IVertex[] vertices = graph.getVertices();
+		for (int i = 0; i < vertices.length; i++) {
+			if (vertices[i] instanceof IPDEDependencyVertex) {
+				String name = ((IPDEDependencyVertex) vertices[i]).getName();
+				if (changedPluginIds.contains(name) || changedFeatureIds.contains(name)) {
+					return null;
+				}
+			}
+		}
+		return root;
+	}
 	
 	protected abstract String computeFormText(IVertex root);
 	
@@ -738,6 +1023,66 @@ public abstract class AbstractDependencyVisualizationView extends ViewPart imple
 		// default makes no additional contributions
 	}
 	
+	/**
+	 * Listens to the changes of the PDE plug-in and feature models, and hands them to the rebuild scheduler with the
+	 * state of the graph they apply to.
+	 */
+	private final class ModelChangeListener implements IPluginModelListener, IFeatureModelListener {
+		
+		public void modelsChanged(PluginModelDelta delta) {
+			Set ids = new HashSet(0);//Set<String>
+			addPluginIds(ids, delta.getAddedEntries());
+			addPluginIds(ids, delta.getRemovedEntries());
+			addPluginIds(ids, delta.getChangedEntries());
+			modelsChanged(ids, Collections.EMPTY_SET);
+		}
+		
+		public void modelsChanged(IFeatureModelDelta delta) {
+			Set ids = new HashSet(0);//Set<String>
+			addFeatureIds(ids, delta.getAdded());
+			addFeatureIds(ids, delta.getRemoved());
+			addFeatureIds(ids, delta.getChanged());
+			modelsChanged(Collections.EMPTY_SET, ids);
+		}
+		
+		private void modelsChanged(final Set changedPluginIds, final Set changedFeatureIds) {
+			if (form == null || form.isDisposed() || (changedPluginIds.isEmpty() && changedFeatureIds.isEmpty())) {
+				return;
+			}
+			form.getDisplay().asyncExec(new Runnable() {
+				public void run() {
+					if (form.isDisposed()) {
+						return;
+					}
+					if (buildJob != null) {
+						// the graph being computed may miss the changes: they are applied once it is shown
+						buildJob.modelsChanged(changedPluginIds, changedFeatureIds);
+					}
+					else if (currentRootVertex != null && dependencyGraph != null) {
+						rebuildScheduler.modelsChanged(changedPluginIds, changedFeatureIds, getGraphState());
+					}
+				}
+			});
+		}
+		
+		private void addPluginIds(Set ids, ModelEntry[] entries) {
+			for (int i = 0; entries != null && i < entries.length; i++) {
+				if (entries[i].getId() != null) {
+					ids.add(entries[i].getId());
+				}
+			}
+		}
+		
+		private void addFeatureIds(Set ids, IFeatureModel[] models) {
+			for (int i = 0; models != null && i < models.length; i++) {
+				IFeature feature = models[i].getFeature();
+				if (feature != null && feature.getId() != null) {
+					ids.add(feature.getId());
+				}
+			}
+		}
+	}
+	
 	private static final class VizGraphViewer extends GraphViewer {
 		public VizGraphViewer(Composite parent, int style) {
 			super(parent, style);
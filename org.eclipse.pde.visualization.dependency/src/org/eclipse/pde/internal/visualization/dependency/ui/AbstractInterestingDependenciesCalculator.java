@@ -5,21 +5,92 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
+import org.eclipse.swt.widgets.Display;
 
 public abstract class AbstractInterestingDependenciesCalculator {
 
+	/* Replaced, never modified, once calculated: only read and replaced from the UI thread */
 	private Set interestingEntities = new HashSet(0);
 	private Set interestingRelationships = new HashSet(0);
-	
+
+	/* Guards the calculation requests */
+	private final Object lock = new Object();
+
+	/* Incremented by every calculation request: the result of a calculation is dropped if another one was requested since */
+	private int generation = 0;
+
+	/* The last request, handled by the calculation job */
+	private AbstractDependencyVisualizationLabelProvider requestedProvider = null;
+	private Runnable requestedCallback = null;
+	private Display requestedDisplay = null;
+
+	/* The time of the last request, traced with the latency of its calculation if the debug/calculations option is on */
+	private long requestTime = 0;
+
+	/* Created on the first request calculated in the background; runs one calculation at a time */
+	private CalculationJob job = null;
+
 	/**
-	 * Calculates the interesting entities and relationships
+	 * Calculates the interesting entities and relationships, in a background job if
+	 * {@link #isCalculatedInBackground()}, and runs the specified <code>callback</code> on the UI thread once they are
+	 * calculated. Must be called from the UI thread.
+	 * <p>
+	 * The interesting entities and relationships are replaced on the UI thread, just before the callback is run, so
+	 * the callback can apply them in a single batch; until then the previous ones are kept. If another calculation is
+	 * requested (or the calculator is cleared) before a background calculation is over, its result is dropped and its
+	 * callback is not run.
+	 * </p>
 	 * @param provider - the label provider used to calculate the dependencies
+	 * @param callback - the <code>Runnable</code> run once the dependencies are calculated
 	 */
-	public final void calculate(AbstractDependencyVisualizationLabelProvider provider) {
+	public final void calculate(AbstractDependencyVisualizationLabelProvider provider, Runnable callback) {
 		Assert.isNotNull(provider);
-		interestingEntities.clear();
-		interestingRelationships.clear();
-		calculateInterestingDependencies(provider, interestingEntities, interestingRelationships);
+		Assert.isNotNull(callback);
+		if (!isCalculatedInBackground() || Display.getCurrent() == null) {
+			synchronized (lock) {
+				// a pending background calculation is outdated
+				generation++;
+			}
+			Set entities = new HashSet(0);
+			Set relationships = new HashSet(0);
+			calculateInterestingDependencies(provider, entities, relationships);
+			interestingEntities = entities;
+			interestingRelationships = relationships;
+			callback.run();
+			return;
+		}
+		synchronized (lock) {
+			generation++;
+			requestedProvider = provider;
+			requestedCallback = callback;
+			requestedDisplay = Display.getCurrent();
+			requestTime = System.currentTimeMillis();
+			if (job == null) {
+				job = new CalculationJob();
+			}
+		}
+		// a running job is scheduled again once it is over, with the last request
+		job.schedule();
+	}
+
+	/**
+	 * Returns true if {@link #calculate(AbstractDependencyVisualizationLabelProvider, Runnable)} calculates the
+	 * dependencies in a background job. Returns true by default; calculators that are cheap enough to be run on every
+	 * selection change from the UI thread may return false.
+	 * <p>
+	 * The dependencies calculated in the background are calculated from a background thread, and one calculation at
+	 * a time.
+	 * </p>
+	 * @return true if the dependencies are calculated in a background job
+	 */
+	protected boolean isCalculatedInBackground() {
+		return true;
 	}
 
 	/**
@@ -32,13 +103,29 @@ public abstract class AbstractInterestingDependenciesCalculator {
 			Set interestingEntities, Set interestingRelationships);
 
 	/**
-	 * Clears the set of interesting entities and relationships
+	 * Clears the set of interesting entities and relationships, and drops the result of a pending calculation
 	 */
 	public void clear() {
-		interestingEntities.clear();
-		interestingRelationships.clear();
+		cancel();
+		interestingEntities = new HashSet(0);
+		interestingRelationships = new HashSet(0);
 	}
-	
+
+	/**
+	 * Drops the result of a pending calculation, and cancels it if it is not running yet
+	 */
+	public void cancel() {
+		synchronized (lock) {
+			generation++;
+			requestedProvider = null;
+			requestedCallback = null;
+			requestedDisplay = null;
+		}
+		if (job != null) {
+			job.cancel();
+		}
+	}
+
 	/**
 	 * Returns the <code>set</code> of interesting entities
 	 * @return the <code>set</code> of interesting entities
@@ -46,7 +133,7 @@ public abstract class AbstractInterestingDependenciesCalculator {
 	public Set getInterestingEntities() {
 		return Collections.unmodifiableSet(interestingEntities);
 	}
-	
+
 	/**
 	 * Returns the <code>set</code> of interesting relationships
 	 * @return the <code>set</code> of interesting relationships
@@ -54,5 +141,73 @@ public abstract class AbstractInterestingDependenciesCalculator {
 	public Set getInterestingRelationships() {
 		return Collections.unmodifiableSet(interestingRelationships);
 	}
-	
+
+	/**
+	 * Calculates the dependencies of the last request, and hands the result to the UI thread.
+	 */
+	private final class CalculationJob extends Job {
+
+		CalculationJob() {
+			super(PDEMessages.INTERESTING_DEPENDENCIES_JOB_NAME);
+			setSystem(true);
+			setPriority(Job.INTERACTIVE);
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			final int startGeneration;
+			final AbstractDependencyVisualizationLabelProvider provider;
+			final Runnable callback;
+			final Display display;
+			final long start;
+			synchronized (lock) {
+				startGeneration = generation;
+				provider = requestedProvider;
+				callback = requestedCallback;
+				display = requestedDisplay;
+				start = requestTime;
+			}
+			if (provider == null || monitor.isCanceled() || display.isDisposed()) {
+				return Status.CANCEL_STATUS;
+			}
+			final Set entities = new HashSet(0);
+			final Set relationships = new HashSet(0);
+			try {
+				calculateInterestingDependencies(provider, entities, relationships);
+			}
+			catch (RuntimeException e) {
+				// an outdated calculation may fail because the view was disposed or changed its graph meanwhile
+				if (isOutdated(startGeneration)) {
+					return Status.CANCEL_STATUS;
+				}
+				throw e;
+			}
+			if (isOutdated(startGeneration) || display.isDisposed()) {
+				return Status.CANCEL_STATUS;
+			}
+			final long calculated = System.currentTimeMillis();
+			display.asyncExec(new Runnable() {
+				public void run() {
+					if (isOutdated(startGeneration)) {
+						return;
+					}
+					interestingEntities = entities;
+					interestingRelationships = relationships;
+					callback.run();
+					if (Activator.DEBUG_CALCULATIONS) {
+						long applied = System.currentTimeMillis();
+						Activator.trace("Interesting dependencies applied " + (applied - start) + " ms after the request (calculated in " + (calculated - start) + " ms)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					}
+				}
+			});
+			return Status.OK_STATUS;
+		}
+
+		/* Returns true if another calculation was requested (or the calculator was cancelled) since 'startGeneration' */
+		private boolean isOutdated(int startGeneration) {
+			synchronized (lock) {
+				return startGeneration != generation;
+			}
+		}
+	}
+
 }
@@ -0,0 +1,85 @@
+package org.eclipse.pde.internal.visualization.dependency.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.CircuitSearchBudget;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuitCollector;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.ParallelCircuitFindingAlgorithm;
+
+/**
+ * Searches the strongly connected components and the elementary circuits of the dependency graph shown by an
+ * {@link AbstractDependencyVisualizationView}, in a background <code>Job</code>, and publishes them to the view as
+ * they are found: the number of components as soon as it is known, the circuits found so far in batches, and all the
+ * circuits once the search is over. The graph is not modified while it is shown, so it is searched without copying
+ * it.
+ */
+final class CircuitSearchJob extends Job {
+
+	/* The circuits found so far are published at most every 200 milliseconds while the search runs */
+	private static final long PUBLISH_INTERVAL = 200;
+
+	private final AbstractDependencyVisualizationView view;
+	private final DiGraph graph;
+	private final CircuitSearchBudget budget;
+
+	/**
+	 * Creates a job searching the circuits of the specified <code>graph</code> for the specified <code>view</code>.
+	 *
+	 * @param view   the view
+	 * @param graph  the graph shown by the view
+	 * @param budget the budget of the search
+	 */
+	public CircuitSearchJob(AbstractDependencyVisualizationView view, DiGraph graph, CircuitSearchBudget budget) {
+		super(PDEMessages.CIRCUIT_SEARCH_JOB_NAME);
+		this.view = view;
+		this.graph = graph;
+		this.budget = budget;
+		setPriority(Job.LONG);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	protected IStatus run(IProgressMonitor monitor) {
+		final List found = new ArrayList(0);//List<IElementaryCircuit>
+		final int[] components = new int[1];
+		final long[] published = new long[1];
+		boolean complete = new ParallelCircuitFindingAlgorithm().findElementaryCircuits(graph, new IElementaryCircuitCollector() {
+			public void componentsFound(int[] sizes) {
+				components[0] = sizes.length;
+				if (sizes.length > 0) {
+					publish(found, false, components[0], false);
+					published[0] = System.currentTimeMillis();
+				}
+			}
+			public void circuitFound(IElementaryCircuit circuit) {
+				found.add(circuit);
+				long now = System.currentTimeMillis();
+				if (now - published[0] >= PUBLISH_INTERVAL) {
+					publish(found, false, components[0], false);
+					published[0] = now;
+				}
+			}
+		}, budget, monitor);
+		if (monitor.isCanceled()) {
+			return Status.CANCEL_STATUS;
+		}
+		publish(found, complete, components[0], true);
+		return Status.OK_STATUS;
+	}
+
+	private void publish(List found, boolean complete, int components, boolean over) {
+		IElementaryCircuit[] circuits = (IElementaryCircuit[]) found.toArray(new IElementaryCircuit[found.size()]);
+		view.publishCircuits(this, circuits, complete, components, over);
+	}
+
+}
@@ -39,6 +39,23 @@ public class CircuitsDropDownAction extends Action implements IMenuCreator {
 		setMenuCreator(this);
 	}
 
+	/**
+	 * Updates the tool tip text with the number of circuits (and components) found in the dependency graph.
+	 */
+	public void updateToolTipText() {
+		setToolTipText(getSummary());
+	}
+
+	private String getSummary() {
+		int circuits = fView.getCircuits().length;
+		// the components are known before their circuits while the circuits are searched
+		if (circuits == 0 && fView.getNumberOfCircuitComponents() == 0) {
+			return PDEMessages.SHOW_CYCLES;
+		}
+		String message = (fView.isCircuitSearchComplete() ? PDEMessages.CIRCUITS_SUMMARY : PDEMessages.CIRCUITS_SUMMARY_TRUNCATED);
+		return PDEMessages.bind(message, Integer.toString(circuits), Integer.toString(fView.getNumberOfCircuitComponents()));
+	}
+
 	public void dispose() {
 		if (fMenu != null) {
 			fMenu.dispose();
@@ -52,6 +69,12 @@ public class CircuitsDropDownAction extends Action implements IMenuCreator {
 		}
 		fMenu = new Menu(parent);
 		
+		// Add the summary of the circuit search.
+		Action summaryAction = new Action(getSummary()) {};
+		summaryAction.setEnabled(false);
+		new ActionContributionItem(summaryAction).fill(fMenu, -1);
+		new Separator().fill(fMenu, -1);
+		
 		// Sort the circuits by increasing size.
 		final List circuits = Arrays.asList(fView.getCircuits());
 		Collections.sort(circuits, new Comparator() {
@@ -11,6 +11,16 @@ import org.eclipse.zest.core.viewers.EntityConnectionData;
  */
 public class DefaultInterestingDependenciesCalculator extends AbstractInterestingDependenciesCalculator {
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.ui.AbstractInterestingDependenciesCalculator#isCalculatedInBackground()
+	 * 
+	 * the direct children are found in constant time
+	 */
+	protected boolean isCalculatedInBackground() {
+		return false;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.eclipse.pde.internal.visualization.dependency.provisional.ui.AbstractInterestingDependenciesCalculator#calculateInterestingDependencies(org.eclipse.pde.internal.visualization.dependency.provisional.ui.AbstractDependencyVisualizationLabelProvider, java.util.Set, java.util.Set)
@@ -0,0 +1,101 @@
+package org.eclipse.pde.internal.visualization.dependency.ui;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+
+/**
+ * Computes the dependency graph of a root for an {@link AbstractDependencyVisualizationView}, in a background
+ * <code>Job</code>, and publishes it to the view once built. The published graph is not modified afterwards.
+ * <p>
+ * The graph builders check the progress monitor of the job: when the job is cancelled (the view focused on another
+ * root meanwhile), the build stops and its partial graph is dropped. The PDE model changes notified while the graph is
+ * built are recorded by the job, and handed to the rebuild scheduler once the graph is shown.
+ * </p>
+ */
+final class DependencyGraphBuildJob extends Job {
+
+	private final AbstractDependencyVisualizationView view;
+	private final IVertex root;
+	private final boolean callers;
+	private final boolean recordHistory;
+
+	/* The changes notified while the graph is built; only accessed from the UI thread */
+	private final Set changedPluginIds = new HashSet(0);//Set<String>
+	private final Set changedFeatureIds = new HashSet(0);//Set<String>
+
+	/**
+	 * Creates a job computing the dependency graph of the specified <code>root</code> for the specified <code>view</code>.
+	 *
+	 * @param view          the view
+	 * @param root          the root of the graph
+	 * @param callers       <code>true</code> if the graph of the callers of the root is computed
+	 * @param recordHistory <code>true</code> if the root is to be recorded in the navigation history once shown
+	 */
+	public DependencyGraphBuildJob(AbstractDependencyVisualizationView view, IVertex root, boolean callers, boolean recordHistory) {
+		super(PDEMessages.GRAPH_BUILD_JOB_NAME);
+		this.view = view;
+		this.root = root;
+		this.callers = callers;
+		this.recordHistory = recordHistory;
+		setPriority(Job.LONG);
+	}
+
+	/**
+	 * Records the changes of the plug-in and feature models with the specified ids, notified while the graph is built.
+	 * Must be called from the UI thread.
+	 *
+	 * @param pluginIds  the <code>Set</code> of the ids of the added, removed or changed plug-ins
+	 * @param featureIds the <code>Set</code> of the ids of the added, removed or changed features
+	 */
+	public void modelsChanged(Set pluginIds, Set featureIds) {
+		changedPluginIds.addAll(pluginIds);
+		changedFeatureIds.addAll(featureIds);
+	}
+
+	/**
+	 * Returns the <code>Set</code> of the ids of the plug-ins changed while the graph was built. Must be called from the
+	 * UI thread.
+	 * @return the <code>Set</code> of the ids of the plug-ins changed while the graph was built
+	 */
+	public Set getChangedPluginIds() {
+		return changedPluginIds;
+	}
+
+	/**
+	 * Returns the <code>Set</code> of the ids of the features changed while the graph was built. Must be called from the
+	 * UI thread.
+	 * @return the <code>Set</code> of the ids of the features changed while the graph was built
+	 */
+	public Set getChangedFeatureIds() {
+		return changedFeatureIds;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	protected IStatus run(IProgressMonitor monitor) {
+		if (monitor.isCanceled()) {
+			return Status.CANCEL_STATUS;
+		}
+		DiGraph graph = view.computeDependencyGraph(root, callers, monitor);
+		if (graph != null) {
+			// the immutable indexed snapshot searched by the circuit search, created here rather than on the UI thread
+			graph.snapshot();
+		}
+		if (monitor.isCanceled()) {
+			return Status.CANCEL_STATUS;
+		}
+		view.publishFocusedGraph(this, root, graph, recordHistory);
+		return Status.OK_STATUS;
+	}
+
+}
@@ -0,0 +1,210 @@
+package org.eclipse.pde.internal.visualization.dependency.ui;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.pde.internal.core.TargetPlatformHelper;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.IElementaryCircuit;
+
+/**
+ * Rebuilds the dependency graph of an {@link AbstractDependencyVisualizationView} after changes of the PDE models,
+ * in a background <code>Job</code>.
+ * <p>
+ * A workspace build or a target platform reload fires many model changes in a row: the changes notified within the
+ * quiet window (every notification restarts it) are coalesced into a single rebuild, and a notification arriving
+ * while a rebuild is running cancels it, its changes being rebuilt with the new ones once the window is over. A
+ * rebuild is run against the resolver <code>State</code> as it was when the rebuild started: if the state changed
+ * or was replaced meanwhile, the result is discarded and the rebuild is run again. The result of a rebuild is
+ * published to the view in a single step on the UI thread; if the view shows another graph by then (e.g. the result
+ * of an earlier rebuild), the changes are rebuilt again against that graph, unless the view was reset meanwhile.
+ * </p>
+ */
+final class DependencyGraphRebuildScheduler extends Job {
+
+	/** The default quiet window, in milliseconds. */
+	public static final long DEFAULT_QUIET_WINDOW = 400;
+
+	/**
+	 * The state of the dependency graph of a view: the graph, its root, its direction and its circuits. The graph of a
+	 * published state is not modified anymore.
+	 */
+	static final class GraphState {
+		final DiGraph graph;
+		final IVertex root;
+		final boolean callers;
+		final IElementaryCircuit[] circuits;
+		final boolean circuitSearchComplete;
+		final int circuitComponents;
+
+		GraphState(DiGraph graph, IVertex root, boolean callers, IElementaryCircuit[] circuits, boolean circuitSearchComplete, int circuitComponents) {
+			this.graph = graph;
+			this.root = root;
+			this.callers = callers;
+			this.circuits = circuits;
+			this.circuitSearchComplete = circuitSearchComplete;
+			this.circuitComponents = circuitComponents;
+		}
+	}
+
+	private final AbstractDependencyVisualizationView view;
+	private final long quietWindow;
+
+	/* The changes notified since the last rebuild started, and the state of the view when they were last notified */
+	private Set pendingPluginIds = new HashSet(0);//Set<String>
+	private Set pendingFeatureIds = new HashSet(0);//Set<String>
+	private GraphState pendingState = null;
+	private int pendingNotifications = 0;
+
+	/* Guards the pending changes and the counters; not the job itself, whose monitor is used by the job manager */
+	private final Object lock = new Object();
+
+	/* Incremented by reset(), so the changes of a rebuild cancelled by it are not rebuilt again */
+	private int generation = 0;
+
+	/* Traced under the debug/rebuilds option: only the rebuilds that changed the graph are counted */
+	private int notifications = 0;
+	private int coalesced = 0;
+	private int rebuilds = 0;
+
+	/**
+	 * Creates a scheduler rebuilding the dependency graph of the specified <code>view</code>.
+	 *
+	 * @param view        the view
+	 * @param quietWindow the time without notification, in milliseconds, after which a rebuild is started
+	 */
+	public DependencyGraphRebuildScheduler(AbstractDependencyVisualizationView view, long quietWindow) {
+		super(PDEMessages.REBUILD_JOB_NAME);
+		this.view = view;
+		this.quietWindow = quietWindow;
+		setSystem(true);
+		setPriority(Job.LONG);
+	}
+
+	/**
+	 * Notifies this scheduler of the changes of the plug-in and feature models with the specified ids, the graph of
+	 * the view being in the specified <code>state</code>. Must be called from the UI thread.
+	 *
+	 * @param changedPluginIds  the <code>Set</code> of the ids of the added, removed or changed plug-ins
+	 * @param changedFeatureIds the <code>Set</code> of the ids of the added, removed or changed features
+	 * @param state             the current state of the graph of the view
+	 */
+	public void modelsChanged(Set changedPluginIds, Set changedFeatureIds, GraphState state) {
+		synchronized (lock) {
+			pendingPluginIds.addAll(changedPluginIds);
+			pendingFeatureIds.addAll(changedFeatureIds);
+			pendingState = state;
+			notifications++;
+			if (pendingNotifications++ > 0) {
+				coalesced++;
+			}
+			// a running rebuild is stale: cancel it, and (re)start the quiet window
+			cancel();
+			schedule(quietWindow);
+		}
+	}
+
+	/**
+	 * Drops the pending changes and cancels the running rebuild, e.g. because the view computed a new graph from the
+	 * current models. Must be called from the UI thread.
+	 */
+	public void reset() {
+		synchronized (lock) {
+			pendingPluginIds = new HashSet(0);
+			pendingFeatureIds = new HashSet(0);
+			pendingState = null;
+			pendingNotifications = 0;
+			generation++;
+			cancel();
+		}
+	}
+
+	/**
+	 * Notifies this scheduler that the result of a rebuild of the changes of the plug-in and feature models with the
+	 * specified ids was dropped, because the view showed another graph by then: the changes are rebuilt again against
+	 * the specified current <code>state</code> of the graph, unless the scheduler was reset since the rebuild started.
+	 * Must be called from the UI thread.
+	 *
+	 * @param changedPluginIds  the <code>Set</code> of the ids of the plug-ins changed by the dropped rebuild
+	 * @param changedFeatureIds the <code>Set</code> of the ids of the features changed by the dropped rebuild
+	 * @param rebuildGeneration the generation of the scheduler when the dropped rebuild started
+	 * @param state             the current state of the graph of the view
+	 */
+	void rebuildDropped(Set changedPluginIds, Set changedFeatureIds, int rebuildGeneration, GraphState state) {
+		synchronized (lock) {
+			if (rebuildGeneration != generation) {
+				return;
+			}
+			pendingPluginIds.addAll(changedPluginIds);
+			pendingFeatureIds.addAll(changedFeatureIds);
+			// the changes notified meanwhile were captured against an older graph as well
+			pendingState = state;
+			pendingNotifications++;
+			cancel();
+			schedule(quietWindow);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	protected IStatus run(IProgressMonitor monitor) {
+		Set changedPluginIds;
+		Set changedFeatureIds;
+		GraphState base;
+		int startGeneration;
+		synchronized (lock) {
+			changedPluginIds = pendingPluginIds;
+			changedFeatureIds = pendingFeatureIds;
+			base = pendingState;
+			startGeneration = generation;
+			pendingPluginIds = new HashSet(0);
+			pendingFeatureIds = new HashSet(0);
+			pendingState = null;
+			pendingNotifications = 0;
+		}
+		if (base == null || base.graph == null || base.root == null) {
+			return Status.OK_STATUS;
+		}
+
+		State state = TargetPlatformHelper.getState();
+		long timeStamp = state.getTimeStamp();
+		GraphState rebuilt = view.rebuildDependencyGraph(base, changedPluginIds, changedFeatureIds, monitor);
+		if (monitor.isCanceled() || TargetPlatformHelper.getState() != state || state.getTimeStamp() != timeStamp) {
+			// stale: rebuild the changes again, with the ones that made it stale
+			synchronized (lock) {
+				if (startGeneration == generation) {
+					pendingPluginIds.addAll(changedPluginIds);
+					pendingFeatureIds.addAll(changedFeatureIds);
+					if (pendingState == null) {
+						pendingState = base;
+					}
+					if (!monitor.isCanceled()) {
+						schedule(quietWindow);
+					}
+				}
+			}
+			return Status.CANCEL_STATUS;
+		}
+		if (rebuilt != null) {
+			synchronized (lock) {
+				rebuilds++;
+				if (Activator.DEBUG_REBUILDS) {
+					Activator.trace("Dependency graph rebuilds: " + rebuilds + ", notifications: " + notifications + ", coalesced: " + coalesced); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+			}
+			view.publishDependencyGraph(base, rebuilt, changedPluginIds, changedFeatureIds, startGeneration);
+		}
+		return Status.OK_STATUS;
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.eclipse.pde.internal.visualization.dependency.ui;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.dialogs.ErrorDialog;
 import org.eclipse.jface.window.Window;
@@ -55,8 +56,8 @@ public final class FeatureVisualizationView extends AbstractDependencyVisualizat
 		return new FeatureDependencyGraphLabelProvider(getGraphViewer(), this, dependencyCalculator);
 	}
 
-	protected DiGraph computeDependencyGraph(IVertex root) {
-		return new FeatureDependencyHelper().createFeatureGraph((IFeatureVertex) root);
+	protected DiGraph computeDependencyGraph(IVertex root, boolean callers, IProgressMonitor monitor) {
+		return new FeatureDependencyHelper().createFeatureGraph((IFeatureVertex) root, monitor);
 	}
 
 	protected String computeFormText(IVertex root) {
@@ -30,7 +30,21 @@ public interface IDependencyVisualizationView extends IViewPart {
 	public IElementaryCircuit getCurrentCircuit();
 	
 	/**
-	 * Focuses on the specified {@link IVertex}.
+	 * Returns true if {@link #getCircuits()} holds every elementary circuit of the dependency graph, and false
+	 * if the circuit search was cut short by its budget or is still running.
+	 * @return true if {@link #getCircuits()} holds every elementary circuit of the dependency graph
+	 */
+	public boolean isCircuitSearchComplete();
+	
+	/**
+	 * Returns the number of strongly connected components of the dependency graph holding at least one circuit.
+	 * @return the number of strongly connected components of the dependency graph holding at least one circuit
+	 */
+	public int getNumberOfCircuitComponents();
+	
+	/**
+	 * Focuses on the specified {@link IVertex}. The dependency graph of the root is computed in the background and
+	 * shown once computed, then its circuits are searched in the background; the graph of an error is shown at once.
 	 * @param root - the not-null {@link IVertex} to focus on
 	 * @param recordHistory - boolean used to set if history should be recorded
 	 * @param errorReporting - the error that should be displayed or null 
@@ -0,0 +1,25 @@
+package org.eclipse.pde.internal.visualization.dependency.ui;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
+
+/**
+ * An Action that uses an {@link AbstractInterestingDependenciesCalculator} 
+ * to reveal the shortest paths between the root and the selected node, one page at a time. 
+ */
+public class KShortestPathsAction extends Action {
+	
+	private AbstractDependencyVisualizationLabelProvider fLabelProvider;
+	
+	public KShortestPathsAction(AbstractDependencyVisualizationLabelProvider labelProvider) {
+		super(PDEMessages.bind(PDEMessages.SHORTEST_PATHS, Integer.toString(KShortestPathsInterestingDependenciesCalculator.PAGE_SIZE)), AS_RADIO_BUTTON);
+		setDescription(getText());
+		setToolTipText(getText());
+		
+		fLabelProvider = labelProvider;
+	}
+
+	public void run() {
+		fLabelProvider.updateInterestingDependenciesCalculator(new KShortestPathsInterestingDependenciesCalculator());
+	}
+}
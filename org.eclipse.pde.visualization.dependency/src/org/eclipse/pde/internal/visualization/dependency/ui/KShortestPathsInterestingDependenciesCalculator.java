@@ -0,0 +1,126 @@
+package org.eclipse.pde.internal.visualization.dependency.ui;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.graph.DiGraphSnapshot;
+import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.YenKShortestPathsAlgorithm;
+import org.eclipse.zest.core.viewers.EntityConnectionData;
+
+/**
+ * Reveals the shortest paths between the root and the selected node one page at a time: the first
+ * {@link #PAGE_SIZE} paths are shown, and {@link #nextPage()} moves on to the following ones. The paths are pulled
+ * lazily from a {@link YenKShortestPathsAlgorithm} iterator, so only the current page is ever held in memory.
+ * The paths are only pulled by the calculation, which runs in the background: the paging methods called from the UI
+ * thread read the last page published by the calculation, and request the next one from the following calculation.
+ */
+public class KShortestPathsInterestingDependenciesCalculator extends AbstractInterestingDependenciesCalculator {
+
+	/**
+	 * The number of paths shown at once.
+	 */
+	public static final int PAGE_SIZE = 20;
+
+	/**
+	 * A page of paths, and whether paths follow it. Never modified once published.
+	 */
+	private static final class Page {
+		final IVertex[][] paths;
+		final boolean hasNext;
+
+		Page(IVertex[][] paths, boolean hasNext) {
+			this.paths = paths;
+			this.hasNext = hasNext;
+		}
+	}
+
+	private static final Page EMPTY_PAGE = new Page(new IVertex[0][], false);
+
+	/* Only accessed by the calculation, which runs one at a time */
+	private DiGraphSnapshot snapshot;
+	private IVertex root;
+	private IVertex selected;
+	private Iterator paths;//Iterator<IVertex[]>
+
+	/* Replaced by the calculation, read from the UI thread */
+	private volatile Page page = EMPTY_PAGE;
+
+	/* Set from the UI thread, cleared by the calculation moving on to the next page */
+	private final AtomicBoolean nextPageRequested = new AtomicBoolean(false);
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.provisional.ui.AbstractInterestingDependenciesCalculator#calculateInterestingDependencies(org.eclipse.pde.internal.visualization.dependency.provisional.ui.AbstractDependencyVisualizationLabelProvider, java.util.Set, java.util.Set)
+	 */
+	protected void calculateInterestingDependencies(AbstractDependencyVisualizationLabelProvider provider,
+			Set interestingEntities, Set interestingRelationships) {
+		boolean nextPage = nextPageRequested.getAndSet(false);
+		DiGraph graph = provider.getDependencyVisualizationView().getDependencyGraph();
+		if (graph == null || provider.getRootVertex() == null || provider.getSelected() == null) {
+			reset();
+			return;
+		}
+
+		// restart from the first page when the graph, the root or the selection changes
+		if (graph.snapshot() != snapshot || !provider.getRootVertex().equals(root) || !provider.getSelected().equals(selected)) {
+			reset();
+			snapshot = graph.snapshot();
+			root = provider.getRootVertex();
+			selected = provider.getSelected();
+			paths = new YenKShortestPathsAlgorithm().findShortestPaths(graph, root, selected);
+			fillPage();
+		}
+		else if (nextPage && paths.hasNext()) {
+			fillPage();
+		}
+
+		IVertex[][] shown = page.paths;
+		for (int i = 0; i < shown.length; i++) {
+			IVertex[] path = shown[i];
+			for (int j = 0; j < path.length - 1; j++) {
+				interestingEntities.add(path[j]);
+				interestingRelationships.add(new EntityConnectionData(path[j], path[j+1]));
+			}
+			interestingEntities.add(path[path.length-1]);
+		}
+	}
+
+	/**
+	 * Returns true if there are paths following the current page.
+	 * @return true if there are paths following the current page
+	 */
+	public boolean hasNextPage() {
+		return page.hasNext;
+	}
+
+	/**
+	 * Moves on to the next page of paths. The label provider has to recalculate the interesting dependencies
+	 * for the new page to be calculated and shown.
+	 */
+	public void nextPage() {
+		if (hasNextPage()) {
+			nextPageRequested.set(true);
+		}
+	}
+
+	private void fillPage() {
+		List next = new ArrayList(PAGE_SIZE);//List<IVertex[]>
+		while (next.size() < PAGE_SIZE && paths.hasNext()) {
+			next.add(paths.next());
+		}
+		page = new Page((IVertex[][]) next.toArray(new IVertex[next.size()][]), paths.hasNext());
+	}
+
+	private void reset() {
+		snapshot = null;
+		root = selected = null;
+		paths = null;
+		page = EMPTY_PAGE;
+	}
+
+}
@@ -22,6 +22,7 @@ public class PathsDropDownAction extends Action implements IMenuCreator {
 	private final AbstractDependencyVisualizationLabelProvider fLabelProvider;
 	private final ShortestPathAction shortestPathAction;
 	private final AllPathsAction allPathsAction;
+	private final KShortestPathsAction kShortestPathsAction;
 	
 	private Menu fMenu = null;
 	
@@ -32,6 +33,7 @@ public class PathsDropDownAction extends Action implements IMenuCreator {
 		
 		shortestPathAction = new ShortestPathAction(fLabelProvider);
 		allPathsAction = new AllPathsAction(fLabelProvider);
+		kShortestPathsAction = new KShortestPathsAction(fLabelProvider);
 	}
 
 	public void dispose() {
@@ -58,12 +60,36 @@ public class PathsDropDownAction extends Action implements IMenuCreator {
 		item = new ActionContributionItem(allPathsAction);
 		item.fill(fMenu, -1);
 		
+		marked = marked || kShortestPathsAction.isChecked();
+		kShortestPathsAction.setChecked(kShortestPathsAction.isChecked());
+		item = new ActionContributionItem(kShortestPathsAction);
+		item.fill(fMenu, -1);
+		
+		// Add the action showing the next page of shortest paths.
+		String nextPageText = PDEMessages.bind(PDEMessages.NEXT_SHORTEST_PATHS, Integer.toString(KShortestPathsInterestingDependenciesCalculator.PAGE_SIZE));
+		Action nextPageAction = new Action(nextPageText, AS_PUSH_BUTTON) {
+			public void run() {
+				AbstractInterestingDependenciesCalculator calculator = fLabelProvider.getInterestingDependenciesCalculator();
+				if (calculator instanceof KShortestPathsInterestingDependenciesCalculator) {
+					((KShortestPathsInterestingDependenciesCalculator) calculator).nextPage();
+					fLabelProvider.updateInterestingDependenciesCalculator(calculator);
+				}
+			}
+		};
+		AbstractInterestingDependenciesCalculator calculator = fLabelProvider.getInterestingDependenciesCalculator();
+		nextPageAction.setEnabled(kShortestPathsAction.isChecked() 
+				&& calculator instanceof KShortestPathsInterestingDependenciesCalculator
+				&& ((KShortestPathsInterestingDependenciesCalculator) calculator).hasNextPage());
+		item = new ActionContributionItem(nextPageAction);
+		item.fill(fMenu, -1);
+		
 		new Separator().fill(fMenu, -1);
 		Action noneAction = new Action(PDEMessages.NONE, AS_RADIO_BUTTON) {
 			public void run() {
 				fLabelProvider.updateInterestingDependenciesCalculator(new DefaultInterestingDependenciesCalculator());
 				shortestPathAction.setChecked(false);
 				allPathsAction.setChecked(false);
+				kShortestPathsAction.setChecked(false);
 			}
 		};
 		noneAction.setChecked(!marked);
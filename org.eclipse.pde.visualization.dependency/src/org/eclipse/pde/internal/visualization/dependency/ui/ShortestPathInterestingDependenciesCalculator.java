@@ -4,11 +4,14 @@ import java.util.Set;
 
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
 import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
-import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.DijkstraShortestPathAlgorithm;
+import org.eclipse.pde.internal.visualization.dependency.graph.algorithms.BreadthFirstShortestPathAlgorithm;
 import org.eclipse.zest.core.viewers.EntityConnectionData;
 
 public class ShortestPathInterestingDependenciesCalculator extends AbstractInterestingDependenciesCalculator {
 
+	/* Searches from both the root and the selection, and keeps its work tables between clicks */
+	private final BreadthFirstShortestPathAlgorithm shortestPathAlg = new BreadthFirstShortestPathAlgorithm(true);
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.eclipse.pde.internal.visualization.dependency.provisional.ui.AbstractInterestingDependenciesCalculator#calculateInterestingDependencies(org.eclipse.pde.internal.visualization.dependency.provisional.ui.AbstractDependencyVisualizationLabelProvider, java.util.Set, java.util.Set)
@@ -18,7 +21,7 @@ public class ShortestPathInterestingDependenciesCalculator extends AbstractInter
 		DiGraph graph = provider.getDependencyVisualizationView().getDependencyGraph();
 		if (graph != null && provider.getRootVertex() != null && provider.getSelected() != null) {
 			IVertex[] shortestPath = 
-					new DijkstraShortestPathAlgorithm().findShortestPath(
+					shortestPathAlg.findShortestPath(
 							graph, provider.getRootVertex(), provider.getSelected());
 			if (shortestPath.length > 0) {
 				for (int i = 0; i < shortestPath.length-1; i++) {
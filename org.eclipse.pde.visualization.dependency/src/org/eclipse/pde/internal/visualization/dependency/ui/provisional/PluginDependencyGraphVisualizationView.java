@@ -1,9 +1,14 @@
 package org.eclipse.pde.internal.visualization.dependency.ui.provisional;
 
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IToolBarManager;
 import org.eclipse.jface.window.Window;
+import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.pde.core.plugin.IPluginModelBase;
+import org.eclipse.pde.internal.core.TargetPlatformHelper;
 import org.eclipse.pde.internal.ui.dialogs.PluginSelectionDialog;
 import org.eclipse.pde.internal.ui.editor.plugin.ManifestEditor;
 import org.eclipse.pde.internal.visualization.dependency.PDEMessages;
@@ -12,6 +17,8 @@ import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
 import org.eclipse.pde.internal.visualization.dependency.graph.IVertex;
 import org.eclipse.pde.internal.visualization.dependency.model.IPDEDependencyVertex;
 import org.eclipse.pde.internal.visualization.dependency.model.IPluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginDependencyGraphUpdater;
 import org.eclipse.pde.internal.visualization.dependency.model.PluginVertex;
 import org.eclipse.pde.internal.visualization.dependency.ui.AbstractDependencyVisualizationLabelProvider;
 import org.eclipse.pde.internal.visualization.dependency.ui.AbstractDependencyVisualizationView;
@@ -60,13 +67,46 @@ public final class PluginDependencyGraphVisualizationView extends AbstractDepend
 		return new PluginDependencyGraphLabelProvider(getGraphViewer(), this, dependencyCalculator);
 	}
 
-	protected DiGraph computeDependencyGraph(IVertex root) {
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.ui.AbstractDependencyVisualizationView#isShowCallers()
+	 */
+	protected boolean isShowCallers() {
+		return !isShowCalleesMode;
+	}
+
+	protected DiGraph computeDependencyGraph(IVertex root, boolean callers, IProgressMonitor monitor) {
 		IPluginVertex vertex = (IPluginVertex) root;
-		PluginDependencyHelper helper = new PluginDependencyHelper();
-		if (isShowCalleesMode) {
-			return helper.createPluginDependencyGraph(vertex);
+		Object model = vertex.getModelObject();
+		if (model instanceof BundleDescription && ((BundleDescription) model).getContainingState() != null) {
+			// slice the graph out of the dependency index of the whole state, built once per state time stamp
+			PlatformDependencyIndex index = PlatformDependencyIndex.getIndex(((BundleDescription) model).getContainingState());
+			DiGraph graph = index.createSlice(vertex, callers);
+			if (graph != null) {
+				return graph;
+			}
+		}
+		PluginDependencyHelper helper = new PluginDependencyHelper(true);
+		if (callers) {
+			return helper.createReversedPluginDependencyGraph(vertex, monitor);
+		}
+		return helper.createPluginDependencyGraph(vertex, monitor);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.pde.internal.visualization.dependency.ui.AbstractDependencyVisualizationView#updateDependencyGraph(org.eclipse.pde.internal.visualization.dependency.graph.DiGraph, org.eclipse.pde.internal.visualization.dependency.graph.IVertex, boolean, java.util.Set, java.util.Set, java.util.Set)
+	 */
+	protected IVertex updateDependencyGraph(DiGraph graph, IVertex root, boolean callers, Set changedPluginIds, Set changedFeatureIds, Set touched) {
+		if (changedPluginIds.isEmpty()) {
+			return root;
+		}
+		PluginDependencyGraphUpdater updater = new PluginDependencyGraphUpdater(graph, (IPluginVertex) root, callers);
+		if (!updater.update(TargetPlatformHelper.getState())) {
+			return null;
 		}
-		return helper.createReversedPluginDependencyGraph(vertex);
+		touched.addAll(updater.getTouchedVertices());
+		return updater.getRoot();
 	}
 
 	protected String computeFormText(IVertex root) {
@@ -1,61 +1,68 @@
 package org.eclipse.pde.internal.visualization.dependency.ui.provisional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.osgi.service.resolver.BaseDescription;
 import org.eclipse.osgi.service.resolver.BundleSpecification;
 import org.eclipse.osgi.service.resolver.VersionRange;
 import org.eclipse.pde.internal.visualization.dependency.graph.DiGraph;
+import org.eclipse.pde.internal.visualization.dependency.model.GraphBuildTimings;
+import org.eclipse.pde.internal.visualization.dependency.model.IPDEDependencyVertex;
 import org.eclipse.pde.internal.visualization.dependency.model.IPluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginDependencyGraphBuilder;
 import org.eclipse.pde.internal.visualization.dependency.model.PluginVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.PluginVertexIndex;
 import org.eclipse.pde.internal.visualization.dependency.model.UnresolvedModelVertex;
+import org.eclipse.pde.internal.visualization.dependency.model.VertexCacheKey;
 import org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil;
 import org.eclipse.pde.internal.visualization.dependency.views.DependencyUtil;
 import org.osgi.framework.Version;
 
 public final class PluginDependencyHelper {
 	
+	/** Timings of the last graph built. */
+	private final GraphBuildTimings timings = new GraphBuildTimings();
+	
+	/** Whether the graphs are built level by level in parallel, by a <code>PluginDependencyGraphBuilder</code>. */
+	private final boolean parallel;
+	
 	/** Set which stores visited source vertices of the plug-in dependency graph. */
 	private final transient Set processedSources = new HashSet(0);
 	
 	/** Cache containing currently processed <code>IPluginVertex</code>(s) that form dependencies in the feature graph. */
 	private final transient Map pluginVertexCache = new HashMap(0);
 	
+	/** Index of the <code>IPluginVertex</code>(s) of the plugin vertex cache, used to match optional bundles by version range. */
+	private final transient PluginVertexIndex pluginVertexIndex = new PluginVertexIndex();
+	
 	/** Cache containing currently processed error vertices linked to plug-in model dependencies of a feature that could not be found. */
 	private final transient Map pluginErrorVertexCache = new HashMap(0);
 	
 	/**
-	 * The key class used to identify entries in the vertex caches. The key's uniqueness is determined 
-	 * by the corresponding model object's id and version attributes.
+	 * Creates a helper building the plug-in dependency graphs sequentially.
 	 */
-	private static final class VertexCacheKey {
-		public String id;
-		public String version;
-		public VertexCacheKey(String id, String version) {
-			this.id = id;
-			this.version = version;
-		}
-		public int hashCode() {
-			final int prime = 31;
-			int result = prime + id.hashCode();
-			result = prime * result + version.hashCode();
-			return result;
-		}
-		public boolean equals(Object obj) {
-			if (this == obj) {
-				return true;
-			}
-			if (!(obj instanceof VertexCacheKey)) {
-				return false;
-			}
-			VertexCacheKey other = (VertexCacheKey) obj;
-			return (id.equals(other.id) && version.equals(other.version));
-		}
+	public PluginDependencyHelper() {
+		this(false);
+	}
+	
+	/**
+	 * Creates a helper building the plug-in dependency graphs.
+	 * 
+	 * @param parallel <code>true</code> to build the graphs level by level in parallel
+	 * 
+	 * @see PluginDependencyGraphBuilder
+	 */
+	public PluginDependencyHelper(boolean parallel) {
+		this.parallel = parallel;
 	}
 	
 	/**
@@ -77,6 +84,7 @@ public final class PluginDependencyHelper {
 	private void clearCaches() {
 		processedSources.clear();
 		pluginVertexCache.clear();
+		pluginVertexIndex.clear();
 		pluginErrorVertexCache.clear();
 	}
 
@@ -91,103 +99,188 @@ public final class PluginDependencyHelper {
 	 * included in the specified version range, or <code>null</code> if no match.
 	 */
 	private IPluginVertex findPluginVertexMatchingIdAndVersionRange(String id, VersionRange range) {
-		IPluginVertex match = null;
-		Iterator itr = pluginVertexCache.entrySet().iterator();
-		while (itr.hasNext()) {
-			Map.Entry entry = (Map.Entry) itr.next();
-			VertexCacheKey key = (VertexCacheKey) entry.getKey();
-			if (id.equals(key.id) && range.isIncluded(Version.parseVersion(key.version))) {
-				match = (IPluginVertex) entry.getValue();
-				break;
-			}
+		return pluginVertexIndex.find(id, range);
+	}
+	
+	/**
+	 * Adds the specified <code>vertex</code> to the plugin vertex cache, and to the version index of the cache.
+	 * 
+	 * @param key    the key of the vertex
+	 * @param vertex the <code>IPluginVertex</code> to cache
+	 */
+	private void cachePluginVertex(VertexCacheKey key, IPluginVertex vertex) {
+		pluginVertexCache.put(key, vertex);
+		pluginVertexIndex.put(key.id, key.version, vertex);
+	}
+	
+	/**
+	 * A pending source vertex of the plug-in dependency graph, with its dependencies and the index of the next 
+	 * dependency to process.
+	 */
+	private static final class SourceFrame {
+		final IPluginVertex source;
+		final Object[] deps;
+		int next = 0;
+		SourceFrame(IPluginVertex source, Object[] deps) {
+			this.source = source;
+			this.deps = deps;
 		}
-		return match;
 	}
 	
 	/**
-	 * Computes and adds all plug-in dependencies/edges from the specified <code>source</code> plug-in vertex. 
-	 * Further dependencies of the representative plug-in vertex will also be computed and added to <code>graph</code> 
+	 * Computes and adds all plug-in dependencies/edges from the specified <code>root</code> plug-in vertex. 
+	 * Further dependencies of the representative plug-in vertices will also be computed and added to <code>graph</code> 
 	 * automatically.
 	 * 
-	 * @param graph  the plug-in dependency <code>DiGraph</code>
-	 * @param source the source <code>IPluginVertex</code> from which the plug-in dependencies/edges will be created
+	 * <p>
+	 * The dependencies are walked depth first, in the same order as a recursive walk would, but the pending vertices 
+	 * are kept on an explicit stack so that long dependency chains cannot overflow the call stack.
+	 * </p>
+	 * 
+	 * @param graph    the plug-in dependency <code>DiGraph</code>
+	 * @param root     the root <code>IPluginVertex</code> from which the plug-in dependencies/edges will be created
+	 * @param reversed <code>true</code> to walk the dependent bundles instead of the dependencies, with reversed edges
+	 * @param monitor  the progress monitor checked between the dependencies, the walk stopping once it is cancelled
 	 * 
 	 * @see {@link org.eclipse.pde.internal.visualization.dependency.views.AnalysisUtil#getDependencies(Object)}
+	 * @see {@link org.eclipse.pde.internal.visualization.dependency.views.DependencyUtil#getDirectDependendBundles(Object)}
 	 */
-	private void calculateAndAddPluginDependencies(DiGraph graph, IPluginVertex source) {
+	private void calculateAndAddPluginDependencies(DiGraph graph, IPluginVertex root, boolean reversed, IProgressMonitor monitor) {
+		List stack = new ArrayList();//List<SourceFrame>
+		pushSource(stack, root, reversed);
+		while (!stack.isEmpty() && !monitor.isCanceled()) {
+			SourceFrame frame = (SourceFrame) stack.get(stack.size() - 1);
+			if (frame.next == frame.deps.length) {
+				stack.remove(stack.size() - 1);
+				continue;
+			}
+			
+			IPDEDependencyVertex vertex = findOrCreateDependencyVertex(frame.deps[frame.next++]);
+			if (vertex == null) {
+				continue;
+			}
+			if (reversed) {
+				graph.addEdge(vertex, frame.source);
+			}
+			else {
+				graph.addEdge(frame.source, vertex);
+			}
+			if (vertex instanceof IPluginVertex) {
+				pushSource(stack, (IPluginVertex) vertex, reversed);
+			}
+		}
+	}
+	
+	private void pushSource(List stack, IPluginVertex source, boolean reversed) {
 		if (processedSources.contains(source)) {
 			return;
 		}
 		processedSources.add(source);
 		
-		Object[] deps = AnalysisUtil.getDependencies(source.getModelObject());
-		for (int i = 0; i < deps.length; i++) {
-			Object dep = deps[i];
-			if (dep instanceof BaseDescription) {
-				BaseDescription bd = (BaseDescription) dep;
-				VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
-				IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
-				if (vertex == null) {
-					vertex = new PluginVertex(dep);
-					pluginVertexCache.put(key, vertex);
-				}
-				graph.addEdge(source, vertex);
-				calculateAndAddPluginDependencies(graph, vertex);
+		long start = System.nanoTime();
+		Object[] deps = (reversed ? DependencyUtil.getDirectDependendBundles(source.getModelObject()) : AnalysisUtil.getDependencies(source.getModelObject()));
+		timings.add(GraphBuildTimings.DEPENDENCIES, System.nanoTime() - start);
+		stack.add(new SourceFrame(source, deps));
+	}
+	
+	/**
+	 * Returns the (cached) vertex representing the specified dependency: an <code>IPluginVertex</code> for a resolved or an
+	 * optional bundle, an <code>UnresolvedModelVertex</code> for a mandatory unresolved bundle, or <code>null</code> for any
+	 * other dependency.
+	 * 
+	 * @param dep the dependency
+	 * 
+	 * @return the (cached) vertex representing the specified dependency.
+	 */
+	private IPDEDependencyVertex findOrCreateDependencyVertex(Object dep) {
+		if (dep instanceof BaseDescription) {
+			BaseDescription bd = (BaseDescription) dep;
+			VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
+			IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
+			if (vertex == null) {
+				vertex = new PluginVertex(dep);
+				cachePluginVertex(key, vertex);
 			}
-			else if (dep instanceof BundleSpecification) { // Unresolved bundle
-				BundleSpecification bs = (BundleSpecification) dep;
-				if (bs.isOptional()){ // add as a IPluginVertex because it is optional
-					VersionRange range = bs.getVersionRange();
-					if (range == null) {
-						range = VersionRange.emptyRange;
-					}
-					
-					IPluginVertex vertex = findPluginVertexMatchingIdAndVersionRange(bs.getName(), range);
-					if (vertex == null) {
-						vertex = new PluginVertex(bs);
-						VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
-						pluginVertexCache.put(key, vertex);
-					}
-					graph.addEdge(source, vertex);
-					calculateAndAddPluginDependencies(graph, vertex);
-				} 
-				else { // add as a UnresolvedModelVertex because is a mandatory bundle.
-					VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : safeVersion(bs.getBundle().getVersion().toString())); //$NON-NLS-1$
-					UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) pluginErrorVertexCache.get(key);
-					if (errorVertex == null) {
-						errorVertex = new UnresolvedModelVertex(bs, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
-						pluginErrorVertexCache.put(key, errorVertex);
-					}
-					graph.addEdge(source, errorVertex);
+			return vertex;
+		}
+		else if (dep instanceof BundleSpecification) { // Unresolved bundle
+			BundleSpecification bs = (BundleSpecification) dep;
+			if (bs.isOptional()){ // add as a IPluginVertex because it is optional
+				VersionRange range = bs.getVersionRange();
+				if (range == null) {
+					range = VersionRange.emptyRange;
+				}
+				
+				IPluginVertex vertex = findPluginVertexMatchingIdAndVersionRange(bs.getName(), range);
+				if (vertex == null) {
+					vertex = new PluginVertex(bs);
+					VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
+					cachePluginVertex(key, vertex);
 				}
+				return vertex;
+			} 
+			// add as a UnresolvedModelVertex because is a mandatory bundle.
+			VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : safeVersion(bs.getBundle().getVersion().toString())); //$NON-NLS-1$
+			UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) pluginErrorVertexCache.get(key);
+			if (errorVertex == null) {
+				errorVertex = new UnresolvedModelVertex(bs, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
+				pluginErrorVertexCache.put(key, errorVertex);
 			}
+			return errorVertex;
 		}
+		return null;
 	}
 
 	public DiGraph createPluginDependencyGraph(final IPluginVertex root) {
-		Assert.isNotNull(root);
-		clearCaches();
-		try {
-			DiGraph graph = new DiGraph();
-			graph.addVertex(root);
-			// Make sure to add the root to vertex cache.
-			Object model = root.getModelObject();
-			if (model instanceof BaseDescription) {
-				BaseDescription bd = (BaseDescription) model;
-				VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
-				pluginVertexCache.put(key, root);
-			}
-			calculateAndAddPluginDependencies(graph, root);
-			return graph;
-		}
-		finally {
-			clearCaches();
-		}
+		return createGraph(root, false, null);
 	}
 	
-	//TODO
 	public DiGraph createReversedPluginDependencyGraph(final IPluginVertex root) {
+		return createGraph(root, true, null);
+	}
+	
+	/**
+	 * Returns the dependency graph of the specified <code>root</code>, or the part of it built so far if the progress
+	 * monitor is cancelled.
+	 * 
+	 * @param root    the root <code>IPluginVertex</code>
+	 * @param monitor the progress monitor used to cancel the build, or <code>null</code>
+	 * 
+	 * @return the (partial if cancelled) dependency graph of the specified <code>root</code>.
+	 */
+	public DiGraph createPluginDependencyGraph(final IPluginVertex root, IProgressMonitor monitor) {
+		return createGraph(root, false, monitor);
+	}
+	
+	/**
+	 * Returns the graph of the dependents of the specified <code>root</code>, or the part of it built so far if the
+	 * progress monitor is cancelled.
+	 * 
+	 * @param root    the root <code>IPluginVertex</code>
+	 * @param monitor the progress monitor used to cancel the build, or <code>null</code>
+	 * 
+	 * @return the (partial if cancelled) graph of the dependents of the specified <code>root</code>.
+	 */
+	public DiGraph createReversedPluginDependencyGraph(final IPluginVertex root, IProgressMonitor monitor) {
+		return createGraph(root, true, monitor);
+	}
+	
+	private DiGraph createGraph(IPluginVertex root, boolean reversed, IProgressMonitor monitor) {
 		Assert.isNotNull(root);
+		if (monitor == null) {
+			monitor = new NullProgressMonitor();
+		}
+		timings.reset();
+		long start = System.nanoTime();
+		if (parallel) {
+			try {
+				return createGraphInParallel(root, reversed, monitor);
+			}
+			finally {
+				timings.addTotal(System.nanoTime() - start);
+				traceTimings(reversed);
+			}
+		}
 		clearCaches();
 		try {
 			DiGraph graph = new DiGraph();
@@ -197,67 +290,30 @@ public final class PluginDependencyHelper {
 			if (model instanceof BaseDescription) {
 				BaseDescription bd = (BaseDescription) model;
 				VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
-				pluginVertexCache.put(key, root);
+				cachePluginVertex(key, root);
 			}
-			xxx(graph, root);
+			calculateAndAddPluginDependencies(graph, root, reversed, monitor);
 			return graph;
 		}
 		finally {
 			clearCaches();
+			timings.addTotal(System.nanoTime() - start);
+			traceTimings(reversed);
 		}
 	}
 	
-	private void xxx(DiGraph graph, IPluginVertex source) {
-		if (processedSources.contains(source)) {
-			return;
-		}
-		processedSources.add(source);
-		
-		Object[] deps = DependencyUtil.getDirectDependendBundles(source.getModelObject());
-		for (int i = 0; i < deps.length; i++) {
-			Object dep = deps[i];
-			if (dep instanceof BaseDescription) {
-				BaseDescription bd = (BaseDescription) dep;
-				VertexCacheKey key = new VertexCacheKey(bd.getName(), (bd.getVersion() == null ? safeVersion(null) : bd.getVersion().toString()));
-				IPluginVertex vertex = (IPluginVertex) pluginVertexCache.get(key);
-				if (vertex == null) {
-					vertex = new PluginVertex(dep);
-					pluginVertexCache.put(key, vertex);
-				}
-				//graph.addEdge(source, vertex);
-				graph.addEdge(vertex, source);
-				xxx(graph, vertex);
-			}
-			else if (dep instanceof BundleSpecification) { // Unresolved bundle
-				BundleSpecification bs = (BundleSpecification) dep;
-				if (bs.isOptional()){ // add as a IPluginVertex because it is optional
-					VersionRange range = bs.getVersionRange();
-					if (range == null) {
-						range = VersionRange.emptyRange;
-					}
-					
-					IPluginVertex vertex = findPluginVertexMatchingIdAndVersionRange(bs.getName(), range);
-					if (vertex == null) {
-						vertex = new PluginVertex(bs);
-						VertexCacheKey key = new VertexCacheKey(bs.getName(), range.toString());
-						pluginVertexCache.put(key, vertex);
-					}
-					//graph.addEdge(source, vertex);
-					graph.addEdge(vertex, source);
-					xxx(graph, vertex);
-				} 
-				else { // add as a UnresolvedModelVertex because is a mandatory bundle.
-					VertexCacheKey key = new VertexCacheKey(bs.getName(), bs.getBundle().getVersion() == null ? "" : safeVersion(bs.getBundle().getVersion().toString())); //$NON-NLS-1$
-					UnresolvedModelVertex errorVertex = (UnresolvedModelVertex) pluginErrorVertexCache.get(key);
-					if (errorVertex == null) {
-						errorVertex = new UnresolvedModelVertex(bs, key.id, key.version, UnresolvedModelVertex.TYPE_PLUGIN);
-						pluginErrorVertexCache.put(key, errorVertex);
-					}
-					//graph.addEdge(source, errorVertex);
-					graph.addEdge(errorVertex, source);
-				}
-			}
-		}
+	private void traceTimings(boolean reversed) {
+		timings.trace(reversed ? "Reversed plug-in graph" : "Plug-in graph"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	private DiGraph createGraphInParallel(IPluginVertex root, boolean reversed, IProgressMonitor monitor) {
+		PluginDependencyGraphBuilder builder = new PluginDependencyGraphBuilder(reversed, timings);
+		DiGraph graph = new DiGraph();
+		graph.addVertex(root);
+		// Make sure to add the root to vertex cache.
+		builder.registerPluginVertex(root);
+		builder.addDependencies(graph, Collections.singletonList(root), monitor);
+		return graph;
 	}
 	
 }
@@ -13,15 +13,18 @@ package org.eclipse.pde.internal.visualization.dependency.views;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.osgi.service.resolver.BundleSpecification;
 import org.eclipse.osgi.service.resolver.ExportPackageDescription;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
 
 /**
  * General utility classes for dealing with bundle dependencies.
@@ -30,73 +33,67 @@ import org.eclipse.osgi.service.resolver.ExportPackageDescription;
  */
 public class AnalysisUtil {
 
+	/**
+	 * Returns a shortest path from root to bundle, found by a breadth-first
+	 * search over the (cached) dependencies that stops as soon as bundle is
+	 * reached. The path is returned from bundle back to root; only bundle is
+	 * returned if it cannot be reached from root.
+	 * 
+	 * @return the path from bundle back to root
+	 */
 	public static Object[] getPath(Object root, Object bundle) {
-		LinkedList q = new LinkedList();
-		Set orderedSet = new HashSet();
-		LinkedList orderedList = new LinkedList();
-		q.add(root);
-		while (!q.isEmpty()) {
-			Object head = q.remove(0);
-			if (!orderedSet.contains(head)) {
-				orderedSet.add(head);
-				orderedList.add(head);
-				buildQueue(head, q);
-			}
-		}
-		Object[] path = modifiedDijkstra(orderedList, root, bundle);
-		return path;
-	}
-
-	private static void buildQueue(Object root, LinkedList q) {
-		Object[] descriptions = getDependencies(root);
-		if (descriptions == null || descriptions.length == 0) {
-			return;
-		}
-		for (int i = 0; i < descriptions.length; i++) {
-			q.add(descriptions[i]);
-		}
-	}
-
-	public static Object[] modifiedDijkstra(LinkedList q, Object s, Object t) {
-		HashMap previous = new HashMap();
-		HashMap dValues = new HashMap();
-		for (Iterator iter = q.iterator(); iter.hasNext();) {
-			dValues.put(iter.next(), new Integer(Integer.MAX_VALUE / 10));
-		}
-		dValues.put(s, new Integer(0));
-
-		while (!q.isEmpty()) {
-			Object head = q.remove(0);
-			Object[] outgoing = getDependencies(head);
-			if (outgoing == null) {
-				// @tag PDE bug : I get null in my array of dependencies 
-				continue;
-			}
-			for (int i = 0; i < outgoing.length; i++) {
-				Object v = outgoing[i];
-				if (((Integer) dValues.get(head)).intValue() + 1 < ((Integer) dValues.get(v)).intValue()) {
-					previous.put(v, head);
-					dValues.put(v, new Integer(((Integer) dValues.get(head)).intValue() + 1));
+		Map parents = new HashMap();
+		List queue = new ArrayList();
+		parents.put(root, null);
+		queue.add(root);
+		for (int head = 0; head < queue.size() && !parents.containsKey(bundle); head++) {
+			Object current = queue.get(head);
+			Object[] dependencies = getDependencies(current);
+			for (int i = 0; i < dependencies.length; i++) {
+				if (dependencies[i] != null && !parents.containsKey(dependencies[i])) {
+					parents.put(dependencies[i], current);
+					if (dependencies[i].equals(bundle)) {
+						break;
+					}
+					queue.add(dependencies[i]);
 				}
 			}
 		}
-		LinkedList path = new LinkedList();
-		Object currentNode = t;
-		while (previous.containsKey(currentNode)) {
-			path.add(currentNode);
-			currentNode = previous.get(currentNode);
+		List path = new ArrayList();
+		path.add(bundle);
+		if (parents.containsKey(bundle)) {
+			for (Object current = parents.get(bundle); current != null; current = parents.get(current)) {
+				path.add(current);
+			}
 		}
-		path.add(currentNode);
 		return path.toArray(new Object[path.size()]);
 	}
 
+	/**
+	 * Finds the callers of bundle within bundles[]: the bundles that directly depend on it.
+	 * 
+	 * @return the callers of bundle within bundles[]
+	 */
 	public static BundleDescription[] getCallers(BundleDescription bundle, BundleDescription[] bundles) {
 		HashSet callers = new HashSet();
+		State state = getContainingState(bundle, bundles);
+		if (state != null) {
+			Set candidates = new HashSet(Arrays.asList(bundles));
+			Object[] direct = PlatformDependencyIndex.getIndex(state).getCallers(bundle);
+			for (int i = 0; i < direct.length; i++) {
+				if (candidates.contains(direct[i])) {
+					callers.add(direct[i]);
+				}
+			}
+			return (BundleDescription[]) callers.toArray(new BundleDescription[callers.size()]);
+		}
 		for (int i = 0; i < bundles.length; i++) {
-			HashSet hashSet = new HashSet();
-			hashSet.addAll(Arrays.asList(getDependencies(bundles[i])));
-			if (hashSet.contains(bundle)) {
-				callers.add(bundles[i]);
+			Object[] dependencies = getDependencies(bundles[i]);
+			for (int j = 0; j < dependencies.length; j++) {
+				if (bundle.equals(dependencies[j])) {
+					callers.add(bundles[i]);
+					break;
+				}
 			}
 		}
 		return (BundleDescription[]) callers.toArray(new BundleDescription[callers.size()]);
@@ -109,6 +106,16 @@ public class AnalysisUtil {
 	 */
 	public static Object[] getAllCallers(Object bundle, Object[] bundles) {
 		HashSet callers = new HashSet();
+		State state = getContainingState(bundle, bundles);
+		if (state != null) {
+			Set allCallers = PlatformDependencyIndex.getIndex(state).getAllCallers(bundle);
+			for (int i = 0; i < bundles.length; i++) {
+				if (allCallers.contains(bundles[i])) {
+					callers.add(bundles[i]);
+				}
+			}
+			return callers.toArray(new Object[callers.size()]);
+		}
 		for (int i = 0; i < bundles.length; i++) {
 			HashSet hashSet = new HashSet();
 			hashSet.addAll(Arrays.asList(getPrerequisites(new Object[] { bundles[i] })));
@@ -119,6 +126,82 @@ public class AnalysisUtil {
 		return callers.toArray(new Object[callers.size()]);
 	}
 
+	/**
+	 * Returns the <code>Set</code> of all the bundles of the resolver state of bundle that directly or indirectly
+	 * depend on it, including bundle itself. Only bundle is returned if it does not belong to a state.
+	 * 
+	 * @return the transitive callers of bundle
+	 */
+	public static Set getAllCallers(Object bundle) {
+		State state = getContainingState(bundle, new Object[0]);
+		if (state == null) {
+			return Collections.singleton(bundle);
+		}
+		return PlatformDependencyIndex.getIndex(state).getAllCallers(bundle);
+	}
+
+	/* Returns the state of the specified bundle (or of the bundle declaring it), or else of the first of 'bundles' having one */
+	private static State getContainingState(Object bundle, Object[] bundles) {
+		State state = null;
+		if (bundle instanceof BundleDescription) {
+			state = ((BundleDescription) bundle).getContainingState();
+		}
+		else if (bundle instanceof BundleSpecification && ((BundleSpecification) bundle).getBundle() != null) {
+			state = ((BundleSpecification) bundle).getBundle().getContainingState();
+		}
+		for (int i = 0; state == null && i < bundles.length; i++) {
+			if (bundles[i] instanceof BundleDescription) {
+				state = ((BundleDescription) bundles[i]).getContainingState();
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Computes the shortest paths to target from all the bundles within the
+	 * prerequisites of root, with a single breadth-first search backward from
+	 * target. The paths form a tree: every bundle that has a path to target is
+	 * mapped to the bundle it depends on next on its shortest path, and target
+	 * itself is not mapped.
+	 * 
+	 * @return a Map of each bundle with a path to target to the next bundle on
+	 *         the path
+	 */
+	public static Map getShortestPathTree(Object root, Object target) {
+		Object[] prerequisites = getPrerequisites(new Object[] { root });
+		// the callers of the prerequisites of root, within the prerequisites of root
+		Map callers = new HashMap(prerequisites.length * 2);
+		for (int i = 0; i < prerequisites.length; i++) {
+			Object[] dependencies = getDependencies(prerequisites[i]);
+			for (int j = 0; j < dependencies.length; j++) {
+				List list = (List) callers.get(dependencies[j]);
+				if (list == null) {
+					list = new ArrayList(2);
+					callers.put(dependencies[j], list);
+				}
+				list.add(prerequisites[i]);
+			}
+		}
+		Map next = new HashMap();
+		List queue = new ArrayList();
+		queue.add(target);
+		for (int head = 0; head < queue.size(); head++) {
+			Object current = queue.get(head);
+			List list = (List) callers.get(current);
+			if (list == null) {
+				continue;
+			}
+			for (int i = 0; i < list.size(); i++) {
+				Object caller = list.get(i);
+				if (caller != target && !next.containsKey(caller)) {
+					next.put(caller, current);
+					queue.add(caller);
+				}
+			}
+		}
+		return next;
+	}
+
 	public static Object[] getPrerequisites(Object[] bundles) {
 		if (bundles == null || bundles.length == 0) {
 			return new BundleDescription[0];
@@ -141,14 +224,20 @@ public class AnalysisUtil {
 		return descriptionList;
 	}
 
-	
-	public static Object[] getDependencies(Object bundle) {
 
+	/**
+	 * Returns the direct dependencies of the specified bundle, from the shared {@link DependencyCache}: the returned
+	 * array must not be modified.
+	 */
+	public static Object[] getDependencies(Object bundle) {
 		if (bundle == null || bundle instanceof BundleSpecification) {
 			return new Object[0];
 		}
-		BundleDescription bundleDescription = (BundleDescription) bundle;
+		return DependencyCache.getDefault().getDependencies((BundleDescription) bundle);
+	}
 
+	/* Computes the direct dependencies of the specified bundle; called by the DependencyCache */
+	static Object[] computeDependencies(BundleDescription bundleDescription) {
 		Collection c = AnalysisUtil.getDescription(bundleDescription.getRequiredBundles());
 		c.addAll(getExportedDescription(bundleDescription, bundleDescription.getResolvedImports()));
 		
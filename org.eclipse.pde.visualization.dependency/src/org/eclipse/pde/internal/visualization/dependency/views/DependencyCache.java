@@ -0,0 +1,215 @@
+package org.eclipse.pde.internal.visualization.dependency.views;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.osgi.service.resolver.StateDelta;
+import org.eclipse.pde.internal.visualization.dependency.Activator;
+import org.eclipse.pde.internal.visualization.dependency.model.StateChanges;
+
+/**
+ * Cache of the direct dependencies of the bundles of resolver <code>State</code>s, as computed by
+ * {@link AnalysisUtil#getDependencies(Object)}.
+ * <p>
+ * The dependencies of a bundle are computed once, and the same array is returned by every later call: the returned
+ * arrays are shared, and must not be modified. The bundles of every state asked for are cached separately (softly
+ * referenced, so that the states can still be collected). When the time stamp of a state changes (i.e. the state was
+ * resolved again), only the changed bundles, and the bundles depending on a removed or replaced bundle, are dropped
+ * if the resolutions since the previous time stamp were recorded with {@link #stateResolved(StateDelta)}; otherwise
+ * all the bundles of the state are dropped. Bundles that do not belong to a state are not cached. The number of calls
+ * answered from the cache (hits) and computing the dependencies (misses) for a state is traced when all its bundles
+ * are dropped, if the <code>debug/caches</code> option is on.
+ * </p>
+ * <p>
+ * The cache is thread safe. The dependencies are computed outside of the lock, so two threads may compute the
+ * dependencies of the same bundle; the first result stored is kept.
+ * </p>
+ */
+public final class DependencyCache {
+
+	private static final Object[] NO_DEPENDENCIES = new Object[0];
+
+	private static final DependencyCache INSTANCE = new DependencyCache();
+
+	/* Map<State, StateCache> of the states asked for, weakly keyed so the states can be collected */
+	private final Map caches = new WeakHashMap(4);
+
+	/* The cached dependencies of the bundles of a state, and the changes of the state since they were computed */
+	private static final class StateCache {
+		long timeStamp;
+		/* SoftReference<Map<BundleDescription, Object[]>> */
+		SoftReference dependencies = null;
+		final StateChanges changes;
+		long hits = 0;
+		long misses = 0;
+
+		StateCache(long timeStamp) {
+			this.timeStamp = timeStamp;
+			this.changes = new StateChanges(timeStamp);
+		}
+	}
+
+	/**
+	 * Returns the shared dependency cache.
+	 * @return the shared dependency cache
+	 */
+	public static DependencyCache getDefault() {
+		return INSTANCE;
+	}
+
+	private DependencyCache() {}
+
+	/**
+	 * Returns the direct dependencies of the specified <code>bundle</code>: the <code>BundleDescription</code>s of its
+	 * required bundles, of the exporters of its imported packages and of its host, and the
+	 * <code>BundleSpecification</code>s of its unresolved required bundles.
+	 * <p>
+	 * The returned array is shared, and must not be modified.
+	 * </p>
+	 *
+	 * @param bundle the bundle (cannot be <code>null</code>)
+	 *
+	 * @return the direct dependencies of the specified <code>bundle</code>.
+	 * @throws IllegalArgumentException if the <code>bundle</code> is <code>null</code>
+	 */
+	public Object[] getDependencies(BundleDescription bundle) {
+		if (bundle == null) {
+			throw new IllegalArgumentException("The 'bundle' cannot be null"); //$NON-NLS-1$
+		}
+		State containingState = bundle.getContainingState();
+		if (containingState == null) {
+			return computeDependencies(bundle);
+		}
+		long currentTimeStamp = containingState.getTimeStamp();
+		Map dependencies;
+		synchronized (this) {
+			StateCache cache = getStateCache(containingState, currentTimeStamp);
+			dependencies = getDependencyMap(cache);
+			Object[] cached = (Object[]) dependencies.get(bundle);
+			if (cached != null) {
+				cache.hits++;
+				return cached;
+			}
+			cache.misses++;
+		}
+		Object[] computed = computeDependencies(bundle);
+		synchronized (this) {
+			// not stored if the bundles of the state were dropped meanwhile
+			StateCache cache = (StateCache) caches.get(containingState);
+			if (cache != null && cache.timeStamp == currentTimeStamp && cache.dependencies != null && cache.dependencies.get() == dependencies) {
+				Object[] cached = (Object[]) dependencies.get(bundle);
+				if (cached != null) {
+					return cached;
+				}
+				dependencies.put(bundle, computed);
+			}
+		}
+		return computed;
+	}
+
+	/**
+	 * Records the bundles changed by a resolution of a state, so that only the bundles affected by the changes are
+	 * dropped when the dependencies of a bundle of the state are next asked for.
+	 *
+	 * @param delta the delta of the resolution
+	 */
+	public void stateResolved(StateDelta delta) {
+		if (delta == null) {
+			return;
+		}
+		State state = delta.getState();
+		StateCache cache;
+		synchronized (this) {
+			cache = (StateCache) caches.get(state);
+		}
+		if (cache != null) {
+			cache.changes.record(delta, state.getTimeStamp());
+		}
+	}
+
+	/**
+	 * Clears the cache.
+	 */
+	public synchronized void clear() {
+		for (Iterator iterator = caches.values().iterator(); iterator.hasNext();) {
+			traceStatistics((StateCache) iterator.next(), "cleared"); //$NON-NLS-1$
+		}
+		caches.clear();
+	}
+
+	/* Returns the cache of the specified state, dropping its changed bundles if it was resolved again; called with the lock held */
+	private StateCache getStateCache(State state, long timeStamp) {
+		StateCache cache = (StateCache) caches.get(state);
+		if (cache == null) {
+			cache = new StateCache(timeStamp);
+			caches.put(state, cache);
+		}
+		else if (cache.timeStamp != timeStamp) {
+			Set changed = cache.changes.restart(cache.timeStamp, timeStamp);
+			Map dependencies = (cache.dependencies == null ? null : (Map) cache.dependencies.get());
+			if (changed != null && dependencies != null) {
+				removeChanged(state, dependencies, changed);
+			}
+			else {
+				traceStatistics(cache, "state resolved again"); //$NON-NLS-1$
+				cache.dependencies = null;
+			}
+			cache.timeStamp = timeStamp;
+		}
+		return cache;
+	}
+
+	/*
+	 * Removes the changed bundles, and the bundles depending on a changed bundle that is no longer in the state (removed
+	 * or replaced), from the dependencies cached for a state
+	 */
+	private static void removeChanged(State state, Map dependencies, Set changed) {
+		for (Iterator iterator = dependencies.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry entry = (Map.Entry) iterator.next();
+			if (changed.contains(new Long(((BundleDescription) entry.getKey()).getBundleId()))) {
+				iterator.remove();
+				continue;
+			}
+			Object[] deps = (Object[]) entry.getValue();
+			for (int i = 0; i < deps.length; i++) {
+				if (deps[i] instanceof BundleDescription) {
+					long id = ((BundleDescription) deps[i]).getBundleId();
+					if (changed.contains(new Long(id)) && state.getBundle(id) != deps[i]) {
+						iterator.remove();
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/* Returns the dependencies cached for a state, (re)creating the map if needed; called with the lock held */
+	private static Map getDependencyMap(StateCache cache) {
+		Map dependencies = (cache.dependencies == null ? null : (Map) cache.dependencies.get());
+		if (dependencies == null) {
+			dependencies = new HashMap(0);
+			cache.dependencies = new SoftReference(dependencies);
+		}
+		return dependencies;
+	}
+
+	/* Traces and resets the hits and misses of the specified state cache; called with the lock held */
+	private static void traceStatistics(StateCache cache, String reason) {
+		if (Activator.DEBUG_CACHES && cache.hits + cache.misses > 0) {
+			Activator.trace("Dependency cache dropped (" + reason + "): " + cache.hits + " hits, " + cache.misses + " misses"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+		cache.hits = cache.misses = 0;
+	}
+
+	private static Object[] computeDependencies(BundleDescription bundle) {
+		Object[] computed = AnalysisUtil.computeDependencies(bundle);
+		return (computed.length == 0 ? NO_DEPENDENCIES : computed);
+	}
+
+}
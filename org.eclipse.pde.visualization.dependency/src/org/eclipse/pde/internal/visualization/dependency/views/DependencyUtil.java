@@ -13,12 +13,14 @@ package org.eclipse.pde.internal.visualization.dependency.views;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
 
 /**
  * Provides some util methods to return bundles that depend on the
@@ -60,6 +62,44 @@ public class DependencyUtil {
 		}
 	}
 	
+	/**
+	 * Calculates the transitive closure of all dependent bundles of the given
+	 * bundle, as a set of the ids of the bundles in the given dependency index.
+	 * Dependent bundles that are not in the index are left out.
+	 * @param bundle
+	 * @param index the dependency index of the state of the bundle
+	 * @return the ids of the bundles of the transitive closure
+	 */
+	public static BitSet getDependentBundleIds(BundleDescription bundle, PlatformDependencyIndex index) {
+		BitSet closure = new BitSet(index.size());
+		// dependent bundles outside of the index are only followed
+		Set notIndexed = new HashSet();
+		List queue = new ArrayList();
+		markReached(bundle, index, closure, notIndexed);
+		queue.add(bundle);
+		for (int head = 0; head < queue.size(); head++) {
+			BundleDescription[] dependents = ((BundleDescription) queue.get(head)).getDependents();
+			for (int i = 0; i < dependents.length; i++) {
+				if (markReached(dependents[i], index, closure, notIndexed)) {
+					queue.add(dependents[i]);
+				}
+			}
+		}
+		return closure;
+	}
+
+	private static boolean markReached(BundleDescription bundle, PlatformDependencyIndex index, BitSet closure, Set notIndexed) {
+		int id = index.getId(bundle);
+		if (id < 0) {
+			return notIndexed.add(bundle);
+		}
+		if (closure.get(id)) {
+			return false;
+		}
+		closure.set(id);
+		return true;
+	}
+
 	/**
 	 * Returns a set of directly dependent bundles to the given element.
 	 * @param element
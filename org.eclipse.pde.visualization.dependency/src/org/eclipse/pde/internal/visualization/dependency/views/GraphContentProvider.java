@@ -10,8 +10,14 @@
  ******************************************************************************/
 package org.eclipse.pde.internal.visualization.dependency.views;
 
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.pde.internal.visualization.dependency.model.PlatformDependencyIndex;
 import org.eclipse.zest.core.viewers.IGraphEntityContentProvider;
 
 class GraphContentProvider implements IGraphEntityContentProvider {
@@ -19,10 +25,21 @@ class GraphContentProvider implements IGraphEntityContentProvider {
 	Object currentBundle = null;
 	private boolean reverseBundleDependencies;
 
+	/*
+	 * The transitive closure of the dependent bundles of currentBundle, computed once per input for the reverse mode:
+	 * the closure, and its members as a bit set over the ids of the dependency index of the state of currentBundle.
+	 */
+	private Object[] dependentClosure = null;
+	private PlatformDependencyIndex dependentClosureIndex = null;
+	private BitSet dependentClosureIds = null;
 
 	private Object[] getDependencies(Object bundle) {
 		if (bundle != null) {
 			if (reverseBundleDependencies) {
+				if (bundle == currentBundle) {
+					computeDependentClosure();
+					return dependentClosure;
+				}
 				return DependencyUtil.getDependentBundles(bundle);
 			}
 			return AnalysisUtil.getPrerequisites(new Object[] { currentBundle });
@@ -33,7 +50,23 @@ class GraphContentProvider implements IGraphEntityContentProvider {
 	// Returns all entities that should be linked with the given entity
 	public Object[] getConnectedTo(Object entity) {
 		if (reverseBundleDependencies) {
-			return DependencyUtil.getConnectedBundles(entity, currentBundle);
+			computeDependentClosure();
+			if (dependentClosureIds == null) {
+				return DependencyUtil.getConnectedBundles(entity, currentBundle);
+			}
+			if (!(entity instanceof BundleDescription)) {
+				return new Object[0];
+			}
+			// the dependencies of the entity that are in the closure
+			Object[] dependencies = AnalysisUtil.getDependencies(entity);
+			Set connected = new HashSet(dependencies.length * 2);
+			for (int i = 0; i < dependencies.length; i++) {
+				int id = dependentClosureIndex.getId(dependencies[i]);
+				if (id >= 0 && dependentClosureIds.get(id)) {
+					connected.add(dependencies[i]);
+				}
+			}
+			return connected.toArray();
 		}
 		return AnalysisUtil.getDependencies(entity);
 	}
@@ -54,7 +87,27 @@ class GraphContentProvider implements IGraphEntityContentProvider {
 
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 		currentBundle = newInput;
+		dependentClosure = null;
+		dependentClosureIndex = null;
+		dependentClosureIds = null;
+	}
 
+	private void computeDependentClosure() {
+		if (dependentClosure != null) {
+			return;
+		}
+		State state = (currentBundle instanceof BundleDescription ? ((BundleDescription) currentBundle).getContainingState() : null);
+		if (state == null) {
+			dependentClosure = DependencyUtil.getDependentBundles(currentBundle);
+			return;
+		}
+		dependentClosureIndex = PlatformDependencyIndex.getIndex(state);
+		dependentClosureIds = DependencyUtil.getDependentBundleIds((BundleDescription) currentBundle, dependentClosureIndex);
+		dependentClosure = new Object[dependentClosureIds.cardinality()];
+		int i = 0;
+		for (int id = dependentClosureIds.nextSetBit(0); id >= 0; id = dependentClosureIds.nextSetBit(id + 1)) {
+			dependentClosure[i++] = dependentClosureIndex.getBundle(id);
+		}
 	}
 
 	public void setReverseBundleDependencies(boolean enable) {
@@ -11,9 +11,9 @@
 package org.eclipse.pde.internal.visualization.dependency.views;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Set;
 import java.util.Stack;
 
 import org.eclipse.draw2d.SWTGraphics;
@@ -398,16 +398,14 @@ public class PluginVisualizationView extends ViewPart implements IZoomableWorkbe
 
 		if (errorReporting != null) {
 			if (errorReporting.getClass() == UnresolvedError.class) {
+				// computed once, not for every element: only the elements of the graph are filtered anyway
+				final Set allCallers = AnalysisUtil.getAllCallers(errorReporting.getBundle());
 				viewer.addFilter(new ViewerFilter() {
 					public boolean select(Viewer viewer, Object parentElement, Object element) {
 						if (element instanceof EntityConnectionData) {
 							return true;
 						}
-						Object[] allCallers = AnalysisUtil.getAllCallers(errorReporting.getBundle(), contentProvider.getElements(currentNode));
-						if (Arrays.asList(allCallers).contains(element)) {
-							return true;
-						}
-						return false;
+						return allCallers.contains(element);
 					}
 				});
 			}
@@ -31,11 +31,11 @@ public class ShortestPathDependencyAnalysis extends AbstractVisualizationLabelPr
 		if (this.getSelected() != null) {
 			Object[] descriptions = AnalysisUtil.getPath(this.rootNode, this.getSelected());
 
-			for (int i = 0; i < descriptions.length; i++) {
-				for (int j = 0; j < descriptions.length; j++) {
-					EntityConnectionData entityConnectionData = new EntityConnectionData(descriptions[i], descriptions[j]);
-					interestingRels.add(entityConnectionData);
-				}
+			// The path goes from the selected node back to the root node: 
+			// each node depends on the one before it.
+			for (int i = 1; i < descriptions.length; i++) {
+				EntityConnectionData entityConnectionData = new EntityConnectionData(descriptions[i], descriptions[i - 1]);
+				interestingRels.add(entityConnectionData);
 			}
 			interestingEntities.addAll(Arrays.asList(descriptions));
 		}
@@ -10,8 +10,8 @@
  ******************************************************************************/
 package org.eclipse.pde.internal.visualization.dependency.views;
 
-import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 
 import org.eclipse.zest.core.viewers.EntityConnectionData;
 import org.eclipse.zest.core.viewers.GraphViewer;
@@ -47,38 +47,39 @@ public class SmartPathDependencyAnalysis extends AbstractVisualizationLabelProvi
 
 		// Calculates the smart path.
 		if (this.getSelected() != null) {
+			// The shortest paths to the selected node from all the nodes, 
+			// computed once for the root node and all its dependencies
+			Map next = AnalysisUtil.getShortestPathTree(this.rootNode, this.getSelected());
 			// Get all the dependencies of the root node
 			Object[] descriptions = AnalysisUtil.getDependencies(this.rootNode);
 			for (int i = 0; i < descriptions.length; i++) {
-				// For each dependency of the root node, compute the shortest path
-				// to the selected node.  add each of these to to the list of nodes.
-				EntityConnectionData entityConnectionData = new EntityConnectionData(this.rootNode, descriptions[i]);
-				Object[] path = AnalysisUtil.getPath(descriptions[i], this.getSelected());
-				if (path.length > 1) {
-					for (int j = 0; j < path.length; j++) {
-						for (int k = 0; k < path.length; k++) {
-							EntityConnectionData entityConnectionData2 = new EntityConnectionData(path[j], path[k]);
-							interestingRels.add(entityConnectionData2);
-						}
-					}
-					interestingEntities.addAll(Arrays.asList(path));
-					interestingEntities.add(descriptions[i]);
-					interestingRels.add(entityConnectionData);
+				// For each dependency of the root node, add the edges of its 
+				// path to the selected node.
+				if (next.containsKey(descriptions[i])) {
+					interestingRels.add(new EntityConnectionData(this.rootNode, descriptions[i]));
+					addPath(descriptions[i], next, interestingRels, interestingEntities);
 				}
 			}
-			Object[] path = AnalysisUtil.getPath(this.rootNode, this.getSelected());
-			if (path.length > 1) {
-				for (int j = 0; j < path.length; j++) {
-					for (int k = 0; k < path.length; k++) {
-						EntityConnectionData entityConnectionData2 = new EntityConnectionData(path[j], path[k]);
-						interestingRels.add(entityConnectionData2);
-					}
-				}
-				interestingEntities.addAll(Arrays.asList(path));
-
+			if (next.containsKey(this.rootNode)) {
+				addPath(this.rootNode, next, interestingRels, interestingEntities);
 			}
 			interestingEntities.add(this.rootNode);
 		}
 	}
 
+	/*
+	 * Adds the nodes and edges of the path from source to the selected node,
+	 * up to the first node already added by another path (the rest of the
+	 * path is shared).
+	 */
+	private void addPath(Object source, Map next, HashSet interestingRels, HashSet interestingEntities) {
+		Object current = source;
+		while (interestingEntities.add(current) && next.containsKey(current)) {
+			Object dependency = next.get(current);
+			interestingRels.add(new EntityConnectionData(current, dependency));
+			current = dependency;
+		}
+		interestingEntities.add(this.getSelected());
+	}
+
 }